@@ -0,0 +1,81 @@
+package com.stalepretzel.chess;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.stalepretzel.chess.exceptions.ChessException;
+
+/**
+ * The games whose positions the benchmarks measure.
+ *
+ * Each game is a short sequence of moves in algebraic notation, from a
+ * new game.  Benchmarks of a single position use the game's last
+ * position.  Benchmarks of parsing parse each of the game's moves.
+ *
+ * Benchmarks select games by name, with a JMH @Param listing the names below.
+ */
+public final class BenchmarkCorpus {
+
+    public static final String ITALIAN = "italian";
+    public static final String TWO_KNIGHTS = "twoKnights";
+    public static final String RUY_LOPEZ = "ruyLopez";
+    public static final String QUEENS_GAMBIT = "queensGambit";
+    public static final String SICILIAN = "sicilian";
+
+    private static final Map<String, String[]> GAMES = new HashMap<String, String[]>();
+
+    static {
+        GAMES.put(ITALIAN, new String[] {"e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5"});
+        GAMES.put(TWO_KNIGHTS, new String[] {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6", "Ng5", "d5",
+                                             "exd5", "Nxd5"});
+        GAMES.put(RUY_LOPEZ, new String[] {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6",
+                                           "O-O", "Be7"});
+        GAMES.put(QUEENS_GAMBIT, new String[] {"d4", "d5", "c4", "e6", "Nc3", "Nf6", "Bg5", "Be7",
+                                               "e3", "O-O"});
+        GAMES.put(SICILIAN, new String[] {"e4", "c5", "Nf3", "d6", "d4", "cxd4", "Nxd4", "Nf6",
+                                          "Nc3", "a6"});
+    }
+
+    // Static utility class.
+    private BenchmarkCorpus() {
+    }
+
+    /** Get the moves of a game, in algebraic notation. */
+    public static String[] moves(String name) {
+        String[] moves = GAMES.get(name);
+        if (moves == null) {
+            throw new IllegalArgumentException("There is no game named " + name);
+        }
+        return moves.clone();
+    }
+
+    /**
+     * Get the positions of a game, before each of its moves.
+     * So, the nth position is the one moves(name)[n] is made from.
+     */
+    public static List<ChessPosition> positionsBeforeMoves(String name) {
+        String[] moves = moves(name);
+        List<ChessPosition> positions = new ArrayList<ChessPosition>();
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        try {
+            for (String move : moves) {
+                positions.add(position);
+                position = AlgebraicNotation.parse(move, position).result(position);
+            }
+        } catch (ChessException e) {
+            throw new IllegalStateException("Game " + name + " is illegal.", e);
+        }
+        return positions;
+    }
+
+    /** Get the last position of a game. */
+    public static ChessPosition position(String name) {
+        try {
+            return Game.fromMoves(moves(name)).getCurrentPosition();
+        } catch (ChessException e) {
+            throw new IllegalStateException("Game " + name + " is illegal.", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.stalepretzel.chess;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+
+/**
+ * Benchmarks of the ChessPosition and ChessMove operations that move
+ * generation and the server spend their time in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChessPositionBenchmark {
+
+    @Param({BenchmarkCorpus.ITALIAN, BenchmarkCorpus.TWO_KNIGHTS, BenchmarkCorpus.RUY_LOPEZ,
+            BenchmarkCorpus.QUEENS_GAMBIT, BenchmarkCorpus.SICILIAN})
+    public String game;
+
+    private ChessPosition position;
+    // The position's legal NormalChessMoves.
+    private List<NormalChessMove> normalMoves;
+    // The game's moves, and the positions they're made from.
+    private String[] algebraicMoves;
+    private List<ChessPosition> positionsBeforeMoves;
+
+    @Setup
+    public void setUp() {
+        position = BenchmarkCorpus.position(game);
+        normalMoves = new ArrayList<NormalChessMove>();
+        for (ChessMove move : position.moves()) {
+            if (move instanceof NormalChessMove) {
+                normalMoves.add((NormalChessMove) move);
+            }
+        }
+        algebraicMoves = BenchmarkCorpus.moves(game);
+        positionsBeforeMoves = BenchmarkCorpus.positionsBeforeMoves(game);
+    }
+
+    @Benchmark
+    public Collection<ChessMove> moves() {
+        return position.moves();
+    }
+
+    @Benchmark
+    public boolean checked() {
+        return position.checked(position.getToMoveColor());
+    }
+
+    /** Make each legal NormalChessMove of the position. */
+    @Benchmark
+    public void result(Blackhole blackhole) {
+        for (NormalChessMove move : normalMoves) {
+            blackhole.consume(move.result(position));
+        }
+    }
+
+    /** Parse each move of the game. */
+    @Benchmark
+    public void parse(Blackhole blackhole) throws AlgebraicNotationException {
+        for (int i = 0; i < algebraicMoves.length; i++) {
+            blackhole.consume(AlgebraicNotation.parse(algebraicMoves[i], positionsBeforeMoves.get(i)));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.stalepretzel.chess.player;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.stalepretzel.chess.BenchmarkCorpus;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.player.AlphaBeta;
+import com.stalepretzel.player.Decision;
+
+/**
+ * Benchmarks of whole fixed-depth searches, configured as the server's
+ * searches are, but without a TranspositionTable, so that every search
+ * does the same work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+// Searches are slow, so take fewer, longer samples than the default.
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlphaBetaBenchmark {
+
+    @Param({BenchmarkCorpus.ITALIAN, BenchmarkCorpus.TWO_KNIGHTS, BenchmarkCorpus.RUY_LOPEZ,
+            BenchmarkCorpus.QUEENS_GAMBIT, BenchmarkCorpus.SICILIAN})
+    public String game;
+
+    @Param({"2", "3", "4"})
+    public int depth;
+
+    private ChessPosition position;
+    private AlphaBeta<ChessPosition> search;
+
+    @Setup
+    public void setUpPosition() {
+        position = BenchmarkCorpus.position(game);
+    }
+
+    /**
+     * Start each iteration with a new MoveOrderer, since its history
+     * carries over from search to search.
+     */
+    @Setup(Level.Iteration)
+    public void setUpSearch() {
+        search = new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                .setMoveOrderer(new ChessMoveOrderer());
+    }
+
+    @Benchmark
+    public Decision<ChessPosition> search() {
+        return search.bestDecision(position, depth);
+    }
+}
@@ -0,0 +1,55 @@
+package com.stalepretzel.chess.player;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.stalepretzel.chess.BenchmarkCorpus;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.player.Heuristic;
+
+/** Benchmarks of evaluating a position, as searches do at every node. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeuristicBenchmark {
+
+    @Param({BenchmarkCorpus.ITALIAN, BenchmarkCorpus.TWO_KNIGHTS, BenchmarkCorpus.RUY_LOPEZ,
+            BenchmarkCorpus.QUEENS_GAMBIT, BenchmarkCorpus.SICILIAN})
+    public String game;
+
+    private ChessPosition position;
+    private Heuristic<ChessPosition> boardPieceValue;
+    private Heuristic<ChessPosition> pieceSquare;
+    private Heuristic<ChessPosition> evaluation;
+
+    @Setup
+    public void setUp() {
+        position = BenchmarkCorpus.position(game);
+        boardPieceValue = new BoardPieceValueHeuristic();
+        pieceSquare = new PieceSquareHeuristic();
+        evaluation = new EvaluationHeuristic();
+    }
+
+    @Benchmark
+    public int boardPieceValue() {
+        return boardPieceValue.value(position);
+    }
+
+    @Benchmark
+    public int pieceSquare() {
+        return pieceSquare.value(position);
+    }
+
+    @Benchmark
+    public int evaluation() {
+        return evaluation.value(position);
+    }
+}
@@ -4,9 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 
-import com.stalepretzel.chess.piece.King;
 import com.stalepretzel.chess.piece.Piece;
-import com.stalepretzel.chess.piece.Queen;
 import com.stalepretzel.player.Outcome;
 import com.stalepretzel.player.Player;
 
@@ -22,19 +20,9 @@ public abstract class AbstractChessPosition implements ChessPosition {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        for (Square s : Square.ALL) {
-            Piece piece = getPiece(s);
-            result = prime * result + (piece == null ? 0 : piece.hashCode());
-        }
-
-        Square enPassantSquare = getEnPassantSquare();
-        result = prime * result + (enPassantSquare == null ? 0 : enPassantSquare.hashCode());
-        result = prime * result + getToMoveColor().hashCode();
-        result = prime * result + getCastlingInfo().hashCode();
-
-        return result;
+        // The Zobrist key already covers everything that equals() compares.
+        long key = getZobristKey();
+        return (int) (key ^ (key >>> 32));
     }
 
     @Override
@@ -48,6 +36,10 @@ public abstract class AbstractChessPosition implements ChessPosition {
         if (!(obj instanceof AbstractChessPosition)) {
             return false;
         }
+        if (obj instanceof ChessSearchBoard) {
+            // Boards change, so they equal only themselves.  (See ChessSearchBoard.)
+            return false;
+        }
 
         AbstractChessPosition other = (AbstractChessPosition) obj;
         for (Square s : Square.ALL) {
@@ -108,65 +100,29 @@ public abstract class AbstractChessPosition implements ChessPosition {
         return shouldMaximize() ? Player.MAXIMIZER : Player.MINIMIZER;
     }
 
-    /**
-     * Return whether the given square is currently under attack.
-     * A square is under attack if a piece of the toMoveColor is
-     * attacking it.
-     */
-    private boolean isAttackable(Square target, Piece.Color attackerColor) {
-        // We'd like to just return true if there's any piece of the
-        // attackerColor that has a sane move to the target Square.
-        // But, moves are only sane if the toMoveColor is equal to the
-        // moving pieces color.
-        // So, we create a trial position, which is identical to this position
-        // EXCEPT that the toMoveColor is set equal to the attackerColor.
-        ChessPosition trialPosition;
-        if (getToMoveColor() == attackerColor) {
-            // Already the correct toMoveColor.
-            trialPosition = this;
-        } else {
-            // We need to switch the toMoveColor.
-            trialPosition = new ChessPositionBuilder(this).setToMoveColor(getToMoveColor().opposite()).build();
-        }
+    @Override
+    public long hashKey() {
+        return getZobristKey();
+    }
 
-        // Now we just see if any piece of the attackerColor has a sane
-        // move to the target Square.
-        for (Square attackerSquare : Square.ALL) {
-            Piece attacker = getPiece(attackerSquare);
-            if (attacker == null || attacker.getColor() != attackerColor) {
-                // No attacker on this square.
-                continue;
-            }
-            NormalChessMove attack = new NormalChessMove(attackerSquare, target);
-            if (attack.isSane(trialPosition)) {
-                return true;
-            } else if (new PromotionMove(attack, new Queen(attackerColor)).isSane(trialPosition)) {
-                return true;
-            }
-        }
-        // Nobody attacks the target.
-        return false;
+    @Override
+    public boolean isAttacked(Square target, Piece.Color attackerColor) {
+        return Attacks.isAttacked(this, target, attackerColor);
     }
 
     /** Return the square that the king of some color occupies. */
     private Square kingSquare(Piece.Color kingColor) {
-        // TODO: Make this more efficient by "caching" the king's position
-        // as an attribute of board.
-        Piece king = new King(kingColor);
-
-        for (Square possibleKingSquare : Square.ALL){
-            if (king.equals(getPiece(possibleKingSquare))) {
-                return possibleKingSquare;
-            }
+        Square kingSquare = getKingSquare(kingColor);
+        if (kingSquare == null) {
+            throw new RuntimeException("There is no king of color " + kingColor + " on the board!");
         }
-        // Didn't return anything!
-        throw new RuntimeException("There is no king of color " + kingColor + " on the board!");
+        return kingSquare;
     }
 
     @Override
     public boolean checked(Piece.Color kingColor) {
         Square kingSquare = kingSquare(kingColor);
-        return isAttackable(kingSquare, kingColor.opposite());
+        return isAttacked(kingSquare, kingColor.opposite());
     }
 
     /** Get the set of sane moves available to the piece on a square. */
@@ -0,0 +1,213 @@
+package com.stalepretzel.chess;
+
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Precomputed attack tables, for answering "is this Square attacked?"
+ *
+ * Squares are identified by their indices, and sets of Squares by
+ * bitboards, as described in Square.getIndex().
+ *
+ * Knights, kings and pawns attack a fixed set of Squares from each
+ * Square, so those sets are simply looked up.  Bishops, rooks and
+ * queens attack along rays, up to and including the first occupied
+ * Square, so we look up each ray and scan it for its first blocker.
+ *
+ * None of these queries allocates anything.
+ */
+final class Attacks {
+
+    // Ray directions, as (deltaFile, deltaRank).
+    // The first four are rook directions; the last four, bishop directions.
+    private static final int[][] DIRECTIONS = {
+        {0, 1}, {1, 0}, {0, -1}, {-1, 0},
+        {1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+    static final int DIRECTION_COUNT = DIRECTIONS.length;
+    static final int FIRST_DIAGONAL_DIRECTION = 4;
+
+    // KNIGHT_ATTACKS[s] = the squares a knight on square s attacks.
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    // KING_ATTACKS[s] = the squares a king on square s attacks.
+    private static final long[] KING_ATTACKS = new long[64];
+    // PAWN_ATTACKS[c][s] = the squares a pawn of color c on square s attacks.
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    // RAYS[d][s] = the squares in direction d from square s, excluding s.
+    private static final long[][] RAYS = new long[DIRECTION_COUNT][64];
+    // RAY_SQUARES[d][s] = RAYS[d][s], as indices ordered outward from s.
+    private static final int[][][] RAY_SQUARES = new int[DIRECTION_COUNT][64][];
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2},
+                               {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        for (int index = 0; index < 64; index++) {
+            int file = index % 8;
+            int rank = index / 8;
+
+            for (int[] step : knightSteps) {
+                KNIGHT_ATTACKS[index] |= bit(file + step[0], rank + step[1]);
+            }
+            for (int[] direction : DIRECTIONS) {
+                KING_ATTACKS[index] |= bit(file + direction[0], rank + direction[1]);
+            }
+            PAWN_ATTACKS[Piece.Color.WHITE.ordinal()][index] =
+                    bit(file - 1, rank + 1) | bit(file + 1, rank + 1);
+            PAWN_ATTACKS[Piece.Color.BLACK.ordinal()][index] =
+                    bit(file - 1, rank - 1) | bit(file + 1, rank - 1);
+
+            for (int d = 0; d < DIRECTION_COUNT; d++) {
+                int length = 0;
+                int[] squares = new int[7];
+                int f = file + DIRECTIONS[d][0];
+                int r = rank + DIRECTIONS[d][1];
+                while (bit(f, r) != 0) {
+                    RAYS[d][index] |= bit(f, r);
+                    squares[length++] = 8 * r + f;
+                    f += DIRECTIONS[d][0];
+                    r += DIRECTIONS[d][1];
+                }
+                RAY_SQUARES[d][index] = new int[length];
+                System.arraycopy(squares, 0, RAY_SQUARES[d][index], 0, length);
+            }
+        }
+    }
+
+    // Static utility class.
+    private Attacks() {
+    }
+
+    /**
+     * Return the bitboard with only the given square set, or 0 if
+     * the square is off the board.
+     * @param file The file, in [0, 7] for on-board squares.
+     * @param rank The rank, in [0, 7] for on-board squares.
+     */
+    private static long bit(int file, int rank) {
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return 0L;
+        }
+        return 1L << (8 * rank + file);
+    }
+
+    /** Get the squares a knight on some square attacks. */
+    static long knightAttacks(int index) {
+        return KNIGHT_ATTACKS[index];
+    }
+
+    /** Get the squares a king on some square attacks. */
+    static long kingAttacks(int index) {
+        return KING_ATTACKS[index];
+    }
+
+    /** Get the squares a pawn of some color on some square attacks. */
+    static long pawnAttacks(Piece.Color color, int index) {
+        return PAWN_ATTACKS[color.ordinal()][index];
+    }
+
+    /**
+     * Get the squares in some direction from a square, ordered outward.
+     * The returned array must not be modified.
+     * @param direction A direction, in [0, DIRECTION_COUNT).  Directions
+     *      from FIRST_DIAGONAL_DIRECTION on are diagonal.
+     */
+    static int[] raySquares(int direction, int index) {
+        return RAY_SQUARES[direction][index];
+    }
+
+    /**
+     * Return whether a piece of some color attacks a target Square.
+     * Works for any ChessPosition, by looking up pieces with getPiece.
+     */
+    static boolean isAttacked(ChessPosition position, Square target, Piece.Color attackerColor) {
+        int index = target.getIndex();
+        if (anyPieceOn(position, KNIGHT_ATTACKS[index], Piece.Type.KNIGHT, attackerColor)) {
+            return true;
+        }
+        if (anyPieceOn(position, KING_ATTACKS[index], Piece.Type.KING, attackerColor)) {
+            return true;
+        }
+        // An attacking pawn stands where a defending pawn on the target would attack.
+        long pawnSquares = PAWN_ATTACKS[attackerColor.opposite().ordinal()][index];
+        if (anyPieceOn(position, pawnSquares, Piece.Type.PAWN, attackerColor)) {
+            return true;
+        }
+
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+            Piece.Type slider = d < FIRST_DIAGONAL_DIRECTION ? Piece.Type.ROOK : Piece.Type.BISHOP;
+            for (int square : RAY_SQUARES[d][index]) {
+                Piece piece = position.getPiece(Square.fromIndex(square));
+                if (piece == null) {
+                    continue;
+                }
+                // This is the first piece along the ray.  It blocks
+                // the rest of the ray, whether or not it attacks.
+                if (piece.getColor() == attackerColor &&
+                        (piece.getType() == slider || piece.getType() == Piece.Type.QUEEN)) {
+                    return true;
+                }
+                break;
+            }
+        }
+        return false;
+    }
+
+    /** Return whether any of some squares holds a piece of some type and color. */
+    private static boolean anyPieceOn(ChessPosition position, long squares,
+                                      Piece.Type type, Piece.Color color) {
+        while (squares != 0) {
+            int index = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            Piece piece = position.getPiece(Square.fromIndex(index));
+            if (piece != null && piece.getType() == type && piece.getColor() == color) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return whether a piece of some color attacks a target Square.
+     * Uses only bitboard operations.
+     */
+    static boolean isAttacked(BitboardChessPosition position, Square target, Piece.Color attackerColor) {
+        int index = target.getIndex();
+        if ((KNIGHT_ATTACKS[index] & position.getBitboard(Piece.Type.KNIGHT, attackerColor)) != 0) {
+            return true;
+        }
+        if ((KING_ATTACKS[index] & position.getBitboard(Piece.Type.KING, attackerColor)) != 0) {
+            return true;
+        }
+        long pawnSquares = PAWN_ATTACKS[attackerColor.opposite().ordinal()][index];
+        if ((pawnSquares & position.getBitboard(Piece.Type.PAWN, attackerColor)) != 0) {
+            return true;
+        }
+
+        long occupied = position.getOccupied();
+        long queens = position.getBitboard(Piece.Type.QUEEN, attackerColor);
+        long rookMovers = position.getBitboard(Piece.Type.ROOK, attackerColor) | queens;
+        long bishopMovers = position.getBitboard(Piece.Type.BISHOP, attackerColor) | queens;
+        for (int d = 0; d < DIRECTION_COUNT; d++) {
+            long sliders = d < FIRST_DIAGONAL_DIRECTION ? rookMovers : bishopMovers;
+            if ((RAYS[d][index] & sliders) == 0) {
+                // Nothing on this ray could attack, blocked or not.
+                continue;
+            }
+            long blockers = RAYS[d][index] & occupied;
+            // The nearest blocker is the lowest set bit for rays that go
+            // toward higher indices, and the highest set bit otherwise.
+            int nearest = increasesIndex(d)
+                    ? Long.numberOfTrailingZeros(blockers)
+                    : 63 - Long.numberOfLeadingZeros(blockers);
+            if ((sliders & (1L << nearest)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Return whether moving in some direction increases the square index. */
+    private static boolean increasesIndex(int direction) {
+        int deltaFile = DIRECTIONS[direction][0];
+        int deltaRank = DIRECTIONS[direction][1];
+        return deltaRank > 0 || (deltaRank == 0 && deltaFile > 0);
+    }
+}
@@ -0,0 +1,189 @@
+package com.stalepretzel.chess;
+
+import com.stalepretzel.chess.piece.Bishop;
+import com.stalepretzel.chess.piece.King;
+import com.stalepretzel.chess.piece.Knight;
+import com.stalepretzel.chess.piece.Pawn;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.chess.piece.Queen;
+import com.stalepretzel.chess.piece.Rook;
+
+/**
+ * A ChessPosition that stores its pieces in bitboards.
+ *
+ * Each kind of piece (white pawn, black pawn, white knight, ...) has a
+ * four-bit code, and the bits of the codes are kept in four 64-bit
+ * planes: bit i of plane k is bit k of the code of the piece on the
+ * Square whose index is i, or 0 if it's empty.  (See Square.getIndex().)
+ * So the piece on a Square takes four shifts to read, and the bitboard
+ * of one kind of piece four ANDs.
+ *
+ * Instances are created by ChessPositionBuilder, when its
+ * Representation is BITBOARD.
+ * This class is immutable.
+ */
+class BitboardChessPosition extends AbstractChessPosition {
+
+    // One Piece of each kind, by piece code.  (See pieceCode.)
+    // Pieces are immutable, so all BitboardChessPositions share these.
+    private static final Piece[] PIECES;
+
+    static {
+        PIECES = new Piece[13];
+        for (Piece.Color color : Piece.Color.values()) {
+            PIECES[pieceCode(Piece.Type.PAWN, color)] = new Pawn(color);
+            PIECES[pieceCode(Piece.Type.KNIGHT, color)] = new Knight(color);
+            PIECES[pieceCode(Piece.Type.BISHOP, color)] = new Bishop(color);
+            PIECES[pieceCode(Piece.Type.ROOK, color)] = new Rook(color);
+            PIECES[pieceCode(Piece.Type.QUEEN, color)] = new Queen(color);
+            PIECES[pieceCode(Piece.Type.KING, color)] = new King(color);
+        }
+    }
+
+    // The bit planes of the piece codes, lowest bit first.
+    private final long plane0;
+    private final long plane1;
+    private final long plane2;
+    private final long plane3;
+    // The occupied squares: the union of the planes.
+    private final long occupied;
+    // The index of the en passant Square, or -1 if there isn't one.
+    private final byte enPassantIndex;
+    private final Piece.Color toMoveColor;
+    // The id of the CastlingInfo.  (See CastlingInfo.getId().)
+    private final byte castlingId;
+    private final long zobristKey;
+    private final long pawnKey;
+    private final int pieceSquareValue;
+    private final int phase;
+
+    /**
+     * Create a BitboardChessPosition from the state of a ChessPositionBuilder.
+     * @param board The pieces, such that board[file - 1][rank - 1] is the
+     *      Piece at that file and rank, or null.
+     * @param zobristKey The Zobrist key of the position, which the
+     *      builder has kept up to date.
+     * @param pawnKey The pawn key of the position, likewise.
+     * @param pieceSquareValue The piece-square value of the position,
+     *      likewise.
+     * @param phase The phase of the position, likewise.
+     */
+    BitboardChessPosition(Piece[][] board, Square enPassantSquare,
+                          Piece.Color toMoveColor, CastlingInfo castlingInfo,
+                          long zobristKey, long pawnKey, int pieceSquareValue, int phase) {
+        long plane0 = 0L;
+        long plane1 = 0L;
+        long plane2 = 0L;
+        long plane3 = 0L;
+        for (Square square : Square.ALL) {
+            Piece piece = board[square.getFile() - 1][square.getRank() - 1];
+            if (piece != null) {
+                long code = pieceCode(piece.getType(), piece.getColor());
+                int index = square.getIndex();
+                plane0 |= (code & 1) << index;
+                plane1 |= ((code >>> 1) & 1) << index;
+                plane2 |= ((code >>> 2) & 1) << index;
+                plane3 |= ((code >>> 3) & 1) << index;
+            }
+        }
+        this.plane0 = plane0;
+        this.plane1 = plane1;
+        this.plane2 = plane2;
+        this.plane3 = plane3;
+        this.occupied = plane0 | plane1 | plane2 | plane3;
+        this.enPassantIndex = (byte) (enPassantSquare == null ? -1 : enPassantSquare.getIndex());
+        this.toMoveColor = toMoveColor;
+        this.castlingId = (byte) castlingInfo.getId();
+        this.zobristKey = zobristKey;
+        this.pawnKey = pawnKey;
+        this.pieceSquareValue = pieceSquareValue;
+        this.phase = phase;
+    }
+
+    /** Return the code of a kind of piece, from 1 to 12.  An empty square's is 0. */
+    private static int pieceCode(Piece.Type type, Piece.Color color) {
+        return 2 * type.ordinal() + color.ordinal() + 1;
+    }
+
+    /** Get the bitboard of squares occupied by pieces of some type and color. */
+    long getBitboard(Piece.Type type, Piece.Color color) {
+        int code = pieceCode(type, color);
+        // The squares whose code agrees with this one in every bit.
+        return ((code & 1) != 0 ? plane0 : ~plane0)
+                & ((code & 2) != 0 ? plane1 : ~plane1)
+                & ((code & 4) != 0 ? plane2 : ~plane2)
+                & ((code & 8) != 0 ? plane3 : ~plane3);
+    }
+
+    /** Get the bitboard of all occupied squares. */
+    long getOccupied() {
+        return occupied;
+    }
+
+    @Override
+    public Piece getPiece(Square square) {
+        int index = square.getIndex();
+        int code = (int) ((plane0 >>> index) & 1)
+                | (int) ((plane1 >>> index) & 1) << 1
+                | (int) ((plane2 >>> index) & 1) << 2
+                | (int) ((plane3 >>> index) & 1) << 3;
+        // PIECES[0] is null, for empty squares.
+        return PIECES[code];
+    }
+
+    @Override
+    public Square getEnPassantSquare() {
+        return enPassantIndex < 0 ? null : Square.fromIndex(enPassantIndex);
+    }
+
+    @Override
+    public Piece.Color getToMoveColor() {
+        return toMoveColor;
+    }
+
+    @Override
+    public CastlingInfo getCastlingInfo() {
+        return CastlingInfo.fromId(castlingId);
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    @Override
+    public int getPieceSquareValue() {
+        return pieceSquareValue;
+    }
+
+    @Override
+    public int getPhase() {
+        return phase;
+    }
+
+    @Override
+    public Square getKingSquare(Piece.Color kingColor) {
+        long kings = getBitboard(Piece.Type.KING, kingColor);
+        return kings == 0 ? null : Square.fromIndex(Long.numberOfTrailingZeros(kings));
+    }
+
+    @Override
+    public boolean isAttacked(Square target, Piece.Color attackerColor) {
+        return Attacks.isAttacked(this, target, attackerColor);
+    }
+
+    @Override
+    public boolean anyOccupied(Iterable<Square> squares) {
+        for (Square square : squares) {
+            if ((occupied & (1L << square.getIndex())) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
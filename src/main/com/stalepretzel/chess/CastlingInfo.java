@@ -86,7 +86,7 @@ public class CastlingInfo {
     }
 
     /** Return a CastlingInfo with the specified "moved values." */
-    private static CastlingInfo fromValues(final boolean whiteCanKingCastle,
+    public static CastlingInfo fromValues(final boolean whiteCanKingCastle,
                                            final boolean whiteCanQueenCastle,
                                            final boolean blackCanKingCastle,
                                            final boolean blackCanQueenCastle) {
@@ -106,11 +106,22 @@ public class CastlingInfo {
                        (blackCanQueenCastle ? BCQC_FLAG : 0));
     }
 
-    /** Return the CastlingInfo with the specified id. */
-    private static CastlingInfo fromId(byte id) {
+    /**
+     * Return the CastlingInfo with the specified id.
+     * @param id An id, as returned by getId(), in the range [0, 15].
+     */
+    public static CastlingInfo fromId(int id) {
         return ALL[id];
     }
 
+    /**
+     * Get the id of this CastlingInfo, in the range [0, 15].
+     * Two CastlingInfos are equal if and only if their ids are equal.
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Return a CastlingInfo with no moved kings or rooks.
      */
@@ -124,26 +135,37 @@ public class CastlingInfo {
      * @param move The move to account for.
      */
     public CastlingInfo updated(ChessMove move) {
+        return updated(move.getStart(), move.getEnd());
+    }
+
+    /**
+     * Get a copy of this CastlingInfo that reflects the king/rook movements induced by a move.
+     * Requires that the move is legal for the board that this CastlingInfo pertains to.
+     * @param start The Square the move's moving piece starts on.  (For
+     *      castling, that's the king.)
+     * @param end The Square the move's moving piece ends on.
+     */
+    public CastlingInfo updated(Square start, Square end) {
         // If any move starts or ends at a square of interest, then the
         // piece whose home was that square has either moved (in this move
         // or a previous move), or been captured.  In any such case, it means
         // the piece whose home was that square has moved in some way or another.
 
         boolean whiteCanKingCastle = (this.whiteCanKingCastle &&
-                                      !startsOrEndsAt(move, E1) &&
-                                      !startsOrEndsAt(move, H1));
+                                      !startsOrEndsAt(start, end, E1) &&
+                                      !startsOrEndsAt(start, end, H1));
 
         boolean whiteCanQueenCastle = (this.whiteCanQueenCastle &&
-                                       !startsOrEndsAt(move, E1) &&
-                                       !startsOrEndsAt(move, A1));
+                                       !startsOrEndsAt(start, end, E1) &&
+                                       !startsOrEndsAt(start, end, A1));
 
         boolean blackCanKingCastle = (this.blackCanKingCastle &&
-                                      !startsOrEndsAt(move, E8) &&
-                                      !startsOrEndsAt(move, H8));
+                                      !startsOrEndsAt(start, end, E8) &&
+                                      !startsOrEndsAt(start, end, H8));
 
         boolean blackCanQueenCastle = (this.blackCanQueenCastle &&
-                                       !startsOrEndsAt(move, E8) &&
-                                       !startsOrEndsAt(move, A8));
+                                       !startsOrEndsAt(start, end, E8) &&
+                                       !startsOrEndsAt(start, end, A8));
 
         return fromValues(whiteCanKingCastle, whiteCanQueenCastle,
                           blackCanKingCastle, blackCanQueenCastle);
@@ -158,8 +180,8 @@ public class CastlingInfo {
         }
     }
 
-    /** Returns whether the moving Piece of a ChessMove starts or ends at some Square. */
-    private static boolean startsOrEndsAt(ChessMove move, Square square) {
-        return move.getStart().equals(square) || move.getEnd().equals(square);
+    /** Returns whether a move, from start to end, starts or ends at some Square. */
+    private static boolean startsOrEndsAt(Square start, Square end, Square square) {
+        return start.equals(square) || end.equals(square);
     }
 }
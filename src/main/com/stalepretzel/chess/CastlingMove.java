@@ -142,23 +142,28 @@ public class CastlingMove implements ChessMove {
         if (!isSane(position)) {
             return false;
         }
-        // Ensure that king was not checked before moving.
-        if (position.checked(position.getToMoveColor())) {
+        if (!crossesSafely(position)) {
             return false;
         }
 
-        Square start = getStart();
+        ChessPosition resultBoard = result(position);
+        return !resultBoard.checked(position.getToMoveColor());
+    }
 
-        // Ensure that king did not move through check.
-        // Do this by making the king move to that square, and seeing whether it is checked.
-        Square transitSquare = start.plus(getDelta().unitized());
-        NormalChessMove loneKingMove = new NormalChessMove(start, transitSquare);
-        if (!loneKingMove.isLegal(position)) {
+    /**
+     * Return whether the king neither starts in check, nor passes through
+     * an attacked Square.
+     * Castling legality also requires that the king does not end in check,
+     * which this method does not test.
+     */
+    public boolean crossesSafely(ChessPosition position) {
+        // Ensure that king was not checked before moving.
+        if (position.checked(color)) {
             return false;
         }
-
-        ChessPosition resultBoard = result(position);
-        return !resultBoard.checked(position.getToMoveColor());
+        // Ensure that king did not move through check.
+        Square transitSquare = getStart().plus(getDelta().unitized());
+        return !position.isAttacked(transitSquare, color.opposite());
     }
 
     @Override
@@ -7,7 +7,8 @@ import com.stalepretzel.player.Position;
 
 /**
  * A chess board at a specific position.
- * Implementations must be immutable.
+ * Implementations must be immutable, except for ChessSearchBoard,
+ * which is only meant for use inside of a search.
  */
 public interface ChessPosition extends Position<ChessPosition> {
 
@@ -21,6 +22,45 @@ public interface ChessPosition extends Position<ChessPosition> {
 
     public CastlingInfo getCastlingInfo();
 
+    /**
+     * Get the Zobrist key of this position.
+     * Equal positions have equal keys.  Unequal positions almost
+     * always have unequal keys.  (See Zobrist.)
+     */
+    public long getZobristKey();
+
+    /**
+     * Get the pawn key of this position, which depends only on where
+     * the pawns are.  (See Zobrist.)
+     */
+    public long getPawnKey();
+
+    /**
+     * Get the material and piece-square value of this position, in
+     * centipawns, positive when it favors white.  Implementations keep
+     * it up to date as the position changes, so this is cheap.  (See
+     * PieceSquareTable.)
+     */
+    public int getPieceSquareValue();
+
+    /**
+     * Get the phase of this position, from PieceSquareTable.MAX_PHASE
+     * in the opening down to 0 in a pawn endgame.  Kept up to date like
+     * the piece-square value.  (See PieceSquareTable.)
+     */
+    public int getPhase();
+
+    /** Get the Square the king of some color occupies, or null if there isn't one. */
+    public Square getKingSquare(Piece.Color kingColor);
+
+    /**
+     * Return whether any piece of some color attacks a Square.
+     * A piece attacks a Square if it could capture an enemy piece
+     * there.  So, pawns attack diagonally forward, and a piece
+     * attacks a Square whether it's empty or not.
+     */
+    public boolean isAttacked(Square square, Piece.Color attackerColor);
+
     /** Return whether the king of some color is in check. */
     public boolean checked(Piece.Color kingColor);
 
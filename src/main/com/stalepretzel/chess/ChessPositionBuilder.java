@@ -1,5 +1,6 @@
 package com.stalepretzel.chess;
 
+import com.stalepretzel.chess.exceptions.FenException;
 import com.stalepretzel.chess.piece.Bishop;
 import com.stalepretzel.chess.piece.King;
 import com.stalepretzel.chess.piece.Knight;
@@ -26,6 +27,14 @@ import com.stalepretzel.chess.piece.Piece.Color;
  */
 public class ChessPositionBuilder {
 
+    /** The ways in which a built ChessPosition can store its pieces. */
+    public enum Representation {
+        /** An 8x8 array of Pieces. */
+        ARRAY,
+        /** One 64-bit bitboard per kind of piece.  See BitboardChessPosition. */
+        BITBOARD;
+    }
+
     // A ChessPositionBuilder may only build one ChessPosition.
     // This allows them to share state, with no worry that modifying
     // the Builder will modify the Position.
@@ -38,10 +47,36 @@ public class ChessPositionBuilder {
     private Color toMoveColor;
     // For use in deciding whether castling is legal.
     private CastlingInfo castlingInfo;
-
-    /** Create a new ChessPositionBuilder with an empty board. */
+    private Representation representation;
+    // kingSquares[color.ordinal()] = the Square of the king of that
+    // color, or null.  Kept up to date as pieces are placed and
+    // removed, so built positions never need to search for kings.
+    private final Square[] kingSquares;
+    // The Zobrist key of the position being built.  Every mutator
+    // updates it incrementally.  (See Zobrist.)
+    private long zobristKey;
+    private long pawnKey;
+    // The piece-square value of the position being built, likewise kept
+    // up to date.  (See PieceSquareTable.)
+    private int pieceSquareValue;
+    private int phase;
+
+    /** Create a new ChessPositionBuilder with an empty board, in the ARRAY Representation. */
     public ChessPositionBuilder() {
+        this(Representation.ARRAY);
+    }
+
+    /**
+     * Create a new ChessPositionBuilder with an empty board, in some
+     * Representation.
+     * Builders created from a source ChessPosition instead always use
+     * the source's Representation, so that, e.g., the result of making
+     * a move on a bitboard position is also a bitboard position.
+     */
+    public ChessPositionBuilder(Representation representation) {
         board = new Piece[8][8];
+        kingSquares = new Square[2];
+        this.representation = representation;
         setEnPassantSquare(null);
         setToMoveColor(Piece.Color.WHITE);
         setCastlingInfo(CastlingInfo.allowAll());
@@ -56,11 +91,21 @@ public class ChessPositionBuilder {
     public ChessPositionBuilder(ChessPosition source) {
         board = new Piece[8][8];
         for (Square s : Square.ALL) {
-            placePiece(source.getPiece(s), s);
+            board[s.getFile() - 1][s.getRank() - 1] = source.getPiece(s);
+        }
+        kingSquares = new Square[2];
+        for (Piece.Color color : Piece.Color.values()) {
+            kingSquares[color.ordinal()] = source.getKingSquare(color);
         }
-        setEnPassantSquare(source.getEnPassantSquare());
-        setToMoveColor(source.getToMoveColor());
-        setCastlingInfo(source.getCastlingInfo());
+        enPassantSquare = source.getEnPassantSquare();
+        toMoveColor = source.getToMoveColor();
+        castlingInfo = source.getCastlingInfo();
+        zobristKey = source.getZobristKey();
+        pawnKey = source.getPawnKey();
+        pieceSquareValue = source.getPieceSquareValue();
+        phase = source.getPhase();
+        representation = (source instanceof BitboardChessPosition)
+                ? Representation.BITBOARD : Representation.ARRAY;
     }
 
     /**
@@ -118,6 +163,96 @@ public class ChessPositionBuilder {
         return this;
     }
 
+    /**
+     * Put the position in the position described by a FEN string.
+     * (See https://en.wikipedia.org/wiki/Forsyth-Edwards_Notation.)
+     * The halfmove clock and fullmove number are optional, and ignored,
+     * since ChessPositions don't track them.
+     * @param fen The position, e.g.
+     *      "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1".
+     * @return This ChessPositionBuilder, for daisy chaining.
+     * @throws FenException If fen is not a legal FEN string.
+     */
+    public ChessPositionBuilder setupFen(String fen) throws FenException {
+        assertUnbuilt();
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new FenException("FEN must have four to six fields: " + fen);
+        }
+
+        for (Square sq : Square.ALL) {
+            vacate(sq);
+        }
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new FenException("FEN must have eight ranks: " + fields[0]);
+        }
+        for (int i = 0; i < 8; i++) {
+            // Ranks are listed from the eighth down.
+            int rank = 8 - i;
+            int file = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    file += c - '0';
+                    continue;
+                }
+                if (file > 8) {
+                    throw new FenException("Too many squares in rank " + rank + ": " + ranks[i]);
+                }
+                placePiece(fenPiece(c), Square.squareAt(file, rank));
+                file++;
+            }
+            if (file != 9) {
+                throw new FenException("Rank " + rank + " must have eight squares: " + ranks[i]);
+            }
+        }
+
+        if (fields[1].equals("w")) {
+            setToMoveColor(Piece.Color.WHITE);
+        } else if (fields[1].equals("b")) {
+            setToMoveColor(Piece.Color.BLACK);
+        } else {
+            throw new FenException("To-move color must be w or b, not " + fields[1]);
+        }
+
+        String castling = fields[2];
+        if (!castling.matches("-|K?Q?k?q?") || castling.isEmpty()) {
+            throw new FenException("Illegal castling availability: " + castling);
+        }
+        setCastlingInfo(CastlingInfo.fromValues(castling.contains("K"), castling.contains("Q"),
+                                                castling.contains("k"), castling.contains("q")));
+
+        if (fields[3].equals("-")) {
+            setEnPassantSquare(null);
+        } else if (fields[3].matches("[a-h][36]")) {
+            setEnPassantSquare(Square.algebraic(fields[3]));
+        } else {
+            throw new FenException("Illegal en passant square: " + fields[3]);
+        }
+        return this;
+    }
+
+    /** Get the Piece that a FEN piece letter stands for. */
+    private static Piece fenPiece(char letter) throws FenException {
+        Piece.Color color = Character.isUpperCase(letter) ? Piece.Color.WHITE : Piece.Color.BLACK;
+        switch (Character.toUpperCase(letter)) {
+        case 'P':
+            return new Pawn(color);
+        case 'N':
+            return new Knight(color);
+        case 'B':
+            return new Bishop(color);
+        case 'R':
+            return new Rook(color);
+        case 'Q':
+            return new Queen(color);
+        case 'K':
+            return new King(color);
+        default:
+            throw new FenException("Illegal piece letter: " + letter);
+        }
+    }
+
     private void assertUnbuilt() {
         if (built){
             throw new AssertionError("This ChessPositionBuilder already built its " +
@@ -144,14 +279,29 @@ public class ChessPositionBuilder {
         private final Square enPassantSquare;
         private final Piece.Color toMoveColor;
         private final CastlingInfo castlingInfo;
+        private final Square whiteKingSquare;
+        private final Square blackKingSquare;
+        private final long zobristKey;
+        private final long pawnKey;
+        private final int pieceSquareValue;
+        private final int phase;
 
         private ChessPositionImpl(Piece[][] board, Square enPassantSquare,
-                                  Piece.Color toMoveColor, CastlingInfo castlingInfo) {
+                                  Piece.Color toMoveColor, CastlingInfo castlingInfo,
+                                  Square whiteKingSquare, Square blackKingSquare,
+                                  long zobristKey, long pawnKey, int pieceSquareValue,
+                                  int phase) {
             super();
             this.board = board;
             this.enPassantSquare = enPassantSquare;
             this.toMoveColor = toMoveColor;
             this.castlingInfo = castlingInfo;
+            this.whiteKingSquare = whiteKingSquare;
+            this.blackKingSquare = blackKingSquare;
+            this.zobristKey = zobristKey;
+            this.pawnKey = pawnKey;
+            this.pieceSquareValue = pieceSquareValue;
+            this.phase = phase;
         }
 
         @Override
@@ -173,13 +323,59 @@ public class ChessPositionBuilder {
         public CastlingInfo getCastlingInfo() {
             return castlingInfo;
         }
+
+        @Override
+        public Square getKingSquare(Color kingColor) {
+            return (kingColor == Piece.Color.WHITE) ? whiteKingSquare : blackKingSquare;
+        }
+
+        @Override
+        public long getZobristKey() {
+            return zobristKey;
+        }
+
+        @Override
+        public long getPawnKey() {
+            return pawnKey;
+        }
+
+        @Override
+        public int getPieceSquareValue() {
+            return pieceSquareValue;
+        }
+
+        @Override
+        public int getPhase() {
+            return phase;
+        }
     }
 
     /** Return the ChessPosition currently represented by this ChessPositionBuilder. */
     public ChessPosition build() {
         assertUnbuilt();
         built = true;
-        return new ChessPositionImpl(board, enPassantSquare, toMoveColor, castlingInfo);
+        switch (representation) {
+        case ARRAY:
+            return new ChessPositionImpl(board, enPassantSquare, toMoveColor, castlingInfo,
+                                         kingSquares[Piece.Color.WHITE.ordinal()],
+                                         kingSquares[Piece.Color.BLACK.ordinal()],
+                                         zobristKey, pawnKey, pieceSquareValue, phase);
+        case BITBOARD:
+            return new BitboardChessPosition(board, enPassantSquare, toMoveColor, castlingInfo,
+                                             zobristKey, pawnKey, pieceSquareValue, phase);
+        default:
+            throw new RuntimeException("Unexpected Representation " + representation);
+        }
+    }
+
+    /**
+     * Set how the built ChessPosition will store its pieces.
+     * @return This ChessPositionBuilder, for daisy chaining.
+     */
+    public ChessPositionBuilder setRepresentation(Representation representation) {
+        assertUnbuilt();
+        this.representation = representation;
+        return this;
     }
 
     /**
@@ -189,7 +385,7 @@ public class ChessPositionBuilder {
      */
     public ChessPositionBuilder placePiece(Piece piece, Square square) {
         assertUnbuilt();
-        board[square.getFile() - 1][square.getRank() - 1] = piece;
+        setSquare(square, piece);
         return this;
     }
 
@@ -198,16 +394,36 @@ public class ChessPositionBuilder {
      */
     public ChessPositionBuilder vacate(Square square) {
         assertUnbuilt();
-        board[square.getFile() - 1][square.getRank() - 1] = null;
+        setSquare(square, null);
         return this;
     }
 
+    /**
+     * Set the contents of a Square, keeping track of where the kings are,
+     * and of the Zobrist keys, piece-square value and phase.
+     */
+    private void setSquare(Square square, Piece piece) {
+        Piece oldPiece = board[square.getFile() - 1][square.getRank() - 1];
+        zobristKey ^= Zobrist.piece(oldPiece, square) ^ Zobrist.piece(piece, square);
+        pawnKey ^= Zobrist.pawn(oldPiece, square) ^ Zobrist.pawn(piece, square);
+        pieceSquareValue += PieceSquareTable.value(piece, square) - PieceSquareTable.value(oldPiece, square);
+        phase += PieceSquareTable.phase(piece) - PieceSquareTable.phase(oldPiece);
+        if (oldPiece instanceof King && square.equals(kingSquares[oldPiece.getColor().ordinal()])) {
+            kingSquares[oldPiece.getColor().ordinal()] = null;
+        }
+        if (piece instanceof King) {
+            kingSquares[piece.getColor().ordinal()] = square;
+        }
+        board[square.getFile() - 1][square.getRank() - 1] = piece;
+    }
+
     /**
      * Set the square onto which pawns move for an en-passant capture.
      * @return This ChessPositionBuilder, for daisy chaining.
      */
     public ChessPositionBuilder setEnPassantSquare(Square square) {
         assertUnbuilt();
+        zobristKey ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(square);
         this.enPassantSquare = square;
         return this;
     }
@@ -218,6 +434,7 @@ public class ChessPositionBuilder {
      */
     public ChessPositionBuilder setToMoveColor(Color color) {
         assertUnbuilt();
+        zobristKey ^= Zobrist.toMove(toMoveColor) ^ Zobrist.toMove(color);
         this.toMoveColor = color;
         return this;
     }
@@ -228,7 +445,7 @@ public class ChessPositionBuilder {
      */
     public ChessPositionBuilder flipToMoveColor() {
         assertUnbuilt();
-        toMoveColor = toMoveColor.opposite();
+        setToMoveColor(toMoveColor.opposite());
         return this;
     }
 
@@ -238,6 +455,7 @@ public class ChessPositionBuilder {
      */
     public ChessPositionBuilder setCastlingInfo(CastlingInfo castlingInfo) {
         assertUnbuilt();
+        zobristKey ^= Zobrist.castling(this.castlingInfo) ^ Zobrist.castling(castlingInfo);
         this.castlingInfo = castlingInfo;
         return this;
     }
@@ -250,7 +468,7 @@ public class ChessPositionBuilder {
      */
     public ChessPositionBuilder updateCastlingInfo(ChessMove move) {
         assertUnbuilt();
-        this.castlingInfo = castlingInfo.updated(move);
+        setCastlingInfo(castlingInfo.updated(move));
         return this;
     }
 
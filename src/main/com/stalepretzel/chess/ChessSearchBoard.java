@@ -0,0 +1,615 @@
+package com.stalepretzel.chess;
+
+import java.util.Arrays;
+
+import com.stalepretzel.chess.piece.Bishop;
+import com.stalepretzel.chess.piece.Knight;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.chess.piece.Queen;
+import com.stalepretzel.chess.piece.Rook;
+import com.stalepretzel.player.Move;
+import com.stalepretzel.player.MoveList;
+import com.stalepretzel.player.NullMoveBoard;
+import com.stalepretzel.player.SearchBoard;
+import com.stalepretzel.player.SearchBoardFactory;
+
+/**
+ * A mutable ChessPosition, on which a search makes and unmakes moves.
+ *
+ * Making a ChessMove with ChessMove.result copies the whole board.  A
+ * ChessSearchBoard instead changes its own squares in place, and
+ * remembers just enough to undo the change: the old contents of each
+ * square it changed, plus the en passant square and CastlingInfo from
+ * before the move.  Unmaking the move replays that record backwards.
+ *
+ * Moves are packed into ints, as described in PackedMove.  They are
+ * generated straight from the board and the attack tables, without
+ * creating any ChessMoves, and made without any further analysis of
+ * the position.
+ *
+ * Unlike other ChessPositions, a ChessSearchBoard is NOT immutable.
+ * It should only be used while searching: anything that keeps a
+ * position around should keep an immutable one, e.g. from snapshot().
+ * So that a board can't change under a HashMap, or change what it
+ * equaled, a ChessSearchBoard is equal only to itself.  To compare
+ * its current position with another, compare a snapshot().
+ */
+public class ChessSearchBoard extends AbstractChessPosition implements NullMoveBoard<ChessPosition> {
+
+    /** A SearchBoardFactory that creates ChessSearchBoards. */
+    public static final SearchBoardFactory<ChessPosition> FACTORY =
+            new SearchBoardFactory<ChessPosition>() {
+                @Override
+                public SearchBoard<ChessPosition> searchBoard(ChessPosition position) {
+                    return new ChessSearchBoard(position);
+                }
+            };
+
+    // Candidate moves come in two stages: captures and promotions, then the rest.
+    private static final int TACTICAL_STAGE = 0;
+    private static final int QUIET_STAGE = 1;
+    private static final int STAGE_COUNT = 2;
+
+    // The squares between which pieces move when castling.
+    private static final int WHITE_KING_HOME = 4;
+    private static final int BLACK_KING_HOME = 60;
+    private static final int KINGSIDE_ROOK_OFFSET = 3;
+    private static final int QUEENSIDE_ROOK_OFFSET = -4;
+    private static final int CASTLING_KING_OFFSET = 2;
+
+    // PROMOTED_PIECES[color ordinal][promotion flags & 3].  Pieces are
+    // immutable, so promotions share these, rather than allocating.
+    private static final Piece[][] PROMOTED_PIECES = new Piece[2][];
+
+    static {
+        for (Piece.Color color : Piece.Color.values()) {
+            PROMOTED_PIECES[color.ordinal()] = new Piece[] {
+                new Knight(color), new Bishop(color), new Rook(color), new Queen(color)};
+        }
+    }
+
+    // The initial capacities of the undo records.  They grow as needed.
+    private static final int INITIAL_MOVE_CAPACITY = 64;
+    private static final int INITIAL_CHANGE_CAPACITY = 4 * INITIAL_MOVE_CAPACITY;
+
+    // board[square.getIndex()] = the piece on that square, or null.
+    private final Piece[] board;
+    private Square enPassantSquare;
+    private Piece.Color toMoveColor;
+    private CastlingInfo castlingInfo;
+    // kingSquares[color.ordinal()] = the Square of the king of that color, or null.
+    private final Square[] kingSquares;
+    private long zobristKey;
+    // Restoring squares restores these, too, so they need no undo stacks.
+    private long pawnKey;
+    private int pieceSquareValue;
+    private int phase;
+
+    // The square changes made so far, oldest first.
+    // changedSquares[i] was occupied by changedPieces[i] before change i.
+    private int[] changedSquares;
+    private Piece[] changedPieces;
+    private int changeCount;
+
+    // One entry per made (and not yet unmade) move, oldest first.
+    // Move i's square changes start at changeStarts[i].
+    private int[] changeStarts;
+    private long[] oldZobristKeys;
+    private Square[] oldEnPassantSquares;
+    private CastlingInfo[] oldCastlingInfos;
+    private int moveCount;
+
+    /** Create a ChessSearchBoard whose position is equal to some ChessPosition. */
+    public ChessSearchBoard(ChessPosition position) {
+        board = new Piece[64];
+        for (Square square : Square.ALL) {
+            board[square.getIndex()] = position.getPiece(square);
+        }
+        kingSquares = new Square[2];
+        for (Piece.Color color : Piece.Color.values()) {
+            kingSquares[color.ordinal()] = position.getKingSquare(color);
+        }
+        enPassantSquare = position.getEnPassantSquare();
+        toMoveColor = position.getToMoveColor();
+        castlingInfo = position.getCastlingInfo();
+        zobristKey = position.getZobristKey();
+        pawnKey = position.getPawnKey();
+        pieceSquareValue = position.getPieceSquareValue();
+        phase = position.getPhase();
+
+        changedSquares = new int[INITIAL_CHANGE_CAPACITY];
+        changedPieces = new Piece[INITIAL_CHANGE_CAPACITY];
+        changeStarts = new int[INITIAL_MOVE_CAPACITY];
+        oldZobristKeys = new long[INITIAL_MOVE_CAPACITY];
+        oldEnPassantSquares = new Square[INITIAL_MOVE_CAPACITY];
+        oldCastlingInfos = new CastlingInfo[INITIAL_MOVE_CAPACITY];
+    }
+
+    /** Return an immutable ChessPosition equal to this board's current position. */
+    public ChessPosition snapshot() {
+        return new ChessPositionBuilder(this).build();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public Piece getPiece(Square square) {
+        return board[square.getIndex()];
+    }
+
+    @Override
+    public Square getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    @Override
+    public Piece.Color getToMoveColor() {
+        return toMoveColor;
+    }
+
+    @Override
+    public CastlingInfo getCastlingInfo() {
+        return castlingInfo;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    @Override
+    public int getPieceSquareValue() {
+        return pieceSquareValue;
+    }
+
+    @Override
+    public int getPhase() {
+        return phase;
+    }
+
+    @Override
+    public Square getKingSquare(Piece.Color kingColor) {
+        return kingSquares[kingColor.ordinal()];
+    }
+
+    @Override
+    public ChessPosition position() {
+        return this;
+    }
+
+    @Override
+    public int stageCount() {
+        return STAGE_COUNT;
+    }
+
+    /**
+     * Add the sane moves of a stage, packed.
+     * Sane moves are legal, except that they might leave the king in
+     * check, or castle out of or through check.  makeMove checks for
+     * that.
+     */
+    @Override
+    public void candidateMoves(int stage, MoveList moves) {
+        switch (stage) {
+        case TACTICAL_STAGE:
+            addTacticalMoves(moves);
+            break;
+        case QUIET_STAGE:
+            addQuietMoves(moves);
+            break;
+        default:
+            throw new IllegalArgumentException("There is no stage " + stage);
+        }
+    }
+
+    /** Add the sane captures and promotions, packed.  (See candidateMoves.) */
+    @Override
+    public void tacticalMoves(MoveList moves) {
+        addTacticalMoves(moves);
+    }
+
+    @Override
+    public boolean isTactical(int move) {
+        return PackedMove.isTactical(move);
+    }
+
+    @Override
+    public boolean isInCheck() {
+        return checked(toMoveColor);
+    }
+
+    /**
+     * Return whether the color to move may pass: it must not be in
+     * check, and it must have a piece other than pawns and its king.
+     * Zugzwang is common in endgames of just kings and pawns.
+     */
+    @Override
+    public boolean canMakeNullMove() {
+        if (checked(toMoveColor)) {
+            return false;
+        }
+        for (Piece piece : board) {
+            if (piece != null && piece.getColor() == toMoveColor &&
+                    piece.getType() != Piece.Type.PAWN && piece.getType() != Piece.Type.KING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void makeNullMove() {
+        beginMove();
+        // Passing forfeits any en-passant capture.
+        setEnPassantSquare(null);
+        flipToMoveColor();
+    }
+
+    @Override
+    public boolean isCandidate(int move) {
+        if (move == NO_MOVE) {
+            return false;
+        }
+        Piece mover = board[PackedMove.start(move)];
+        if (mover == null || mover.getColor() != toMoveColor) {
+            return false;
+        }
+        // The flags must be right, too, since makeMove trusts them.
+        ChessMove chessMove = PackedMove.toChessMove(move);
+        return chessMove.isSane(this) && PackedMove.fromChessMove(chessMove, this) == move;
+    }
+
+    @Override
+    public Move<ChessPosition> toMove(int move) {
+        return PackedMove.toChessMove(move);
+    }
+
+    @Override
+    public int fromMove(Move<ChessPosition> move) {
+        return PackedMove.fromChessMove((ChessMove) move, this);
+    }
+
+    /**
+     * Add the sane captures and promotions.
+     * Except for pawns, captures are found with the attack tables,
+     * without generating any quiet moves.
+     */
+    private void addTacticalMoves(MoveList moves) {
+        for (int index = 0; index < board.length; index++) {
+            Piece piece = board[index];
+            if (piece == null || piece.getColor() != toMoveColor) {
+                continue;
+            }
+            switch (piece.getType()) {
+            case PAWN:
+                addPawnTacticalMoves(index, moves);
+                break;
+            case KNIGHT:
+                addSteps(index, Attacks.knightAttacks(index), true, moves);
+                break;
+            case KING:
+                addSteps(index, Attacks.kingAttacks(index), true, moves);
+                break;
+            default:
+                addSlides(index, piece.getType(), true, moves);
+                break;
+            }
+        }
+    }
+
+    /** Add the sane moves that are neither captures nor promotions. */
+    private void addQuietMoves(MoveList moves) {
+        for (int index = 0; index < board.length; index++) {
+            Piece piece = board[index];
+            if (piece == null || piece.getColor() != toMoveColor) {
+                continue;
+            }
+            switch (piece.getType()) {
+            case PAWN:
+                addPawnPushes(index, moves);
+                break;
+            case KNIGHT:
+                addSteps(index, Attacks.knightAttacks(index), false, moves);
+                break;
+            case KING:
+                addSteps(index, Attacks.kingAttacks(index), false, moves);
+                addCastling(index, moves);
+                break;
+            default:
+                addSlides(index, piece.getType(), false, moves);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Add the moves from a start square to some target squares, as a
+     * knight or king makes them.
+     * @param captures Whether to add the captures of opposing pieces on
+     *      the targets, or the moves to empty targets.
+     */
+    private void addSteps(int start, long targets, boolean captures, MoveList moves) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            Piece victim = board[target];
+            if (victim == null) {
+                if (!captures) {
+                    moves.add(PackedMove.pack(start, target, PackedMove.QUIET));
+                }
+            } else if (captures && victim.getColor() != toMoveColor) {
+                moves.add(PackedMove.pack(start, target, PackedMove.CAPTURE));
+            }
+        }
+    }
+
+    /**
+     * Add the moves a bishop, rook or queen can make from a start square.
+     * @param captures Whether to add the captures, or the moves to empty squares.
+     */
+    private void addSlides(int start, Piece.Type type, boolean captures, MoveList moves) {
+        for (int d = 0; d < Attacks.DIRECTION_COUNT; d++) {
+            boolean diagonal = d >= Attacks.FIRST_DIAGONAL_DIRECTION;
+            if ((diagonal && type == Piece.Type.ROOK) || (!diagonal && type == Piece.Type.BISHOP)) {
+                continue;
+            }
+            for (int target : Attacks.raySquares(d, start)) {
+                Piece victim = board[target];
+                if (victim == null) {
+                    if (!captures) {
+                        moves.add(PackedMove.pack(start, target, PackedMove.QUIET));
+                    }
+                    continue;
+                }
+                // The first piece along the ray blocks the rest of it.
+                if (captures && victim.getColor() != toMoveColor) {
+                    moves.add(PackedMove.pack(start, target, PackedMove.CAPTURE));
+                }
+                break;
+            }
+        }
+    }
+
+    /** Add a pawn's captures, including en passant, and promotions. */
+    private void addPawnTacticalMoves(int start, MoveList moves) {
+        long targets = Attacks.pawnAttacks(toMoveColor, start);
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            Piece victim = board[target];
+            if (victim != null && victim.getColor() != toMoveColor) {
+                if (isPromotionRank(target)) {
+                    addPromotions(start, target, true, moves);
+                } else {
+                    moves.add(PackedMove.pack(start, target, PackedMove.CAPTURE));
+                }
+            } else if (victim == null && enPassantSquare != null &&
+                       target == enPassantSquare.getIndex()) {
+                moves.add(PackedMove.pack(start, target, PackedMove.EN_PASSANT));
+            }
+        }
+
+        int push = start + forward();
+        if (isPromotionRank(push) && board[push] == null) {
+            addPromotions(start, push, false, moves);
+        }
+    }
+
+    /** Add a pawn's pushes, except promotions. */
+    private void addPawnPushes(int start, MoveList moves) {
+        int push = start + forward();
+        if (isPromotionRank(push) || board[push] != null) {
+            return;
+        }
+        moves.add(PackedMove.pack(start, push, PackedMove.QUIET));
+        int homeRank = toMoveColor == Piece.Color.WHITE ? 1 : 6;
+        int doublePush = push + forward();
+        if (start / 8 == homeRank && board[doublePush] == null) {
+            moves.add(PackedMove.pack(start, doublePush, PackedMove.DOUBLE_PUSH));
+        }
+    }
+
+    /** Add a pawn's promotions to each piece type, queen first. */
+    private static void addPromotions(int start, int end, boolean capture, MoveList moves) {
+        int queenFlags = PackedMove.promotionFlags(Piece.Type.QUEEN, capture);
+        // The flags for knights, bishops and rooks come just before queens'.
+        for (int flags = queenFlags; flags > queenFlags - 4; flags--) {
+            moves.add(PackedMove.pack(start, end, flags));
+        }
+    }
+
+    /**
+     * Add the castling moves of a king, if it's home, its side still
+     * has the right to castle, and the squares to its rook are empty.
+     */
+    private void addCastling(int kingSquare, MoveList moves) {
+        int home = toMoveColor == Piece.Color.WHITE ? WHITE_KING_HOME : BLACK_KING_HOME;
+        if (kingSquare != home) {
+            return;
+        }
+        if (castlingInfo.castlePiecesReady(toMoveColor, CastlingMove.Side.KINGSIDE) &&
+                emptyBetween(home, home + KINGSIDE_ROOK_OFFSET)) {
+            moves.add(PackedMove.pack(home, home + CASTLING_KING_OFFSET, PackedMove.KING_CASTLE));
+        }
+        if (castlingInfo.castlePiecesReady(toMoveColor, CastlingMove.Side.QUEENSIDE) &&
+                emptyBetween(home + QUEENSIDE_ROOK_OFFSET, home)) {
+            moves.add(PackedMove.pack(home, home - CASTLING_KING_OFFSET, PackedMove.QUEEN_CASTLE));
+        }
+    }
+
+    /** Return whether the squares strictly between two squares of a rank are empty. */
+    private boolean emptyBetween(int low, int high) {
+        for (int index = low + 1; index < high; index++) {
+            if (board[index] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Get the index change of a pawn push by the color to move. */
+    private int forward() {
+        return toMoveColor == Piece.Color.WHITE ? 8 : -8;
+    }
+
+    /** Return whether a square is on the rank where the color to move promotes. */
+    private boolean isPromotionRank(int index) {
+        return index / 8 == (toMoveColor == Piece.Color.WHITE ? 7 : 0);
+    }
+
+    @Override
+    public boolean makeMove(int move) {
+        int start = PackedMove.start(move);
+        int end = PackedMove.end(move);
+        int flags = PackedMove.flags(move);
+        boolean castling = PackedMove.isCastling(move);
+        if (castling && !castlesSafely(start, end)) {
+            // Castling has extra legality conditions (not castling out of
+            // or through check), which aren't caught by the check test below.
+            return false;
+        }
+
+        Piece.Color movingColor = toMoveColor;
+        beginMove();
+        Piece mover = board[start];
+        if (flags == PackedMove.EN_PASSANT) {
+            // The captured pawn is beside the start square, not on the end square.
+            setSquare(start - start % 8 + end % 8, null);
+        }
+        setSquare(start, null);
+        if (PackedMove.isPromotion(move)) {
+            mover = PROMOTED_PIECES[movingColor.ordinal()][flags & 3];
+        }
+        setSquare(end, mover);
+        if (castling) {
+            int rookStart = start + (end > start ? KINGSIDE_ROOK_OFFSET : QUEENSIDE_ROOK_OFFSET);
+            // The rook ends between the king's start and end squares.
+            setSquare((start + end) / 2, board[rookStart]);
+            setSquare(rookStart, null);
+        }
+
+        setEnPassantSquare(flags == PackedMove.DOUBLE_PUSH ? Square.fromIndex((start + end) / 2) : null);
+        flipToMoveColor();
+        updateCastlingInfo(start, end);
+        if (checked(movingColor)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return whether the king to move, castling from start to end, is
+     * not in check and does not pass through an attacked square.
+     * (See CastlingMove.crossesSafely.)
+     */
+    private boolean castlesSafely(int start, int end) {
+        return !checked(toMoveColor) &&
+                !isAttacked(Square.fromIndex((start + end) / 2), toMoveColor.opposite());
+    }
+
+    @Override
+    public void unmakeMove() {
+        if (moveCount == 0) {
+            throw new IllegalStateException("There is no move to unmake.");
+        }
+        moveCount--;
+        int changeStart = changeStarts[moveCount];
+        while (changeCount > changeStart) {
+            changeCount--;
+            setBoard(changedSquares[changeCount], changedPieces[changeCount]);
+            // Don't hold on to captured pieces.
+            changedPieces[changeCount] = null;
+        }
+        enPassantSquare = oldEnPassantSquares[moveCount];
+        castlingInfo = oldCastlingInfos[moveCount];
+        toMoveColor = toMoveColor.opposite();
+        // Restoring the squares changed the key back, piece by piece,
+        // but not the other features.  Just use the old key.
+        zobristKey = oldZobristKeys[moveCount];
+    }
+
+    /** Start recording the changes that a move is about to make. */
+    private void beginMove() {
+        if (moveCount == changeStarts.length) {
+            int capacity = 2 * moveCount;
+            changeStarts = Arrays.copyOf(changeStarts, capacity);
+            oldZobristKeys = Arrays.copyOf(oldZobristKeys, capacity);
+            oldEnPassantSquares = Arrays.copyOf(oldEnPassantSquares, capacity);
+            oldCastlingInfos = Arrays.copyOf(oldCastlingInfos, capacity);
+        }
+        changeStarts[moveCount] = changeCount;
+        oldZobristKeys[moveCount] = zobristKey;
+        oldEnPassantSquares[moveCount] = enPassantSquare;
+        oldCastlingInfos[moveCount] = castlingInfo;
+        moveCount++;
+    }
+
+    /** Change the contents of a square, recording the old contents. */
+    private void setSquare(int index, Piece piece) {
+        if (changeCount == changedSquares.length) {
+            int capacity = 2 * changeCount;
+            changedSquares = Arrays.copyOf(changedSquares, capacity);
+            changedPieces = Arrays.copyOf(changedPieces, capacity);
+        }
+        changedSquares[changeCount] = index;
+        changedPieces[changeCount] = board[index];
+        changeCount++;
+        setBoard(index, piece);
+    }
+
+    /**
+     * Set the contents of a square, keeping track of where the kings are,
+     * and of the Zobrist keys, piece-square value and phase.
+     */
+    private void setBoard(int index, Piece piece) {
+        Piece oldPiece = board[index];
+        Square square = Square.fromIndex(index);
+        zobristKey ^= Zobrist.piece(oldPiece, square) ^ Zobrist.piece(piece, square);
+        pawnKey ^= Zobrist.pawn(oldPiece, square) ^ Zobrist.pawn(piece, square);
+        pieceSquareValue += PieceSquareTable.value(piece, index) - PieceSquareTable.value(oldPiece, index);
+        phase += PieceSquareTable.phase(piece) - PieceSquareTable.phase(oldPiece);
+        if (oldPiece != null && oldPiece.getType() == Piece.Type.KING) {
+            Square oldKingSquare = kingSquares[oldPiece.getColor().ordinal()];
+            if (oldKingSquare != null && oldKingSquare.getIndex() == index) {
+                kingSquares[oldPiece.getColor().ordinal()] = null;
+            }
+        }
+        if (piece != null && piece.getType() == Piece.Type.KING) {
+            kingSquares[piece.getColor().ordinal()] = square;
+        }
+        board[index] = piece;
+    }
+
+    /** Set the square onto which pawns move for an en-passant capture. */
+    private void setEnPassantSquare(Square square) {
+        zobristKey ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(square);
+        enPassantSquare = square;
+    }
+
+    /** Flip the to-move color from white to black, or vice versa. */
+    private void flipToMoveColor() {
+        zobristKey ^= Zobrist.toMove(toMoveColor) ^ Zobrist.toMove(toMoveColor.opposite());
+        toMoveColor = toMoveColor.opposite();
+    }
+
+    /** Take note of a move's effect on future castling abilities. */
+    private void updateCastlingInfo(int start, int end) {
+        CastlingInfo updated = castlingInfo.updated(Square.fromIndex(start), Square.fromIndex(end));
+        zobristKey ^= Zobrist.castling(castlingInfo) ^ Zobrist.castling(updated);
+        castlingInfo = updated;
+    }
+}
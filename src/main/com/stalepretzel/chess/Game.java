@@ -3,6 +3,7 @@ package com.stalepretzel.chess;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
 import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
 import com.stalepretzel.chess.exceptions.IllegalMoveException;
 
@@ -17,8 +18,13 @@ public class Game {
      * Game's history: no Moves have been made.
      */
     public Game() {
+        this(Representation.ARRAY);
+    }
+
+    /** Construct a new Game whose positions are in some Representation. */
+    public Game(Representation representation) {
         history = new ArrayList<ChessPosition>();
-        history.add(new ChessPositionBuilder().setupNewGame().build());
+        history.add(new ChessPositionBuilder(representation).setupNewGame().build());
     }
 
     /**
@@ -67,7 +73,16 @@ public class Game {
 
     /** Create a Game whose history matches a history in Algebraic notation. */
     public static Game fromMoves(String[] moves) throws AlgebraicNotationException, IllegalMoveException {
-        Game g = new Game();
+        return fromMoves(moves, Representation.ARRAY);
+    }
+
+    /**
+     * Create a Game whose history matches a history in Algebraic
+     * notation, and whose positions are in some Representation.
+     */
+    public static Game fromMoves(String[] moves, Representation representation)
+            throws AlgebraicNotationException, IllegalMoveException {
+        Game g = new Game(representation);
         for (String move : moves) {
             ChessMove m = AlgebraicNotation.parse(move, g.getCurrentPosition());
             if (m.isLegal(g.getCurrentPosition())){
@@ -0,0 +1,85 @@
+package com.stalepretzel.chess;
+
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Counts of the squares pieces can reach, for evaluating positions.
+ *
+ * A piece's mobility is the number of squares it attacks that aren't
+ * occupied by pieces of its own color.  That counts moves that would
+ * leave the king in check, so it's cheaper than generating moves, and
+ * near enough for evaluation.  Only knights, bishops, rooks and queens
+ * have mobility: pawns and kings are judged by where they stand.
+ *
+ * Like Attacks, none of this allocates anything.
+ */
+public final class Mobility {
+
+    // Static utility class.
+    private Mobility() {
+    }
+
+    /**
+     * Get the mobility of the piece on a Square, or 0 for an empty
+     * Square, a pawn or a king.
+     * @param index The Square's index.  (See Square.getIndex().)
+     */
+    public static int of(ChessPosition position, int index) {
+        Piece piece = position.getPiece(Square.fromIndex(index));
+        if (piece == null) {
+            return 0;
+        }
+        Piece.Color color = piece.getColor();
+        switch (piece.getType()) {
+        case KNIGHT:
+            return reachable(position, Attacks.knightAttacks(index), color);
+        case BISHOP:
+            return rayMobility(position, index, Attacks.FIRST_DIAGONAL_DIRECTION,
+                               Attacks.DIRECTION_COUNT, color);
+        case ROOK:
+            return rayMobility(position, index, 0, Attacks.FIRST_DIAGONAL_DIRECTION, color);
+        case QUEEN:
+            return rayMobility(position, index, 0, Attacks.DIRECTION_COUNT, color);
+        default:
+            return 0;
+        }
+    }
+
+    /** Count the squares, of some set, that aren't occupied by pieces of some color. */
+    private static int reachable(ChessPosition position, long squares, Piece.Color color) {
+        int count = 0;
+        while (squares != 0) {
+            int index = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            Piece piece = position.getPiece(Square.fromIndex(index));
+            if (piece == null || piece.getColor() != color) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the squares a slider of some color reaches along the rays
+     * in a range of directions, up to the first blocker, which counts
+     * only if it's an enemy piece.
+     */
+    private static int rayMobility(ChessPosition position, int index, int firstDirection,
+                                   int endDirection, Piece.Color color) {
+        int count = 0;
+        for (int d = firstDirection; d < endDirection; d++) {
+            for (int square : Attacks.raySquares(d, index)) {
+                Piece piece = position.getPiece(Square.fromIndex(square));
+                if (piece == null) {
+                    count++;
+                    continue;
+                }
+                if (piece.getColor() != color) {
+                    count++;
+                }
+                break;
+            }
+        }
+        return count;
+    }
+}
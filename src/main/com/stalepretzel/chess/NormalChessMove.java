@@ -56,7 +56,9 @@ public class NormalChessMove implements ChessMove{
             // There's something in the landing square, so that's what's captured.
             return end;
         } else if (isPawnCapture(board)){
-            return board.getEnPassantSquare();
+            // En passant: the captured pawn passed the landing square,
+            // so it's beside the starting square.
+            return Square.squareAt(end.getFile(), start.getRank());
         } else {
             // Nothing at destination, and not a pawn.
             return null;
@@ -0,0 +1,219 @@
+package com.stalepretzel.chess;
+
+import com.stalepretzel.chess.piece.Bishop;
+import com.stalepretzel.chess.piece.Knight;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.chess.piece.Queen;
+import com.stalepretzel.chess.piece.Rook;
+import com.stalepretzel.player.SearchBoard;
+
+/**
+ * Chess moves packed into ints, for searching.
+ *
+ * A ChessMove is an object holding Squares (and, for promotions, a
+ * Piece), so generating thousands of them per search costs a lot of
+ * allocation.  A packed move is a 16-bit int instead:
+ *
+ *   bits 0-5:   the start Square's index
+ *   bits 6-11:  the end Square's index
+ *   bits 12-15: flags, saying what kind of move it is
+ *
+ * The flags make a packed move self-describing, so that making it
+ * needs no further analysis of the position: whether it captures,
+ * whether it's a pawn's double step, en passant, castling, or a
+ * promotion, and to what.  Castling is encoded as the king's move.
+ *
+ * Zero (a1 to a1, quiet) is never a real move, so it is
+ * SearchBoard.NO_MOVE.
+ *
+ * Packed moves are converted to and from ChessMoves at the search's
+ * boundaries, so the rest of the code (e.g. SimpleMoveProtocol,
+ * AlgebraicNotation) keeps using ChessMoves.
+ */
+public final class PackedMove {
+
+    /** A move that is none of the kinds below. */
+    public static final int QUIET = 0;
+    /** A pawn's first move, two squares forward. */
+    public static final int DOUBLE_PUSH = 1;
+    /** Castling kingside. */
+    public static final int KING_CASTLE = 2;
+    /** Castling queenside. */
+    public static final int QUEEN_CASTLE = 3;
+    /** A capture, except en passant. */
+    public static final int CAPTURE = 4;
+    /** An en passant capture. */
+    public static final int EN_PASSANT = 5;
+    // Promotion flags have this bit set, plus CAPTURE_BIT for capturing
+    // promotions.  The low two bits then say which piece is promoted to.
+    private static final int PROMOTION_BIT = 8;
+    private static final int CAPTURE_BIT = 4;
+    /** Promotions, without capture, to each promoted piece. */
+    public static final int KNIGHT_PROMOTION = PROMOTION_BIT;
+    public static final int BISHOP_PROMOTION = PROMOTION_BIT + 1;
+    public static final int ROOK_PROMOTION = PROMOTION_BIT + 2;
+    public static final int QUEEN_PROMOTION = PROMOTION_BIT + 3;
+
+    private static final int SQUARE_BITS = 6;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    private static final int FLAGS_SHIFT = 2 * SQUARE_BITS;
+
+    // PROMOTED_TYPES[flags & 3] for promotion flags.
+    private static final Piece.Type[] PROMOTED_TYPES = {
+        Piece.Type.KNIGHT, Piece.Type.BISHOP, Piece.Type.ROOK, Piece.Type.QUEEN};
+
+    // Static utility class.
+    private PackedMove() {
+    }
+
+    /** Pack a move from its start and end Square indices, and its flags. */
+    public static int pack(int start, int end, int flags) {
+        return start | (end << SQUARE_BITS) | (flags << FLAGS_SHIFT);
+    }
+
+    /** Get the index of a packed move's start Square. */
+    public static int start(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /** Get the index of a packed move's end Square. */
+    public static int end(int move) {
+        return (move >>> SQUARE_BITS) & SQUARE_MASK;
+    }
+
+    /** Get a packed move's flags. */
+    public static int flags(int move) {
+        return move >>> FLAGS_SHIFT;
+    }
+
+    /** Return whether a packed move captures, including en passant. */
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE_BIT) != 0;
+    }
+
+    /** Return whether a packed move is a promotion. */
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION_BIT) != 0;
+    }
+
+    /** Return whether a packed move is a capture or a promotion. */
+    public static boolean isTactical(int move) {
+        return (flags(move) & (CAPTURE_BIT | PROMOTION_BIT)) != 0;
+    }
+
+    /** Return whether a packed move is castling. */
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    /**
+     * Get the type of piece a packed promotion promotes to.
+     * Requires that the move is a promotion.
+     */
+    public static Piece.Type promotedType(int move) {
+        return PROMOTED_TYPES[flags(move) & 3];
+    }
+
+    /**
+     * Get the flags of a promotion.
+     * @param promotedType The type to promote to: a knight, bishop, rook or queen.
+     * @param capture Whether the promotion captures.
+     */
+    public static int promotionFlags(Piece.Type promotedType, boolean capture) {
+        int flags = PROMOTION_BIT | (capture ? CAPTURE_BIT : 0);
+        switch (promotedType) {
+        case KNIGHT:
+            return flags;
+        case BISHOP:
+            return flags + 1;
+        case ROOK:
+            return flags + 2;
+        case QUEEN:
+            return flags + 3;
+        default:
+            throw new IllegalArgumentException("Cannot promote to " + promotedType);
+        }
+    }
+
+    /** Convert a packed move to a ChessMove. */
+    public static ChessMove toChessMove(int move) {
+        Square start = Square.fromIndex(start(move));
+        Square end = Square.fromIndex(end(move));
+        // Only white castles from, and promotes on, a high rank.
+        Piece.Color color = end.getRank() > 4 ? Piece.Color.WHITE : Piece.Color.BLACK;
+        if (isCastling(move)) {
+            color = start.getRank() == 1 ? Piece.Color.WHITE : Piece.Color.BLACK;
+            CastlingMove.Side side = flags(move) == KING_CASTLE
+                    ? CastlingMove.Side.KINGSIDE
+                    : CastlingMove.Side.QUEENSIDE;
+            return new CastlingMove(side, color);
+        }
+
+        NormalChessMove normalMove = new NormalChessMove(start, end);
+        if (isPromotion(move)) {
+            return new PromotionMove(normalMove, promotedPiece(promotedType(move), color));
+        }
+        return normalMove;
+    }
+
+    /**
+     * Pack a ChessMove.
+     * @param position The position the move is made from.  Requires
+     *      that the move is sane there.
+     */
+    public static int fromChessMove(ChessMove move, ChessPosition position) {
+        Square start = move.getStart();
+        Square end = move.getEnd();
+        boolean occupied = position.getPiece(end) != null;
+        if (move instanceof CastlingMove) {
+            CastlingMove.Side side = ((CastlingMove) move).getSide();
+            return pack(start.getIndex(), end.getIndex(),
+                        side == CastlingMove.Side.KINGSIDE ? KING_CASTLE : QUEEN_CASTLE);
+        }
+        if (move instanceof PromotionMove) {
+            Piece.Type promotedType = ((PromotionMove) move).getPromotedPiece().getType();
+            return pack(start.getIndex(), end.getIndex(), promotionFlags(promotedType, occupied));
+        }
+
+        int flags = occupied ? CAPTURE : QUIET;
+        Piece mover = position.getPiece(start);
+        if (mover.getType() == Piece.Type.PAWN) {
+            if (Math.abs(end.getRank() - start.getRank()) == 2) {
+                flags = DOUBLE_PUSH;
+            } else if (end.getFile() != start.getFile() && !occupied) {
+                flags = EN_PASSANT;
+            }
+        }
+        return pack(start.getIndex(), end.getIndex(), flags);
+    }
+
+    /** Get a new Piece of some promotable type and color. */
+    private static Piece promotedPiece(Piece.Type type, Piece.Color color) {
+        switch (type) {
+        case KNIGHT:
+            return new Knight(color);
+        case BISHOP:
+            return new Bishop(color);
+        case ROOK:
+            return new Rook(color);
+        case QUEEN:
+            return new Queen(color);
+        default:
+            throw new IllegalArgumentException("Cannot promote to " + type);
+        }
+    }
+
+    /** Describe a packed move, e.g. "e7e8q", for debugging. */
+    public static String toString(int move) {
+        if (move == SearchBoard.NO_MOVE) {
+            return "none";
+        }
+        String description = Square.fromIndex(start(move)).toString() +
+                Square.fromIndex(end(move)).toString();
+        if (isPromotion(move)) {
+            description += "nbrq".charAt(flags(move) & 3);
+        }
+        return description;
+    }
+}
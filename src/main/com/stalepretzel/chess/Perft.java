@@ -0,0 +1,148 @@
+package com.stalepretzel.chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.stalepretzel.chess.exceptions.FenException;
+import com.stalepretzel.player.MoveList;
+
+/**
+ * Perft: counting the leaves of the tree of legal moves from a
+ * position, down to some depth.
+ *
+ * The counts for well-known positions are published (e.g. at
+ * https://www.chessprogramming.org/Perft_Results), so a perft count
+ * that differs from them proves a bug in move generation, and the time
+ * perft takes measures move generation's speed.  Dividing the count by
+ * the root's moves shows which move's subtree is wrong.
+ *
+ * Perft can walk the tree in two ways: with ChessPosition.moves() and
+ * ChessMove.result, as Game does, or by making packed moves on a
+ * ChessSearchBoard, as searches do.  Both must give the same counts.
+ */
+public final class Perft {
+
+    private static final int DEFAULT_DEPTH = 4;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    // Static utility class.
+    private Perft() {
+    }
+
+    /**
+     * Count the leaves below a position, using moves() and result.
+     * @param depth The depth, in plies.  At depth 0, the position
+     *      itself is the one leaf.
+     */
+    public static long perft(ChessPosition position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        long leaves = 0;
+        for (ChessMove move : position.moves()) {
+            leaves += depth == 1 ? 1 : perft(move.result(position), depth - 1);
+        }
+        return leaves;
+    }
+
+    /**
+     * Count the leaves below each legal move of a position, using
+     * moves() and result.
+     * @param depth The depth, in plies, from the position.  Must be positive.
+     * @return The count below each move, in the order of moves().
+     */
+    public static Map<ChessMove, Long> divide(ChessPosition position, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Cannot divide at depth " + depth);
+        }
+        Map<ChessMove, Long> counts = new LinkedHashMap<ChessMove, Long>();
+        for (ChessMove move : position.moves()) {
+            counts.put(move, perft(move.result(position), depth - 1));
+        }
+        return counts;
+    }
+
+    /**
+     * Count the leaves below a position, by making and unmaking packed
+     * moves on a ChessSearchBoard.
+     * @param depth The depth, in plies.  At depth 0, the position
+     *      itself is the one leaf.
+     */
+    public static long searchBoardPerft(ChessPosition position, int depth) {
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return searchBoardPerft(new ChessSearchBoard(position), depth, lists);
+    }
+
+    /**
+     * Count the leaves below a ChessSearchBoard's position.
+     * @param lists One MoveList for each depth, reused across siblings.
+     */
+    private static long searchBoardPerft(ChessSearchBoard board, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        moves.clear();
+        for (int stage = 0; stage < board.stageCount(); stage++) {
+            board.candidateMoves(stage, moves);
+        }
+        long leaves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            // Candidates include illegal moves, which makeMove rejects.
+            if (board.makeMove(moves.get(i))) {
+                leaves += searchBoardPerft(board, depth - 1, lists);
+                board.unmakeMove();
+            }
+        }
+        return leaves;
+    }
+
+    /**
+     * Print a divided perft count, and the speed of both ways of counting.
+     * @param args The depth (default 4), then optionally a position in
+     *      FEN (default: a new game).
+     */
+    public static void main(String[] args) throws FenException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        if (args.length > 1) {
+            StringBuilder fen = new StringBuilder();
+            for (int i = 1; i < args.length; i++) {
+                fen.append(args[i]).append(' ');
+            }
+            builder.setupFen(fen.toString());
+        } else {
+            builder.setupNewGame();
+        }
+        ChessPosition position = builder.build();
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> count : divide(position, depth).entrySet()) {
+            int packed = PackedMove.fromChessMove(count.getKey(), position);
+            System.out.println(PackedMove.toString(packed) + ": " + count.getValue());
+            total += count.getValue();
+        }
+        long resultNanos = System.nanoTime() - start;
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        report("moves() and result", total, resultNanos);
+
+        start = System.nanoTime();
+        long searchBoardTotal = searchBoardPerft(position, depth);
+        report("ChessSearchBoard", searchBoardTotal, System.nanoTime() - start);
+        if (searchBoardTotal != total) {
+            System.out.println("MISMATCH: ChessSearchBoard counted " + searchBoardTotal + " nodes.");
+        }
+    }
+
+    /** Print how fast some way of counting counted. */
+    private static void report(String name, long nodes, long nanos) {
+        long millis = nanos / 1000000;
+        long nodesPerSecond = nanos == 0 ? 0 : nodes * NANOS_PER_SECOND / nanos;
+        System.out.println(name + ": " + millis + "ms, " + nodesPerSecond + " nodes/second.");
+    }
+}
@@ -0,0 +1,206 @@
+package com.stalepretzel.chess;
+
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Material and piece-square values for ChessPositions.
+ *
+ * Every kind of piece on every Square has a fixed value, in
+ * centipawns: the piece's material value, plus a bonus or penalty for
+ * where it stands (knights in the center, pawns advanced, the king
+ * tucked away).  White pieces count positive, black pieces negative.
+ * A position's piece-square value is the sum of the values of its
+ * pieces.
+ *
+ * Since the value is a sum, it can be updated as a position changes:
+ * subtract the values of the pieces that go away, and add the values
+ * of the pieces that appear.  ChessPositionBuilder and ChessSearchBoard
+ * keep values up to date that way, just as they do Zobrist keys, so
+ * evaluating a position is a field read.  value(ChessPosition)
+ * computes the same value from scratch.
+ *
+ * The tables are Tomasz Michniewski's "simplified evaluation
+ * function", with the king's middlegame table.  Kings have no material
+ * value, since both sides always have one.  The endgame values differ
+ * only for kings, which belong in the center once the queens are off.
+ * Positions are between the middlegame and the endgame according to
+ * their phase, which is also kept up to date as a sum of per-piece
+ * weights, and runs from MAX_PHASE with every piece on the board down
+ * to 0 with only kings and pawns.
+ */
+public final class PieceSquareTable {
+
+    // Material values, in centipawns, indexed by Piece.Type ordinal.
+    private static final int[] MATERIAL = {100, 300, 320, 500, 900, 0};
+
+    // How much each piece contributes to the phase, indexed by Piece.Type ordinal.
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+    /** The phase of a position with all the pieces of the new game. */
+    public static final int MAX_PHASE = 24;
+
+    // Bonuses, in centipawns, for a white piece on each square, laid out
+    // as a board is printed: a8 to h8 first, a1 to h1 last.  Black
+    // pieces use the same tables, flipped top to bottom.
+    private static final int[][] BONUSES = {
+        // Pawn
+        {  0,   0,   0,   0,   0,   0,   0,   0,
+          50,  50,  50,  50,  50,  50,  50,  50,
+          10,  10,  20,  30,  30,  20,  10,  10,
+           5,   5,  10,  25,  25,  10,   5,   5,
+           0,   0,   0,  20,  20,   0,   0,   0,
+           5,  -5, -10,   0,   0, -10,  -5,   5,
+           5,  10,  10, -20, -20,  10,  10,   5,
+           0,   0,   0,   0,   0,   0,   0,   0},
+        // Knight
+        {-50, -40, -30, -30, -30, -30, -40, -50,
+         -40, -20,   0,   0,   0,   0, -20, -40,
+         -30,   0,  10,  15,  15,  10,   0, -30,
+         -30,   5,  15,  20,  20,  15,   5, -30,
+         -30,   0,  15,  20,  20,  15,   0, -30,
+         -30,   5,  10,  15,  15,  10,   5, -30,
+         -40, -20,   0,   5,   5,   0, -20, -40,
+         -50, -40, -30, -30, -30, -30, -40, -50},
+        // Bishop
+        {-20, -10, -10, -10, -10, -10, -10, -20,
+         -10,   0,   0,   0,   0,   0,   0, -10,
+         -10,   0,   5,  10,  10,   5,   0, -10,
+         -10,   5,   5,  10,  10,   5,   5, -10,
+         -10,   0,  10,  10,  10,  10,   0, -10,
+         -10,  10,  10,  10,  10,  10,  10, -10,
+         -10,   5,   0,   0,   0,   0,   5, -10,
+         -20, -10, -10, -10, -10, -10, -10, -20},
+        // Rook
+        {  0,   0,   0,   0,   0,   0,   0,   0,
+           5,  10,  10,  10,  10,  10,  10,   5,
+          -5,   0,   0,   0,   0,   0,   0,  -5,
+          -5,   0,   0,   0,   0,   0,   0,  -5,
+          -5,   0,   0,   0,   0,   0,   0,  -5,
+          -5,   0,   0,   0,   0,   0,   0,  -5,
+          -5,   0,   0,   0,   0,   0,   0,  -5,
+           0,   0,   0,   5,   5,   0,   0,   0},
+        // Queen
+        {-20, -10, -10,  -5,  -5, -10, -10, -20,
+         -10,   0,   0,   0,   0,   0,   0, -10,
+         -10,   0,   5,   5,   5,   5,   0, -10,
+          -5,   0,   5,   5,   5,   5,   0,  -5,
+           0,   0,   5,   5,   5,   5,   0,  -5,
+         -10,   5,   5,   5,   5,   5,   0, -10,
+         -10,   0,   5,   0,   0,   0,   0, -10,
+         -20, -10, -10,  -5,  -5, -10, -10, -20},
+        // King
+        {-30, -40, -40, -50, -50, -40, -40, -30,
+         -30, -40, -40, -50, -50, -40, -40, -30,
+         -30, -40, -40, -50, -50, -40, -40, -30,
+         -30, -40, -40, -50, -50, -40, -40, -30,
+         -20, -30, -30, -40, -40, -30, -30, -20,
+         -10, -20, -20, -20, -20, -20, -20, -10,
+          20,  20,   0,   0,   0,   0,  20,  20,
+          20,  30,  10,   0,   0,  10,  30,  20}};
+
+    // The king's bonuses in the endgame, laid out as BONUSES are.
+    private static final int[] KING_ENDGAME_BONUSES = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50};
+
+    // PIECE_SQUARE[pieceIndex][square index], with signs applied.
+    private static final int[][] PIECE_SQUARE = new int[12][64];
+    // ENDGAME_PIECE_SQUARE[pieceIndex][square index], likewise.
+    private static final int[][] ENDGAME_PIECE_SQUARE = new int[12][64];
+
+    static {
+        for (Piece.Type type : Piece.Type.values()) {
+            int t = type.ordinal();
+            for (int index = 0; index < 64; index++) {
+                int rank = index / 8;
+                int file = index % 8;
+                // Row 0 of a table is rank 8, from white's side.
+                int whiteValue = MATERIAL[t] + BONUSES[t][(7 - rank) * 8 + file];
+                int blackValue = MATERIAL[t] + BONUSES[t][rank * 8 + file];
+                PIECE_SQUARE[2 * t + Piece.Color.WHITE.ordinal()][index] = whiteValue;
+                PIECE_SQUARE[2 * t + Piece.Color.BLACK.ordinal()][index] = -blackValue;
+            }
+        }
+        for (int pieceIndex = 0; pieceIndex < 12; pieceIndex++) {
+            ENDGAME_PIECE_SQUARE[pieceIndex] = PIECE_SQUARE[pieceIndex].clone();
+        }
+        int king = Piece.Type.KING.ordinal();
+        for (int index = 0; index < 64; index++) {
+            int rank = index / 8;
+            int file = index % 8;
+            ENDGAME_PIECE_SQUARE[2 * king + Piece.Color.WHITE.ordinal()][index] =
+                    KING_ENDGAME_BONUSES[(7 - rank) * 8 + file];
+            ENDGAME_PIECE_SQUARE[2 * king + Piece.Color.BLACK.ordinal()][index] =
+                    -KING_ENDGAME_BONUSES[rank * 8 + file];
+        }
+    }
+
+    // Static utility class.
+    private PieceSquareTable() {
+    }
+
+    /**
+     * Get the value of a Piece on a Square, or 0 for no Piece.
+     * @param index The Square's index.  (See Square.getIndex().)
+     */
+    public static int value(Piece piece, int index) {
+        if (piece == null) {
+            return 0;
+        }
+        int pieceIndex = 2 * piece.getType().ordinal() + piece.getColor().ordinal();
+        return PIECE_SQUARE[pieceIndex][index];
+    }
+
+    /** Get the value of a Piece on a Square, or 0 for no Piece. */
+    public static int value(Piece piece, Square square) {
+        return value(piece, square.getIndex());
+    }
+
+    /**
+     * Get the middlegame value of a piece of some type and color on a Square.
+     * @param index The Square's index.  (See Square.getIndex().)
+     */
+    public static int value(Piece.Type type, Piece.Color color, int index) {
+        return PIECE_SQUARE[2 * type.ordinal() + color.ordinal()][index];
+    }
+
+    /**
+     * Get the endgame value of a piece of some type and color on a Square.
+     * @param index The Square's index.  (See Square.getIndex().)
+     */
+    public static int endgameValue(Piece.Type type, Piece.Color color, int index) {
+        return ENDGAME_PIECE_SQUARE[2 * type.ordinal() + color.ordinal()][index];
+    }
+
+    /** Get how much a Piece contributes to a position's phase, or 0 for no Piece. */
+    public static int phase(Piece piece) {
+        return piece == null ? 0 : PHASE_WEIGHTS[piece.getType().ordinal()];
+    }
+
+    /**
+     * Compute the phase of a ChessPosition from scratch.  Promotions can
+     * raise it above MAX_PHASE.
+     */
+    public static int phase(ChessPosition position) {
+        int phase = 0;
+        for (Square square : Square.ALL) {
+            phase += phase(position.getPiece(square));
+        }
+        return phase;
+    }
+
+    /** Compute the piece-square value of a ChessPosition from scratch. */
+    public static int value(ChessPosition position) {
+        int value = 0;
+        for (Square square : Square.ALL) {
+            value += value(position.getPiece(square), square);
+        }
+        return value;
+    }
+}
@@ -18,19 +18,28 @@ public class Square {
     // Rank and file are both between 1 and 8, inclusive.
     private final int rank;
     private final int file;
+    // The index of this square, in [0, 63].  See getIndex().
+    private final int index;
 
     // A grid of all 64 squares.
     // e.g. GRID[1][3] = "b4".
     private static final Square[][] GRID;
 
+    // All 64 squares, by index.
+    // e.g. BY_INDEX[8] = "a2".
+    private static final Square[] BY_INDEX;
+
     // The space of all squares.
     public static final Iterable<Square> ALL;
 
     static {
         GRID = new Square[8][8];
+        BY_INDEX = new Square[64];
         for (int file = 1; file <= 8; file++) {
             for (int rank = 1; rank <= 8; rank++) {
-                GRID[file - 1][rank - 1] = new Square(file, rank);
+                Square square = new Square(file, rank);
+                GRID[file - 1][rank - 1] = square;
+                BY_INDEX[square.getIndex()] = square;
             }
         }
 
@@ -64,6 +73,7 @@ public class Square {
         }
         this.rank = rank;
         this.file = file;
+        this.index = 8 * (rank - 1) + (file - 1);
     }
 
     /**
@@ -89,6 +99,24 @@ public class Square {
         return file;
     }
 
+    /**
+     * Get the index of this Square, in the range [0, 63].
+     * Squares are indexed rank by rank, starting from a1:
+     * a1 is 0, b1 is 1, ..., h1 is 7, a2 is 8, ..., h8 is 63.
+     * This is the bit order used by bitboards.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Return the Square with a given index.
+     * @param index The index, in the range [0, 63].  See getIndex().
+     */
+    public static Square fromIndex(int index) {
+        return BY_INDEX[index];
+    }
+
     /** Get the Square offset from this one by a given Delta. */
     public Square plus(Delta delta) {
         return squareAt(file + delta.getDeltaFile(), rank + delta.getDeltaRank());
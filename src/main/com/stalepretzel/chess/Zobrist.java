@@ -0,0 +1,106 @@
+package com.stalepretzel.chess;
+
+import java.util.Random;
+
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Zobrist hashing for ChessPositions.
+ *
+ * Every feature of a position (a kind of piece on a Square, black to
+ * move, a CastlingInfo, an en passant file) has a fixed, random 64-bit
+ * value.  A position's key is the XOR of the values of its features.
+ *
+ * Since XOR is its own inverse, a key can be updated as a position
+ * changes: XOR out the values of the features that go away, and XOR in
+ * the values of the features that appear.  ChessPositionBuilder and
+ * ChessSearchBoard keep keys up to date that way, so nobody has to
+ * recompute a key from scratch with key(ChessPosition).
+ *
+ * They keep pawn keys, too: the XOR of the values of just the pawns.
+ * Positions with the same pawns have the same pawn key, so it's the
+ * key for caching anything that depends only on the pawn structure.
+ */
+public final class Zobrist {
+
+    // A fixed seed, so that keys are the same from run to run.
+    private static final long SEED = 0x5eedc0ffeeL;
+
+    // PIECE_SQUARE[pieceIndex][square index]
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    // CASTLING[castlingInfo.getId()]
+    private static final long[] CASTLING = new long[16];
+    // EN_PASSANT_FILE[file - 1]
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        Random random = new Random(SEED);
+        for (long[] squareValues : PIECE_SQUARE) {
+            for (int i = 0; i < squareValues.length; i++) {
+                squareValues[i] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+    }
+
+    // Static utility class.
+    private Zobrist() {
+    }
+
+    /** Get the value of a Piece on a Square, or 0 for no Piece. */
+    public static long piece(Piece piece, Square square) {
+        if (piece == null) {
+            return 0L;
+        }
+        int pieceIndex = 2 * piece.getType().ordinal() + piece.getColor().ordinal();
+        return PIECE_SQUARE[pieceIndex][square.getIndex()];
+    }
+
+    /** Get the value of a Piece on a Square, if it's a pawn, or 0 otherwise. */
+    public static long pawn(Piece piece, Square square) {
+        return piece != null && piece.getType() == Piece.Type.PAWN ? piece(piece, square) : 0L;
+    }
+
+    /** Get the value of some color being to move, or 0 for none. */
+    public static long toMove(Piece.Color color) {
+        return color == Piece.Color.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    /** Get the value of a CastlingInfo, or 0 for none. */
+    public static long castling(CastlingInfo castlingInfo) {
+        return castlingInfo == null ? 0L : CASTLING[castlingInfo.getId()];
+    }
+
+    /** Get the value of an en passant Square, or 0 for none. */
+    public static long enPassant(Square enPassantSquare) {
+        return enPassantSquare == null ? 0L : EN_PASSANT_FILE[enPassantSquare.getFile() - 1];
+    }
+
+    /** Compute the key of a ChessPosition from scratch. */
+    public static long key(ChessPosition position) {
+        long key = 0L;
+        for (Square square : Square.ALL) {
+            key ^= piece(position.getPiece(square), square);
+        }
+        key ^= toMove(position.getToMoveColor());
+        key ^= castling(position.getCastlingInfo());
+        key ^= enPassant(position.getEnPassantSquare());
+        return key;
+    }
+
+    /** Compute the pawn key of a ChessPosition from scratch. */
+    public static long pawnKey(ChessPosition position) {
+        long key = 0L;
+        for (Square square : Square.ALL) {
+            key ^= pawn(position.getPiece(square), square);
+        }
+        return key;
+    }
+}
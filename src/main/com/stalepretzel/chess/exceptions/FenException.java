@@ -0,0 +1,14 @@
+package com.stalepretzel.chess.exceptions;
+
+/** Indicates that a String is not a legal position in Forsyth-Edwards Notation. */
+public class FenException extends ChessException {
+    private static final long serialVersionUID = 1L;
+
+    public FenException() {
+        super();
+    }
+
+    public FenException(String msg) {
+        super(msg);
+    }
+}
@@ -16,6 +16,11 @@ public class King extends Piece {
         super(color);
     }
 
+    @Override
+    public Type getType() {
+        return Type.KING;
+    }
+
     @Override
     public Iterable<ChessMove> saneMoves(Square start, ChessPosition position) {
         Collection<ChessMove> candidateMoves = new ArrayList<ChessMove>();
@@ -25,10 +30,10 @@ public class King extends Piece {
             // There's a decent chance that the king's in its home square,
             // and a zero chance that a two-square hop along a rank will
             // put us off the board.
-            candidateMoves.add(new CastlingMove(CastlingMove.Side.KINGSIDE,
-                                                position.getToMoveColor()));
-            candidateMoves.add(new CastlingMove(CastlingMove.Side.QUEENSIDE,
-                                                position.getToMoveColor()));
+            // This king's own castling moves, so that the other king,
+            // if it's on its e-file too, doesn't propose them again.
+            candidateMoves.add(new CastlingMove(CastlingMove.Side.KINGSIDE, getColor()));
+            candidateMoves.add(new CastlingMove(CastlingMove.Side.QUEENSIDE, getColor()));
         }
         return filterSane(candidateMoves, position);
     }
@@ -14,6 +14,11 @@ public class Knight extends Piece {
         super(color);
     }
 
+    @Override
+    public Type getType() {
+        return Type.KNIGHT;
+    }
+
     @Override
     public Iterable<ChessMove> saneMoves(Square start, ChessPosition position) {
         Collection<ChessMove> candidateMoves = new ArrayList<ChessMove>();
@@ -15,6 +15,11 @@ public class Pawn extends Piece {
         super(color);
     }
 
+    @Override
+    public Type getType() {
+        return Type.PAWN;
+    }
+
     @Override
     public Iterable<ChessMove> saneMoves(Square start, ChessPosition position) {
         Collection<ChessMove> candidateMoves = new ArrayList<ChessMove>();
@@ -33,6 +33,16 @@ public abstract class Piece {
         }
     }
 
+    /** The type of a piece: pawn, knight, etc. */
+    public enum Type {
+        PAWN,
+        KNIGHT,
+        BISHOP,
+        ROOK,
+        QUEEN,
+        KING;
+    }
+
     private final Color color;
 
     /** Construct a new Piece with some type and color. */
@@ -44,6 +54,9 @@ public abstract class Piece {
         return this.color;
     }
 
+    /** Get the type of this piece. */
+    public abstract Type getType();
+
     @Override
     public boolean equals(Object obj) {
         if (obj == null) {
@@ -14,6 +14,11 @@ public class Queen extends Piece {
         super(color);
     }
 
+    @Override
+    public Type getType() {
+        return Type.QUEEN;
+    }
+
     @Override
     public Iterable<ChessMove> saneMoves(Square start, ChessPosition position) {
         Collection<ChessMove> candidateMoves = new ArrayList<ChessMove>();
@@ -0,0 +1,47 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.PackedMove;
+import com.stalepretzel.chess.PieceSquareTable;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.player.GainEstimator;
+
+/**
+ * A GainEstimator for chess moves, in centipawns: the piece-square
+ * value of the captured piece, plus what the mover gains by its new
+ * square or promotion, in the middlegame or endgame, whichever is more,
+ * plus a margin for the heuristics' other terms.  (See PieceSquareTable.)
+ */
+public class ChessGainEstimator implements GainEstimator<ChessPosition> {
+
+    // Covers what the heuristic might value beyond the piece-square values.
+    private static final int MARGIN = 200;
+
+    @Override
+    public int maxGain(int move, ChessPosition position) {
+        int start = PackedMove.start(move);
+        int end = PackedMove.end(move);
+        Piece mover = position.getPiece(Square.fromIndex(start));
+        Piece.Color color = mover.getColor();
+        Piece.Type arriving = PackedMove.isPromotion(move) ? PackedMove.promotedType(move) : mover.getType();
+        // White's values are positive, black's negative.
+        int sign = color == Piece.Color.WHITE ? 1 : -1;
+
+        int middlegameGain = sign * (PieceSquareTable.value(arriving, color, end)
+                                     - PieceSquareTable.value(mover.getType(), color, start));
+        int endgameGain = sign * (PieceSquareTable.endgameValue(arriving, color, end)
+                                  - PieceSquareTable.endgameValue(mover.getType(), color, start));
+        int gain = MARGIN + Math.max(middlegameGain, endgameGain);
+        if (PackedMove.isCapture(move)) {
+            int captured = end;
+            if (PackedMove.flags(move) == PackedMove.EN_PASSANT) {
+                // The captured pawn is beside the start square, not on the end square.
+                captured = start - start % 8 + end % 8;
+            }
+            // Kings are never captured, so the endgame value is the same.
+            gain += Math.abs(PieceSquareTable.value(position.getPiece(Square.fromIndex(captured)), captured));
+        }
+        return gain;
+    }
+}
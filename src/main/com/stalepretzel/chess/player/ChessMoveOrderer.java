@@ -0,0 +1,211 @@
+package com.stalepretzel.chess.player;
+
+import java.util.Arrays;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.PackedMove;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.player.MoveList;
+import com.stalepretzel.player.MoveOrderer;
+import com.stalepretzel.player.SearchBoard;
+
+/**
+ * A MoveOrderer for chess.
+ *
+ * Moves are tried in this order:
+ *  1. The hash move, i.e. the best move from an earlier search.
+ *  2. Captures and promotions, most valuable victim first, and, among
+ *     captures of equally valuable victims, least valuable attacker first.
+ *  3. Killer moves: quiet moves that recently caused a cutoff at the
+ *     same distance from the root, in a sibling position.
+ *  4. Other quiet moves, by their history: how much searching their
+ *     cutoffs have saved so far.  Moves with equal history are tried
+ *     toward the center first.
+ *  5. Captures that probably lose material, ordered as in 2.
+ *
+ * When captures and quiet moves come in separate stages, captures that
+ * probably lose material are deferred until after the quiet moves.
+ *
+ * Moves are packed as ChessSearchBoards pack them (see PackedMove).
+ */
+public class ChessMoveOrderer implements MoveOrderer<ChessPosition> {
+
+    // Sort keys.  Higher keys are tried first.
+    private static final int HASH_MOVE_KEY = Integer.MAX_VALUE;
+    private static final int CAPTURE_KEY = 1 << 28;
+    private static final int FIRST_KILLER_KEY = 1 << 27;
+    // Below every quiet move, since history values are non-negative.
+    private static final int BAD_CAPTURE_KEY = -(1 << 10);
+    private static final int SECOND_KILLER_KEY = FIRST_KILLER_KEY - 1;
+    // History values are halved when one reaches this, so that quiet
+    // move keys stay below the killer keys.
+    private static final int HISTORY_LIMIT = 1 << 22;
+    // Quiet moves with equal history are ordered by how much closer
+    // to the center they move, which is worth less than any history.
+    private static final int HISTORY_WEIGHT = 16;
+    private static final int CENTRALIZATION_OFFSET = 8;
+
+    // Piece values for MVV-LVA, indexed by Piece.Type ordinal.
+    // Kings are never victims, and are the worst attackers.
+    private static final int[] VICTIM_VALUES = {1, 3, 3, 5, 9, 0};
+    private static final int[] ATTACKER_RANKS = {0, 1, 1, 2, 3, 4};
+    // The value an attacker risks by capturing, indexed by Piece.Type ordinal.
+    private static final int[] ATTACKER_VALUES = {1, 3, 3, 5, 9, 1000};
+    // Makes any more valuable victim outrank any less valuable attacker.
+    private static final int VICTIM_WEIGHT = 8;
+
+    private static final int KILLERS_PER_PLY = 2;
+    // Killers are only kept this far from the root.
+    private static final int MAX_KILLER_PLIES = 64;
+
+    // killers[pliesFromRoot * KILLERS_PER_PLY + i], most recent first.
+    private final int[] killers = new int[MAX_KILLER_PLIES * KILLERS_PER_PLY];
+    // history[color ordinal][start index][end index]
+    private final int[][][] history = new int[2][64][64];
+    // The sort keys of the moves being ordered, reused from call to call.
+    private int[] keys = new int[0];
+
+    @Override
+    public void newSearch() {
+        // Killers are specific to a search's plies, so they're useless
+        // now.  History stays, though aged, since the new search's
+        // positions are mostly like the old one's.
+        Arrays.fill(killers, SearchBoard.NO_MOVE);
+        ageHistory();
+    }
+
+    @Override
+    public int order(MoveList moves, ChessPosition position, int hashMove, int pliesFromRoot) {
+        int size = moves.size();
+        if (keys.length < size) {
+            keys = new int[Math.max(size, 2 * keys.length)];
+        }
+        for (int i = 0; i < size; i++) {
+            int move = moves.get(i);
+            keys[i] = move == hashMove ? HASH_MOVE_KEY : sortKey(move, position, pliesFromRoot);
+        }
+
+        // Insertion sort, highest key first.  There are few moves, and
+        // they arrive partly in order, since each piece's moves are together.
+        for (int i = 1; i < size; i++) {
+            int key = keys[i];
+            int move = moves.get(i);
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                keys[j + 1] = keys[j];
+                moves.set(j + 1, moves.get(j));
+                j--;
+            }
+            keys[j + 1] = key;
+            moves.set(j + 1, move);
+        }
+
+        // Defer the captures that probably lose material.
+        int tryNow = size;
+        while (tryNow > 0 && keys[tryNow - 1] < 0) {
+            tryNow--;
+        }
+        return tryNow;
+    }
+
+    @Override
+    public void cutoff(int move, ChessPosition position, int pliesFromRoot, int pliesRemaining) {
+        if (PackedMove.isTactical(move)) {
+            // Captures and promotions are already tried early.
+            return;
+        }
+
+        if (pliesFromRoot < MAX_KILLER_PLIES) {
+            int first = pliesFromRoot * KILLERS_PER_PLY;
+            if (killers[first] != move) {
+                killers[first + 1] = killers[first];
+                killers[first] = move;
+            }
+        }
+
+        // Deep cutoffs save more work than shallow ones.
+        int bonus = Math.max(1, pliesRemaining * pliesRemaining);
+        int[] moverHistory = history[position.getToMoveColor().ordinal()][PackedMove.start(move)];
+        int end = PackedMove.end(move);
+        moverHistory[end] += bonus;
+        if (moverHistory[end] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    /** Get the sort key of a move other than the hash move. */
+    private int sortKey(int move, ChessPosition position, int pliesFromRoot) {
+        int start = PackedMove.start(move);
+        int end = PackedMove.end(move);
+        if (PackedMove.isTactical(move)) {
+            Piece victim = victim(move, position);
+            int value = victim == null ? 0 : VICTIM_WEIGHT * VICTIM_VALUES[victim.getType().ordinal()];
+            boolean promotion = PackedMove.isPromotion(move);
+            if (promotion) {
+                value += VICTIM_WEIGHT * VICTIM_VALUES[PackedMove.promotedType(move).ordinal()];
+            }
+            Piece attacker = position.getPiece(Square.fromIndex(start));
+            int key = value - ATTACKER_RANKS[attacker.getType().ordinal()];
+            if (promotion || !losesMaterial(end, victim, attacker, position)) {
+                return CAPTURE_KEY + key;
+            }
+            return BAD_CAPTURE_KEY + key;
+        }
+
+        if (pliesFromRoot < MAX_KILLER_PLIES) {
+            int first = pliesFromRoot * KILLERS_PER_PLY;
+            if (move == killers[first]) {
+                return FIRST_KILLER_KEY;
+            } else if (move == killers[first + 1]) {
+                return SECOND_KILLER_KEY;
+            }
+        }
+        int moveHistory = history[position.getToMoveColor().ordinal()][start][end];
+        return HISTORY_WEIGHT * moveHistory + CENTRALIZATION_OFFSET +
+                centrality(end) - centrality(start);
+    }
+
+    /** Get how central a square is, from 0 (a corner) to 6 (the center). */
+    private static int centrality(int index) {
+        int file = index % 8;
+        int rank = index / 8;
+        return Math.min(file, 7 - file) + Math.min(rank, 7 - rank);
+    }
+
+    /**
+     * Return whether a capture probably loses material, because the
+     * attacker is worth more than the victim, and can be recaptured.
+     * Searching such captures early is expensive, and rarely pays.
+     */
+    private static boolean losesMaterial(int end, Piece victim, Piece attacker,
+                                         ChessPosition position) {
+        return ATTACKER_VALUES[attacker.getType().ordinal()] > VICTIM_VALUES[victim.getType().ordinal()] &&
+                position.isAttacked(Square.fromIndex(end), victim.getColor());
+    }
+
+    /** Get the piece a move captures, or null if it isn't a capture. */
+    private static Piece victim(int move, ChessPosition position) {
+        if (!PackedMove.isCapture(move)) {
+            return null;
+        }
+        int end = PackedMove.end(move);
+        if (PackedMove.flags(move) == PackedMove.EN_PASSANT) {
+            // The captured pawn is beside the start square, not on the end square.
+            int start = PackedMove.start(move);
+            end = start - start % 8 + end % 8;
+        }
+        return position.getPiece(Square.fromIndex(end));
+    }
+
+    /** Halve all history values, so that recent cutoffs count for more. */
+    private void ageHistory() {
+        for (int[][] colorHistory : history) {
+            for (int[] startHistory : colorHistory) {
+                for (int end = 0; end < startHistory.length; end++) {
+                    startHistory[end] /= 2;
+                }
+            }
+        }
+    }
+}
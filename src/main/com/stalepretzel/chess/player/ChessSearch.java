@@ -0,0 +1,41 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.player.AlphaBeta;
+import com.stalepretzel.player.Heuristic;
+import com.stalepretzel.player.TranspositionTable;
+
+/**
+ * The chess search that StreamChessServer plays with, for the profiling
+ * and tests that measure its parts.
+ *
+ * The search makes and unmakes moves on a ChessSearchBoard, orders them
+ * with a ChessMoveOrderer, and has every optional feature AlphaBeta
+ * offers: a quiescence search with delta pruning, Principal Variation
+ * Search, null-move pruning, late move reductions and a
+ * TranspositionTable.  To measure a feature, switch it off with
+ * AlphaBeta's setters, e.g. setNullMovePruning(false).
+ */
+public final class ChessSearch {
+
+    // Static utility class.
+    private ChessSearch() {
+    }
+
+    /**
+     * Create an AlphaBeta with every feature on.
+     * @param tableMegabytes The memory budget of the TranspositionTable,
+     *      or 0 for no table.
+     */
+    public static AlphaBeta<ChessPosition> newAlphaBeta(Heuristic<ChessPosition> heuristic, int tableMegabytes) {
+        return new AlphaBeta<ChessPosition>(heuristic, ChessSearchBoard.FACTORY)
+                .setMoveOrderer(new ChessMoveOrderer())
+                .setQuiescence(true)
+                .setDeltaPruning(new ChessGainEstimator())
+                .setPrincipalVariationSearch(true)
+                .setNullMovePruning(true)
+                .setLateMoveReductions(true)
+                .setTranspositionTable(tableMegabytes == 0 ? null : new TranspositionTable(tableMegabytes));
+    }
+}
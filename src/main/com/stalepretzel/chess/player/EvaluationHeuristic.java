@@ -0,0 +1,125 @@
+package com.stalepretzel.chess.player;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.player.Heuristic;
+
+/**
+ * A Heuristic that sums EvaluationTerms, tapered by the position's
+ * phase.  (See TaperedScore.)  Terms can be switched off and timed.
+ * The switches and timings aren't thread-safe, so each search thread
+ * should have its own EvaluationHeuristic.
+ */
+public class EvaluationHeuristic implements Heuristic<ChessPosition> {
+
+    // The memory budget of the standard PawnStructureTerm's PawnHashTable.
+    private static final int PAWN_TABLE_MEGABYTES = 1;
+
+    private final EvaluationTerm[] terms;
+    private final boolean[] enabled;
+    private boolean timing;
+    // nanos[i] = the time spent in terms[i] while timing.
+    private final long[] nanos;
+    private long timedCalls;
+
+    /** Create an EvaluationHeuristic with the standard terms, all enabled. */
+    public EvaluationHeuristic() {
+        this(new PieceSquareTerm(), new MobilityTerm(),
+             new PawnStructureTerm(new PawnHashTable(PAWN_TABLE_MEGABYTES)), new KingSafetyTerm());
+    }
+
+    /** Create an EvaluationHeuristic with some terms, all enabled. */
+    public EvaluationHeuristic(EvaluationTerm... terms) {
+        this.terms = terms.clone();
+        enabled = new boolean[terms.length];
+        Arrays.fill(enabled, true);
+        nanos = new long[terms.length];
+    }
+
+    /** Get the terms, enabled or not. */
+    public List<EvaluationTerm> getTerms() {
+        return Collections.unmodifiableList(Arrays.asList(terms));
+    }
+
+    /**
+     * Enable or disable every term of some class.
+     * @throws IllegalArgumentException If there is no term of that class.
+     */
+    public EvaluationHeuristic setEnabled(Class<? extends EvaluationTerm> termClass, boolean enabled) {
+        boolean found = false;
+        for (int i = 0; i < terms.length; i++) {
+            if (termClass.isInstance(terms[i])) {
+                this.enabled[i] = enabled;
+                found = true;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("No term of " + termClass);
+        }
+        return this;
+    }
+
+    /** Return whether a term is enabled. */
+    public boolean isEnabled(EvaluationTerm term) {
+        return enabled[indexOf(term)];
+    }
+
+    /** Set whether to time each term, which is off by default.  Turning it on resets the times. */
+    public EvaluationHeuristic setTiming(boolean timing) {
+        if (timing) {
+            Arrays.fill(nanos, 0L);
+            timedCalls = 0;
+        }
+        this.timing = timing;
+        return this;
+    }
+
+    /** Get the number of positions evaluated while timing. */
+    public long getTimedCalls() {
+        return timedCalls;
+    }
+
+    /** Get the total time, in nanoseconds, a term took while timing. */
+    public long getNanos(EvaluationTerm term) {
+        return nanos[indexOf(term)];
+    }
+
+    /** Get the average time, in nanoseconds, a term took per position evaluated while timing. */
+    public double getNanosPerCall(EvaluationTerm term) {
+        return timedCalls == 0 ? 0 : (double) getNanos(term) / timedCalls;
+    }
+
+    private int indexOf(EvaluationTerm term) {
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i] == term) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a term of this heuristic: " + term);
+    }
+
+    @Override
+    public int value(ChessPosition position) {
+        int score = 0;
+        if (timing) {
+            timedCalls++;
+            for (int i = 0; i < terms.length; i++) {
+                if (enabled[i]) {
+                    long start = System.nanoTime();
+                    score += terms[i].value(position);
+                    nanos[i] += System.nanoTime() - start;
+                }
+            }
+        } else {
+            for (int i = 0; i < terms.length; i++) {
+                if (enabled[i]) {
+                    score += terms[i].value(position);
+                }
+            }
+        }
+        return TaperedScore.taper(score, position.getPhase());
+    }
+}
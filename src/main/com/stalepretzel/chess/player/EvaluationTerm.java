@@ -0,0 +1,13 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+
+/**
+ * One term of an EvaluationHeuristic, such as mobility.  Terms must be
+ * safe to call from several threads at once.
+ */
+public interface EvaluationTerm {
+
+    /** Score a position for white, in centipawns, packed by TaperedScore.pack. */
+    public int value(ChessPosition position);
+}
@@ -0,0 +1,54 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * King safety, as an EvaluationTerm: pawn shields and open files
+ * around the king, in the middlegame only.
+ */
+public class KingSafetyTerm implements EvaluationTerm {
+
+    // Per file, on the king's file and the files beside it.
+    private static final int SHIELD_ONE_AHEAD = 10;
+    private static final int SHIELD_TWO_AHEAD = 5;
+    private static final int HALF_OPEN_FILE = -15;
+    private static final int OPEN_FILE = -25;
+
+    @Override
+    public int value(ChessPosition position) {
+        long whitePawns = Pawns.of(position, Piece.Color.WHITE);
+        long blackPawns = Pawns.of(position, Piece.Color.BLACK);
+        int middlegame = sideScore(position, Piece.Color.WHITE, whitePawns, blackPawns)
+                - sideScore(position, Piece.Color.BLACK, blackPawns, whitePawns);
+        return TaperedScore.pack(middlegame, 0);
+    }
+
+    /** Score the safety of one color's king, from that color's point of view. */
+    private static int sideScore(ChessPosition position, Piece.Color color, long own, long enemy) {
+        Square king = position.getKingSquare(color);
+        if (king == null) {
+            return 0;
+        }
+        int index = king.getIndex();
+        int kingFile = index % 8;
+        boolean sheltered = Pawns.relativeRank(color, index) <= 1;
+        // One rank toward the enemy, in index terms.
+        int ahead = color == Piece.Color.WHITE ? 8 : -8;
+        int score = 0;
+        for (int file = Math.max(0, kingFile - 1); file <= Math.min(7, kingFile + 1); file++) {
+            if ((own & Pawns.FILES[file]) == 0) {
+                score += (enemy & Pawns.FILES[file]) == 0 ? OPEN_FILE : HALF_OPEN_FILE;
+            } else if (sheltered) {
+                int oneAhead = index - kingFile + file + ahead;
+                if ((own & (1L << oneAhead)) != 0) {
+                    score += SHIELD_ONE_AHEAD;
+                } else if ((own & (1L << (oneAhead + ahead))) != 0) {
+                    score += SHIELD_TWO_AHEAD;
+                }
+            }
+        }
+        return score;
+    }
+}
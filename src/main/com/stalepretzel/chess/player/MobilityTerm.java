@@ -0,0 +1,37 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.Mobility;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Mobility, as an EvaluationTerm: a few centipawns per square each
+ * piece can reach.  (See Mobility.)
+ */
+public class MobilityTerm implements EvaluationTerm {
+
+    // Centipawns per reachable square, indexed by Piece.Type ordinal.
+    private static final int[] MIDDLEGAME_WEIGHTS = {0, 4, 4, 2, 1, 0};
+    private static final int[] ENDGAME_WEIGHTS = {0, 4, 4, 4, 2, 0};
+
+    @Override
+    public int value(ChessPosition position) {
+        int score = 0;
+        for (int index = 0; index < 64; index++) {
+            Piece piece = position.getPiece(Square.fromIndex(index));
+            if (piece == null) {
+                continue;
+            }
+            int type = piece.getType().ordinal();
+            if (MIDDLEGAME_WEIGHTS[type] == 0 && ENDGAME_WEIGHTS[type] == 0) {
+                continue;
+            }
+            int mobility = Mobility.of(position, index);
+            int pieceScore = TaperedScore.pack(MIDDLEGAME_WEIGHTS[type] * mobility,
+                                               ENDGAME_WEIGHTS[type] * mobility);
+            score += piece.getColor() == Piece.Color.WHITE ? pieceScore : -pieceScore;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,31 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.player.LossyIntTable;
+
+/**
+ * A fixed-size cache of packed pawn-structure scores, keyed by pawn
+ * keys.  (See Zobrist and TaperedScore.)  Most moves don't move pawns,
+ * so a small table catches nearly every lookup.
+ */
+public class PawnHashTable extends LossyIntTable {
+
+    /** Create a PawnHashTable that uses about some positive number of megabytes. */
+    public PawnHashTable(int megabytes) {
+        super(megabytes);
+    }
+
+    /** Get a position's pawn-structure score, scoring and storing it if it's missing. */
+    public int score(ChessPosition position) {
+        long key = position.getPawnKey();
+        long cached = find(key);
+        if (cached != MISSING) {
+            return (int) cached;
+        }
+        int score = PawnStructureTerm.score(Pawns.of(position, Piece.Color.WHITE),
+                                            Pawns.of(position, Piece.Color.BLACK));
+        store(key, score);
+        return score;
+    }
+}
@@ -0,0 +1,87 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Pawn structure, as an EvaluationTerm: doubled and isolated pawns
+ * cost, and passed pawns gain, more as they advance.
+ *
+ * The score depends only on where the pawns are, so it can be cached
+ * in a PawnHashTable.
+ */
+public class PawnStructureTerm implements EvaluationTerm {
+
+    private static final int DOUBLED = TaperedScore.pack(-10, -20);
+    private static final int ISOLATED = TaperedScore.pack(-10, -15);
+    // Passed pawn bonuses, indexed by rank from the pawn's side.
+    private static final int[] PASSED = {
+        0,
+        TaperedScore.pack(5, 10),
+        TaperedScore.pack(10, 15),
+        TaperedScore.pack(15, 25),
+        TaperedScore.pack(25, 45),
+        TaperedScore.pack(45, 75),
+        TaperedScore.pack(70, 120),
+        0};
+
+    private final PawnHashTable table;
+
+    /** Create a PawnStructureTerm that scores every position from scratch. */
+    public PawnStructureTerm() {
+        this(null);
+    }
+
+    /**
+     * Create a PawnStructureTerm that caches scores.
+     * @param table The cache, which any number of terms may share, or
+     *      null for none.
+     */
+    public PawnStructureTerm(PawnHashTable table) {
+        this.table = table;
+    }
+
+    /** Get the cache of scores, or null if there is none. */
+    public PawnHashTable getTable() {
+        return table;
+    }
+
+    @Override
+    public int value(ChessPosition position) {
+        if (table != null) {
+            return table.score(position);
+        }
+        return score(Pawns.of(position, Piece.Color.WHITE), Pawns.of(position, Piece.Color.BLACK));
+    }
+
+    /** Score a pawn structure, given the bitboards of each color's pawns. */
+    static int score(long whitePawns, long blackPawns) {
+        return sideScore(Piece.Color.WHITE, whitePawns, blackPawns)
+                - sideScore(Piece.Color.BLACK, blackPawns, whitePawns);
+    }
+
+    /** Score the pawns of one color, from that color's point of view. */
+    private static int sideScore(Piece.Color color, long own, long enemy) {
+        int score = 0;
+        for (int file = 0; file < 8; file++) {
+            int count = Long.bitCount(own & Pawns.FILES[file]);
+            if (count > 1) {
+                score += (count - 1) * DOUBLED;
+            }
+        }
+        long pawns = own;
+        while (pawns != 0) {
+            int index = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            if ((own & Pawns.ADJACENT_FILES[index % 8]) == 0) {
+                score += ISOLATED;
+            }
+            // Of doubled pawns, only the front one can be passed.
+            if ((enemy & Pawns.passedSpan(color, index)) == 0
+                    && (own & Pawns.frontSpan(color, index)) == 0) {
+                score += PASSED[Pawns.relativeRank(color, index)];
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,82 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Bitboards of pawns, and the masks pawn-structure terms test them
+ * against.  Squares are identified by their indices, as described in
+ * Square.getIndex().
+ */
+final class Pawns {
+
+    // FILES[f] = the squares on file f, counting from 0 for the a-file.
+    static final long[] FILES = new long[8];
+    // ADJACENT_FILES[f] = the squares on the files beside file f.
+    static final long[] ADJACENT_FILES = new long[8];
+    // FRONT_SPANS[c][s] = the squares ahead of square s, on its file,
+    // from the point of view of color c.
+    private static final long[][] FRONT_SPANS = new long[2][64];
+    // PASSED_SPANS[c][s] = the squares ahead of square s, on its file and
+    // the files beside it: where enemy pawns would stop a pawn of color c.
+    private static final long[][] PASSED_SPANS = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = 0x0101010101010101L << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        }
+        for (int index = 0; index < 64; index++) {
+            int file = index % 8;
+            int rank = index / 8;
+            long whiteAhead = 0L;
+            for (int r = rank + 1; r < 8; r++) {
+                whiteAhead |= 0xFFL << (8 * r);
+            }
+            long blackAhead = 0L;
+            for (int r = rank - 1; r >= 0; r--) {
+                blackAhead |= 0xFFL << (8 * r);
+            }
+            int white = Piece.Color.WHITE.ordinal();
+            int black = Piece.Color.BLACK.ordinal();
+            FRONT_SPANS[white][index] = whiteAhead & FILES[file];
+            FRONT_SPANS[black][index] = blackAhead & FILES[file];
+            PASSED_SPANS[white][index] = whiteAhead & (FILES[file] | ADJACENT_FILES[file]);
+            PASSED_SPANS[black][index] = blackAhead & (FILES[file] | ADJACENT_FILES[file]);
+        }
+    }
+
+    // Static utility class.
+    private Pawns() {
+    }
+
+    /** Get the bitboard of the pawns of some color. */
+    static long of(ChessPosition position, Piece.Color color) {
+        long pawns = 0L;
+        for (int index = 0; index < 64; index++) {
+            Piece piece = position.getPiece(Square.fromIndex(index));
+            if (piece != null && piece.getType() == Piece.Type.PAWN && piece.getColor() == color) {
+                pawns |= 1L << index;
+            }
+        }
+        return pawns;
+    }
+
+    /** Get the squares ahead of a square, on its file, for pawns of some color. */
+    static long frontSpan(Piece.Color color, int index) {
+        return FRONT_SPANS[color.ordinal()][index];
+    }
+
+    /** Get the squares where enemy pawns would stop a pawn of some color from passing. */
+    static long passedSpan(Piece.Color color, int index) {
+        return PASSED_SPANS[color.ordinal()][index];
+    }
+
+    /** Get a square's rank, counting from 0 at the home rank of some color. */
+    static int relativeRank(Piece.Color color, int index) {
+        return color == Piece.Color.WHITE ? index / 8 : 7 - index / 8;
+    }
+}
@@ -0,0 +1,19 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.player.Heuristic;
+
+/**
+ * A Heuristic that values a position by its material and
+ * piece-square tables.  ChessPositions carry that value, updating it
+ * as moves are made, so evaluating a leaf is a field read, rather than
+ * a scan of the board as in BoardPieceValueHeuristic.  (See
+ * PieceSquareTable.)
+ */
+public class PieceSquareHeuristic implements Heuristic<ChessPosition> {
+
+    @Override
+    public int value(ChessPosition position) {
+        return position.getPieceSquareValue();
+    }
+}
@@ -0,0 +1,28 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.PieceSquareTable;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+
+/**
+ * Material and piece-square tables, as an EvaluationTerm, from the
+ * value positions carry.  Only the kings' endgame values differ.
+ */
+public class PieceSquareTerm implements EvaluationTerm {
+
+    @Override
+    public int value(ChessPosition position) {
+        int middlegame = position.getPieceSquareValue();
+        int endgame = middlegame;
+        for (Piece.Color color : Piece.Color.values()) {
+            Square king = position.getKingSquare(color);
+            if (king != null) {
+                int index = king.getIndex();
+                endgame += PieceSquareTable.endgameValue(Piece.Type.KING, color, index)
+                        - PieceSquareTable.value(Piece.Type.KING, color, index);
+            }
+        }
+        return TaperedScore.pack(middlegame, endgame);
+    }
+}
@@ -1,26 +1,339 @@
 package com.stalepretzel.chess.player;
 
+import java.util.Arrays;
+
 import com.stalepretzel.chess.ChessPosition;
 import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.exceptions.ChessException;
 import com.stalepretzel.player.AlphaBeta;
+import com.stalepretzel.player.AlphaBetaFactory;
+import com.stalepretzel.player.CachingHeuristic;
 import com.stalepretzel.player.Decider;
 import com.stalepretzel.player.Heuristic;
+import com.stalepretzel.player.LazySmp;
+import com.stalepretzel.player.MoveOrderer;
+import com.stalepretzel.player.PvSplit;
+import com.stalepretzel.player.RootSplit;
+import com.stalepretzel.player.ShuffleMoveOrderer;
+import com.stalepretzel.player.TranspositionTable;
 
 public class ProfilingTarget {
 
     private static final int RUNS = 20;
+    private static final int DEPTH = 4;
+    // Shuffled searches of middlegames are slow, so report on fewer runs.
+    private static final int REPORT_RUNS = 3;
+    // Parallel searches are timed deeper, so that starting threads is noise.
+    private static final int SPEEDUP_DEPTH = 5;
+    private static final int TABLE_MEGABYTES = 64;
+    // Pruned searches are compared deeper, where pruning pays off.
+    private static final int PRUNING_DEPTH = 5;
+    private static final int EVALUATION_CACHE_MEGABYTES = 4;
+
+    // Games leading to middlegame positions, for the node-count report.
+    private static final String[][] MIDDLEGAMES = {
+        {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7"},
+        {"d4", "d5", "c4", "e6", "Nc3", "Nf6", "Bg5", "Be7", "e3", "O-O"},
+        {"e4", "c5", "Nf3", "d6", "d4", "cxd4", "Nxd4", "Nf6", "Nc3", "a6"}};
 
-    public static void main(String[] args) {
+    /**
+     * Run the profiling searches, then report on them.
+     * @param args Optionally, the number of threads to time parallel
+     *      search with.  By default, one per processor.
+     */
+    public static void main(String[] args) throws ChessException {
         // Just run some AlphaBeta, so the profiler can do its thing.
         Heuristic<ChessPosition> heuristic = new BoardPieceValueHeuristic();
-        Decider<ChessPosition> decider = new AlphaBeta<ChessPosition>(heuristic);
+        AlphaBeta<ChessPosition> decider = new AlphaBeta<ChessPosition>(heuristic, ChessSearchBoard.FACTORY)
+                .setMoveOrderer(new ChessMoveOrderer());
 
         long startTime = System.currentTimeMillis();
         for (int run = 0; run < RUNS; run++){
-            decider.bestDecision(new ChessPositionBuilder().setupNewGame().build(), 4);
+            decider.bestDecision(new ChessPositionBuilder().setupNewGame().build(), DEPTH);
         }
         long endTime = System.currentTimeMillis();
         long runTime = endTime- startTime;
         System.out.println("Took " + runTime + "ms for " + RUNS + " runs.");
+
+        // Report how much move ordering prunes, compared to random order.
+        reportNodes("New game", new ChessPositionBuilder().setupNewGame().build(), heuristic);
+        for (String[] moves : MIDDLEGAMES) {
+            reportNodes("After " + moves.length + " plies of " + moves[0] + " " + moves[1],
+                        Game.fromMoves(moves).getCurrentPosition(), heuristic);
+        }
+
+        // Report how much null-move pruning and late move reductions
+        // save, and whether the searches still solve the TacticsSuite.
+        reportPruning(heuristic, false, false);
+        reportPruning(heuristic, true, false);
+        reportPruning(heuristic, false, true);
+        reportPruning(heuristic, true, true);
+
+        // Report what each evaluation term costs, and what the search
+        // gains in speed without it.
+        reportEvaluation(null);
+        for (EvaluationTerm term : new EvaluationHeuristic().getTerms()) {
+            reportEvaluation(term.getClass());
+        }
+        reportEvaluationCache(false);
+        reportEvaluationCache(true);
+
+        // Report how much faster searches go when they evaluate only
+        // the Positions whose values they use.
+        for (Heuristic<ChessPosition> evaluator : Arrays.asList(heuristic, new EvaluationHeuristic())) {
+            reportLazyEvaluation(evaluator, false, false);
+            reportLazyEvaluation(evaluator, false, true);
+            reportLazyEvaluation(evaluator, true, false);
+            reportLazyEvaluation(evaluator, true, true);
+        }
+
+        // Report how much faster parallel search reaches the same depth.
+        int threads = args.length > 0 ? Integer.parseInt(args[0])
+                                      : Runtime.getRuntime().availableProcessors();
+        reportSpeedup("New game", new ChessPositionBuilder().setupNewGame().build(), heuristic, threads);
+        for (String[] moves : MIDDLEGAMES) {
+            reportSpeedup("After " + moves.length + " plies of " + moves[0] + " " + moves[1],
+                          Game.fromMoves(moves).getCurrentPosition(), heuristic, threads);
+        }
+    }
+
+    /** The time and nodes one search took. */
+    private static class Timing {
+        private final long millis;
+        private final long nodes;
+
+        Timing(long millis, long nodes) {
+            this.millis = millis;
+            this.nodes = nodes;
+        }
+    }
+
+    /** Print how long parallel searches take to search a position, with one thread and with many. */
+    private static void reportSpeedup(String name, ChessPosition position,
+                                      Heuristic<ChessPosition> heuristic, int threads) {
+        printSpeedup(name + ", LazySmp", timeLazySmp(position, heuristic, 1),
+                     timeLazySmp(position, heuristic, threads), threads);
+        // RootSplit, against the serial search it would replace.
+        printSpeedup(name + ", RootSplit", timeSerial(position, heuristic),
+                     timeRootSplit(position, heuristic, threads), threads);
+        printSpeedup(name + ", PvSplit", timePvSplit(position, heuristic, 1),
+                     timePvSplit(position, heuristic, threads), threads);
+    }
+
+    private static void printSpeedup(String name, Timing single, Timing parallel, int threads) {
+        System.out.println(name + ": " + single.millis + "ms and " + single.nodes + " nodes with 1 thread, "
+                           + parallel.millis + "ms and " + parallel.nodes + " nodes with " + threads
+                           + ", speedup " + (float) single.millis / Math.max(1, parallel.millis) + ".");
+    }
+
+    /** Get a factory of AlphaBetas that order their moves. */
+    private static AlphaBetaFactory<ChessPosition> orderedSearches(final Heuristic<ChessPosition> heuristic) {
+        return new AlphaBetaFactory<ChessPosition>() {
+            @Override
+            public AlphaBeta<ChessPosition> alphaBeta() {
+                return new AlphaBeta<ChessPosition>(heuristic, ChessSearchBoard.FACTORY)
+                        .setMoveOrderer(new ChessMoveOrderer());
+            }
+        };
+    }
+
+    /** Time one LazySmp search, starting from an empty table. */
+    private static Timing timeLazySmp(ChessPosition position, Heuristic<ChessPosition> heuristic,
+                                      int threads) {
+        LazySmp<ChessPosition> decider = new LazySmp<ChessPosition>(
+                orderedSearches(heuristic), new TranspositionTable(TABLE_MEGABYTES), threads);
+        try {
+            return new Timing(time(decider, position), decider.getNodeCount());
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    /** Time one search with the server's configuration, starting from an empty table. */
+    private static Timing timeSerial(ChessPosition position, Heuristic<ChessPosition> heuristic) {
+        AlphaBeta<ChessPosition> decider = ChessSearch.newAlphaBeta(heuristic, TABLE_MEGABYTES);
+        return new Timing(time(decider, position), decider.getNodeCount());
+    }
+
+    /** Time one RootSplit search with the server's configuration, starting from an empty table. */
+    private static Timing timeRootSplit(ChessPosition position, final Heuristic<ChessPosition> heuristic,
+                                        int threads) {
+        AlphaBetaFactory<ChessPosition> searches = new AlphaBetaFactory<ChessPosition>() {
+            @Override
+            public AlphaBeta<ChessPosition> alphaBeta() {
+                return ChessSearch.newAlphaBeta(heuristic, 0);
+            }
+        };
+        RootSplit<ChessPosition> decider = new RootSplit<ChessPosition>(
+                searches, new TranspositionTable(TABLE_MEGABYTES), threads);
+        try {
+            return new Timing(time(decider, position), decider.getNodeCount());
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    /** Time one PvSplit search, starting from an empty table. */
+    private static Timing timePvSplit(ChessPosition position, Heuristic<ChessPosition> heuristic,
+                                      int threads) {
+        PvSplit<ChessPosition> decider = new PvSplit<ChessPosition>(
+                orderedSearches(heuristic), new TranspositionTable(TABLE_MEGABYTES), threads);
+        try {
+            return new Timing(time(decider, position), decider.getNodeCount());
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    /** Time one search to SPEEDUP_DEPTH, in milliseconds. */
+    private static long time(Decider<ChessPosition> decider, ChessPosition position) {
+        long startTime = System.currentTimeMillis();
+        decider.bestDecision(position, SPEEDUP_DEPTH);
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Print the nodes a search visits in the middlegames, to
+     * PRUNING_DEPTH, and how many TacticsSuite problems it solves.
+     */
+    private static void reportPruning(Heuristic<ChessPosition> heuristic, boolean nullMovePruning,
+                                      boolean lateMoveReductions) throws ChessException {
+        AlphaBeta<ChessPosition> decider = ChessSearch.newAlphaBeta(heuristic, TABLE_MEGABYTES)
+                .setNullMovePruning(nullMovePruning)
+                .setLateMoveReductions(lateMoveReductions);
+        long nodes = 0;
+        for (String[] moves : MIDDLEGAMES) {
+            decider.bestDecision(Game.fromMoves(moves).getCurrentPosition(), PRUNING_DEPTH);
+            nodes += decider.getNodeCount();
+        }
+        int solved = TacticsSuite.solvedCount(decider);
+        System.out.println("Null-move pruning " + (nullMovePruning ? "on" : "off")
+                           + ", late move reductions " + (lateMoveReductions ? "on" : "off") + ": "
+                           + nodes + " nodes in the middlegames, solved " + solved + " of "
+                           + TacticsSuite.problems().size() + " tactics.");
+    }
+
+    /**
+     * Print the nodes per second a search of the middlegames, to
+     * PRUNING_DEPTH, visits with an EvaluationHeuristic, and how long
+     * each of its terms takes per position.
+     * @param disabled The class of term to switch off, or null for none.
+     */
+    private static void reportEvaluation(Class<? extends EvaluationTerm> disabled) throws ChessException {
+        EvaluationHeuristic heuristic = new EvaluationHeuristic();
+        if (disabled != null) {
+            heuristic.setEnabled(disabled, false);
+        }
+        AlphaBeta<ChessPosition> decider = ChessSearch.newAlphaBeta(heuristic, TABLE_MEGABYTES);
+
+        // First untimed, for the search speed, then timed, for the terms' costs.
+        long nodes = 0;
+        long startTime = System.nanoTime();
+        for (String[] moves : MIDDLEGAMES) {
+            decider.bestDecision(Game.fromMoves(moves).getCurrentPosition(), PRUNING_DEPTH);
+            nodes += decider.getNodeCount();
+        }
+        long nanos = System.nanoTime() - startTime;
+        heuristic.setTiming(true);
+        for (EvaluationTerm term : heuristic.getTerms()) {
+            if (term instanceof PawnStructureTerm && ((PawnStructureTerm) term).getTable() != null) {
+                ((PawnStructureTerm) term).getTable().setCounting(true);
+            }
+        }
+        for (String[] moves : MIDDLEGAMES) {
+            decider.bestDecision(Game.fromMoves(moves).getCurrentPosition(), PRUNING_DEPTH);
+        }
+        heuristic.setTiming(false);
+
+        StringBuilder costs = new StringBuilder();
+        for (EvaluationTerm term : heuristic.getTerms()) {
+            if (heuristic.isEnabled(term)) {
+                costs.append(", ").append(term.getClass().getSimpleName()).append(" ")
+                     .append(Math.round(heuristic.getNanosPerCall(term))).append("ns");
+                if (term instanceof PawnStructureTerm && ((PawnStructureTerm) term).getTable() != null) {
+                    costs.append(" (pawn hash hit rate ")
+                         .append((float) ((PawnStructureTerm) term).getTable().getHitRate()).append(")");
+                }
+            }
+        }
+        String name = disabled == null ? "with all terms" : "without " + disabled.getSimpleName();
+        System.out.println("Evaluation " + name + ": " + nodes * 1000000000L / Math.max(1, nanos)
+                           + " nodes/s" + costs + ".");
+    }
+
+    /**
+     * Print the nodes per second a search of the middlegames, to
+     * PRUNING_DEPTH, visits with lazy evaluation or without.
+     */
+    private static void reportLazyEvaluation(Heuristic<ChessPosition> heuristic, boolean quiescence,
+                                             boolean lazy) throws ChessException {
+        AlphaBeta<ChessPosition> decider = ChessSearch.newAlphaBeta(heuristic, TABLE_MEGABYTES)
+                .setQuiescence(quiescence)
+                .setLazyEvaluation(lazy);
+        long nodes = 0;
+        long startTime = System.nanoTime();
+        for (String[] moves : MIDDLEGAMES) {
+            decider.bestDecision(Game.fromMoves(moves).getCurrentPosition(), PRUNING_DEPTH);
+            nodes += decider.getNodeCount();
+        }
+        long nanos = System.nanoTime() - startTime;
+        System.out.println(heuristic.getClass().getSimpleName() + (quiescence ? ", quiescence" : ", extending")
+                           + ", lazy evaluation " + (lazy ? "on" : "off") + ": " + nodes + " nodes, "
+                           + nodes * 1000000000L / Math.max(1, nanos) + " nodes/s.");
+    }
+
+    /**
+     * Print the nodes per second iterative searches of the middlegames,
+     * to PRUNING_DEPTH, visit with an EvaluationHeuristic, cached or not.
+     */
+    private static void reportEvaluationCache(boolean cached) throws ChessException {
+        Heuristic<ChessPosition> heuristic = new EvaluationHeuristic();
+        CachingHeuristic<ChessPosition> cache = null;
+        if (cached) {
+            heuristic = cache = new CachingHeuristic<ChessPosition>(heuristic, EVALUATION_CACHE_MEGABYTES);
+            cache.setCounting(true);
+        }
+        AlphaBeta<ChessPosition> decider = ChessSearch.newAlphaBeta(heuristic, TABLE_MEGABYTES);
+
+        // Each iteration evaluates many of the last one's positions again.
+        long nodes = 0;
+        long startTime = System.nanoTime();
+        for (String[] moves : MIDDLEGAMES) {
+            ChessPosition position = Game.fromMoves(moves).getCurrentPosition();
+            for (int depth = 1; depth <= PRUNING_DEPTH; depth++) {
+                decider.bestDecision(position, depth);
+                nodes += decider.getNodeCount();
+            }
+        }
+        long nanos = System.nanoTime() - startTime;
+        System.out.println("Iterative evaluation " + (cached ? "with" : "without") + " a cache: "
+                           + nodes * 1000000000L / Math.max(1, nanos) + " nodes/s"
+                           + (cached ? ", hit rate " + (float) cache.getHitRate() : "") + ".");
+    }
+
+    /** Print the nodes searched per run, with shuffled and with ordered moves. */
+    private static void reportNodes(String name, ChessPosition position,
+                                    Heuristic<ChessPosition> heuristic) {
+        // Shuffled moves come all at once, as they did before move ordering.
+        long shuffledNodes = countNodes(position, heuristic, new ShuffleMoveOrderer<ChessPosition>(), false);
+        long orderedNodes = countNodes(position, heuristic, new ChessMoveOrderer(), true);
+        System.out.println(name + ": " + shuffledNodes / REPORT_RUNS + " nodes per run shuffled, "
+                           + orderedNodes / REPORT_RUNS + " ordered.");
+    }
+
+    /** Count the nodes REPORT_RUNS searches visit, ordering moves with some MoveOrderer. */
+    private static long countNodes(ChessPosition position, Heuristic<ChessPosition> heuristic,
+                                   MoveOrderer<ChessPosition> orderer, boolean staged) {
+        AlphaBeta<ChessPosition> decider = new AlphaBeta<ChessPosition>(heuristic, ChessSearchBoard.FACTORY)
+                .setMoveOrderer(orderer)
+                .setStagedGeneration(staged);
+        long nodes = 0;
+        for (int run = 0; run < REPORT_RUNS; run++){
+            decider.bestDecision(position, DEPTH);
+            nodes += decider.getNodeCount();
+        }
+        return nodes;
     }
 }
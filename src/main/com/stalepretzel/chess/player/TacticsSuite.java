@@ -0,0 +1,101 @@
+package com.stalepretzel.chess.player;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.stalepretzel.chess.ChessMove;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.exceptions.FenException;
+import com.stalepretzel.player.Decider;
+import com.stalepretzel.player.Decision;
+
+/**
+ * Tactical problems with known solutions: mates, forks, skewers and
+ * the like.  Searches that prune or reduce (null-move pruning, late
+ * move reductions) trade accuracy for speed, and the number of
+ * problems a search still solves measures what they cost in strength.
+ *
+ * Each problem is shallow enough for BoardPieceValueHeuristic to see
+ * it at the problem's depth.  Mates need one ply more than their
+ * length, since the mated position must be searched to find it has no
+ * moves.
+ */
+public final class TacticsSuite {
+
+    /** A position, the move that solves it, and how deep to search for it. */
+    public static final class Problem {
+        private final String name;
+        private final ChessPosition position;
+        private final ChessMove solution;
+        private final int depth;
+
+        private Problem(String name, String fen, String start, String end, int depth) {
+            this.name = name;
+            try {
+                this.position = new ChessPositionBuilder().setupFen(fen).build();
+            } catch (FenException e) {
+                throw new IllegalArgumentException("Bad FEN for " + name + ": " + fen, e);
+            }
+            this.solution = new NormalChessMove(start, end);
+            this.depth = depth;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ChessPosition getPosition() {
+            return position;
+        }
+
+        public ChessMove getSolution() {
+            return solution;
+        }
+
+        /** Get the depth, in plies, a search needs to find the solution. */
+        public int getDepth() {
+            return depth;
+        }
+
+        /** Return whether a Decider, searching to the problem's depth, finds the solution. */
+        public boolean isSolvedBy(Decider<ChessPosition> decider) {
+            Decision<ChessPosition> decision = decider.bestDecision(position, depth);
+            return solution.equals(decision.getFirstMove());
+        }
+    }
+
+    private static final List<Problem> PROBLEMS = Collections.unmodifiableList(Arrays.asList(
+        new Problem("Back-rank mate", "6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1", "a1", "a8", 2),
+        new Problem("Smothered mate", "6rk/6pp/8/6N1/8/8/8/6K1 w - - 0 1", "g5", "f7", 2),
+        new Problem("Doubled rooks mate", "2r4k/6pp/8/8/8/8/4RPPP/4R1K1 w - - 0 1", "e2", "e8", 4),
+        new Problem("Hanging queen",
+                    "rnb1kbnr/ppp1pppp/8/3q4/8/2N5/PPPP1PPP/R1BQKBNR w KQkq - 0 1", "c3", "d5", 2),
+        new Problem("Knight fork", "q3k3/8/8/3N4/8/8/8/4K3 w - - 0 1", "d5", "c7", 3),
+        new Problem("Knight fork for black", "4k3/8/8/8/3n4/8/8/Q3K3 b - - 0 1", "d4", "c2", 3),
+        new Problem("Skewer", "8/8/8/3k3q/8/8/8/R5K1 w - - 0 1", "a1", "a5", 3),
+        new Problem("Fried liver",
+                    "r1bqkb1r/ppp2ppp/2n5/3np1N1/2B5/8/PPPP1PPP/RNBQK2R w KQkq - 0 6", "g5", "f7", 4)));
+
+    // Static utility class.
+    private TacticsSuite() {
+    }
+
+    /** Get the problems. */
+    public static List<Problem> problems() {
+        return PROBLEMS;
+    }
+
+    /** Return how many of the problems a Decider solves. */
+    public static int solvedCount(Decider<ChessPosition> decider) {
+        int solved = 0;
+        for (Problem problem : PROBLEMS) {
+            if (problem.isSolvedBy(decider)) {
+                solved++;
+            }
+        }
+        return solved;
+    }
+}
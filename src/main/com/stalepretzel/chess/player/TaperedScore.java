@@ -0,0 +1,39 @@
+package com.stalepretzel.chess.player;
+
+import com.stalepretzel.chess.PieceSquareTable;
+
+/**
+ * Pairs of middlegame and endgame scores, packed into plain ints.
+ * The endgame score takes the low 16 bits and the middlegame score the
+ * rest, so packed scores add and subtract like their parts, as long as
+ * both stay within a Short's range.
+ */
+public final class TaperedScore {
+
+    // Static utility class.
+    private TaperedScore() {
+    }
+
+    /** Pack a middlegame and an endgame score, in centipawns, into one int. */
+    public static int pack(int middlegame, int endgame) {
+        return (middlegame << 16) + endgame;
+    }
+
+    /** Get the middlegame part of a packed score. */
+    public static int middlegame(int score) {
+        // Round away the endgame part, which may have borrowed from the middlegame part.
+        return (score + 0x8000) >> 16;
+    }
+
+    /** Get the endgame part of a packed score. */
+    public static int endgame(int score) {
+        return (short) score;
+    }
+
+    /** Blend a packed score's parts, from all endgame at phase 0 to all middlegame at MAX_PHASE. */
+    public static int taper(int score, int phase) {
+        phase = Math.min(phase, PieceSquareTable.MAX_PHASE);
+        return (middlegame(score) * phase + endgame(score) * (PieceSquareTable.MAX_PHASE - phase))
+                / PieceSquareTable.MAX_PHASE;
+    }
+}
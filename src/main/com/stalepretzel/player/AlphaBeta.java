@@ -1,92 +1,669 @@
 package com.stalepretzel.player;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * A Decider that searches with alpha-beta pruning.
+ *
+ * Internally, scores are plain ints (see IntScore), which cost nothing
+ * to create or compare.  They're converted to and from Scores only
+ * where a search starts and returns its Decision.
+ *
+ * @param <P> The type of positions that will be analyzed.
+ */
 public class AlphaBeta<P extends Position<P>> implements Decider<P>{
 
-    private static final float EXTENSION_THRESHOLD = 0.7f;
+    // In centipawns.
+    private static final int EXTENSION_THRESHOLD = 70;
+    // The initial number of plies with MoveLists.  More are added as needed.
+    private static final int INITIAL_PLIES = 16;
+    // How many plies shallower the reply to a null move is searched.
+    private static final int NULL_MOVE_REDUCTION = 2;
+    // How many Moves from a Position are searched fully before later
+    // quiet ones are reduced, and how many plies it needs left.
+    private static final int FULL_DEPTH_MOVES = 3;
+    private static final int MIN_REDUCTION_PLIES = 3;
+    // Stands in for a Heuristic value that lazy evaluation hasn't
+    // computed.  It's below every int score.
+    private static final int UNEVALUATED = Integer.MIN_VALUE;
     private final Heuristic<P> heuristic;
+    private final SearchBoardFactory<P> boardFactory;
+    private MoveOrderer<P> orderer;
+    private boolean staged = true;
+    private boolean quiescence = false;
+    private boolean principalVariationSearch = false;
+    private boolean nullMovePruning = false;
+    private boolean lateMoveReductions = false;
+    private boolean lazyEvaluation = true;
+    // Null if quiescence searches don't delta prune.
+    private GainEstimator<P> gains;
+    // Null if results aren't cached.
+    private TranspositionTable table;
+    // Filled by each lookup in the table.
+    private final TranspositionTable.Entry entry = new TranspositionTable.Entry();
+    // The budget of the current search, or null if it is unlimited.
+    private SearchBudget budget;
+    // The number of nodes the last search visited.
+    private long nodeCount;
+    // The Moves of the current batch, and the deferred Moves, at each
+    // distance from the root.  They're reused from node to node.
+    private MoveList[] batchMoves = new MoveList[0];
+    private MoveList[] deferredMoves = new MoveList[0];
+    // The triangular principal variation array: row i holds the best
+    // variation, as packed Moves, found from the node i plies from the
+    // root, and pvLengths[i] is its length.  Each node sets its own row
+    // before it returns, from its best Move and the row below.  Row i
+    // is never longer than the deepest ply minus i, so each row is a
+    // ply shorter than the one above.  Only the root's row is ever
+    // unpacked into Move objects.
+    private int[][] pv = new int[0][];
+    private int[] pvLengths = new int[0];
 
+    /**
+     * Create an AlphaBeta that searches by creating a new Position
+     * for every Move it makes.
+     */
     public AlphaBeta(Heuristic<P> heuristic) {
+        this(heuristic, PositionStack.<P>factory());
+    }
+
+    /**
+     * Create an AlphaBeta that searches by making and unmaking
+     * Moves on SearchBoards.
+     * @param boardFactory Creates the SearchBoard for each search.
+     */
+    public AlphaBeta(Heuristic<P> heuristic, SearchBoardFactory<P> boardFactory) {
         this.heuristic = heuristic;
+        this.boardFactory = boardFactory;
+        this.orderer = new ShuffleMoveOrderer<P>();
+    }
+
+    /** Order Moves with a MoveOrderer.  By default, Moves are searched in random order. */
+    public AlphaBeta<P> setMoveOrderer(MoveOrderer<P> orderer) {
+        this.orderer = orderer;
+        return this;
+    }
+
+    /**
+     * Choose whether to generate candidate Moves in stages (see
+     * SearchBoard.stageCount), or all at once.  It's on by default.
+     */
+    public AlphaBeta<P> setStagedGeneration(boolean staged) {
+        this.staged = staged;
+        return this;
+    }
+
+    /**
+     * Choose whether to search tactical Moves past the horizon until the
+     * Position is quiet, rather than extend by score deltas (see
+     * shouldExtend).  It's off by default.
+     */
+    public AlphaBeta<P> setQuiescence(boolean quiescence) {
+        this.quiescence = quiescence;
+        return this;
+    }
+
+    /**
+     * Skip quiescence Moves that couldn't beat the best score even if they
+     * won their whole estimated gain.
+     * @param gains Estimates each Move's gain, or null to stop pruning.
+     */
+    public AlphaBeta<P> setDeltaPruning(GainEstimator<P> gains) {
+        this.gains = gains;
+        return this;
+    }
+
+    /**
+     * Choose whether to use Principal Variation Search: search each Move
+     * but the first with a null window, and again only if it beats the best.
+     * It pays only with a TranspositionTable.  It's off by default.
+     */
+    public AlphaBeta<P> setPrincipalVariationSearch(boolean principalVariationSearch) {
+        this.principalVariationSearch = principalVariationSearch;
+        return this;
+    }
+
+    /**
+     * Choose whether to cut off Positions where even passing does well
+     * enough, on boards that can pass (see NullMoveBoard).  It's off by default.
+     */
+    public AlphaBeta<P> setNullMovePruning(boolean nullMovePruning) {
+        this.nullMovePruning = nullMovePruning;
+        return this;
+    }
+
+    /**
+     * Choose whether to search late quiet Moves a ply shallower, unless
+     * they beat the best so far.  It's off by default.
+     */
+    public AlphaBeta<P> setLateMoveReductions(boolean lateMoveReductions) {
+        this.lateMoveReductions = lateMoveReductions;
+        return this;
+    }
+
+    /**
+     * Choose whether to evaluate Positions only where their values are used.
+     * Decisions are the same either way.  It's on by default.
+     */
+    public AlphaBeta<P> setLazyEvaluation(boolean lazyEvaluation) {
+        this.lazyEvaluation = lazyEvaluation;
+        return this;
+    }
+
+    /**
+     * Cache search results in a TranspositionTable, kept from search to search.
+     * @param table The table, or null for none.
+     */
+    public AlphaBeta<P> setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+        return this;
+    }
+
+    /** Get the number of nodes (Positions) that the last search visited. */
+    public long getNodeCount() {
+        return nodeCount;
     }
 
     @Override
     public Decision<P> bestDecision(P state, int depth) {
-        // TODO(jasonpr): Come up with a better fake parent score.
-        int pliesFromRoot = 0;
-        return alphaBeta(state, pliesFromRoot, depth, TerminalScore.LOWEST, TerminalScore.HIGHEST,
-                         new EstimatedScore(0.0f));
+        return bestDecision(state, depth, null);
     }
 
-    private Decision<P> alphaBeta(P position, int pliesFromRoot, int maxPlies, Score alpha, Score beta, EstimatedScore parentScore) {
-        EstimatedScore score = heuristic.value(position);
+    /**
+     * Get the best Decision from a Position, within a SearchBudget.
+     * @param budget The budget, which is spent as nodes are visited,
+     *      or null for no limit.
+     * @throws SearchAbortedException If the budget runs out first.
+     */
+    public Decision<P> bestDecision(P state, int depth, SearchBudget budget) {
+        return bestDecision(state, depth, budget, TerminalScore.LOWEST, TerminalScore.HIGHEST);
+    }
+
+    /**
+     * Get the best Decision from a Position, if its score is between
+     * alpha and beta.  A narrow window cuts off more, but if the
+     * returned score is at or below alpha, it's only an upper bound on
+     * the true score, and if it's at or above beta, it's only a lower
+     * bound.  Either way, its Move may not be the best.
+     * @param budget The budget, which is spent as nodes are visited,
+     *      or null for no limit.
+     * @param alpha The lowest score of interest.
+     * @param beta The highest score of interest.
+     * @throws SearchAbortedException If the budget runs out first.
+     */
+    public Decision<P> bestDecision(P state, int depth, SearchBudget budget, Score alpha, Score beta) {
+        newSearch();
+        return search(state, depth, budget, alpha, beta);
+    }
+
+    /**
+     * Start a new search of the TranspositionTable, if there is one.
+     * Results of earlier searches become replaceable by any new result.
+     */
+    void newSearch() {
+        if (table != null) {
+            table.newSearch();
+        }
+    }
+
+    /**
+     * Search like bestDecision, but without starting a new search of
+     * the TranspositionTable.  Searches that share a table, or that
+     * are several steps towards one Decision, run this, once their
+     * owner has started the table's search.
+     */
+    Decision<P> search(P state, int depth, SearchBudget budget) {
+        return search(state, depth, budget, TerminalScore.LOWEST, TerminalScore.HIGHEST);
+    }
+
+    /**
+     * Search like search(P, int, SearchBudget), but only for scores
+     * between alpha and beta.  A returned score at or below alpha is
+     * only an upper bound on the true score, and one at or above beta
+     * is only a lower bound.
+     * @param alpha The best score the maximizer can already force.
+     * @param beta The best score the minimizer can already force.
+     */
+    Decision<P> search(P state, int depth, SearchBudget budget, Score alpha, Score beta) {
+        return search(state, depth, budget, IntScore.fromScore(alpha), IntScore.fromScore(beta));
+    }
+
+    /** Search like search(P, int, SearchBudget, Score, Score), with int scores. */
+    Decision<P> search(P state, int depth, SearchBudget budget, int alpha, int beta) {
+        orderer.newSearch();
+        this.budget = budget;
+        nodeCount = 0;
+        try {
+            SearchBoard<P> board = boardFactory.searchBoard(state);
+            // TODO(jasonpr): Come up with a better fake parent score.
+            int pliesFromRoot = 0;
+            ensurePlies(pliesFromRoot + 1);
+            int score = alphaBeta(board, pliesFromRoot, depth, alpha, beta, IntScore.DRAW, false);
+            List<Move<P>> variation = new ArrayList<Move<P>>(pvLengths[pliesFromRoot]);
+            for (int i = 0; i < pvLengths[pliesFromRoot]; i++) {
+                variation.add(board.toMove(pv[pliesFromRoot][i]));
+            }
+            return new Decision<P>(variation, IntScore.toScore(score));
+        } finally {
+            this.budget = null;
+        }
+    }
+
+    /**
+     * Search the board's Position, and leave its best variation in the
+     * principal variation array, at its distance from the root.
+     * @param alpha The int score the maximizer can already force.
+     * @param beta The int score the minimizer can already force.
+     * @param parentScore The Heuristic value of the parent Position, or
+     *      UNEVALUATED if this Position can't be extended.
+     * @param afterNullMove Whether the Position was reached by passing.
+     * @return The int score.
+     */
+    private int alphaBeta(SearchBoard<P> board, int pliesFromRoot, int maxPlies, int alpha, int beta,
+                          int parentScore, boolean afterNullMove) {
+        if (quiescence && pliesFromRoot >= maxPlies) {
+            return quiesce(board, pliesFromRoot, alpha, beta);
+        }
+        nodeCount++;
+        if (budget != null && !budget.spendNode()) {
+            // Abandon the board, mid-search.  It won't be used again.
+            throw new SearchAbortedException();
+        }
+        ensurePlies(pliesFromRoot + 2);
+        // The board's position may be a view of the board, but we
+        // always unmake our moves before using it.
+        P position = board.position();
+        int pliesRemaining = maxPlies - pliesFromRoot;
+        // Only results of full-depth searches are cached.  Beyond that,
+        // whether to extend depends on how we reached the Position.
+        boolean cacheable = table != null && pliesRemaining > 0;
+        long key = 0L;
+        int hashMove = SearchBoard.NO_MOVE;
+        if (cacheable) {
+            key = position.hashKey();
+            if (table.find(key, entry)) {
+                hashMove = entry.getMove();
+                int cachedScore = entry.getScore(pliesFromRoot);
+                // Never cut off the root: we need its whole variation.
+                if (pliesFromRoot > 0 && entry.getDepth() >= pliesRemaining &&
+                        isUsable(entry.getBound(), cachedScore, alpha, beta)) {
+                    // The table only has the first Move of the variation.
+                    pvLengths[pliesFromRoot] = 0;
+                    if (hashMove != SearchBoard.NO_MOVE) {
+                        pv[pliesFromRoot][0] = hashMove;
+                        pvLengths[pliesFromRoot] = 1;
+                    }
+                    return cachedScore;
+                }
+            }
+        }
+        final int alphaBefore = alpha;
+        final int betaBefore = beta;
+
+        // Without quiescence search, the value decides whether to extend
+        // this Position, if it's at the horizon, or its children, if they
+        // are.  Otherwise, only null moves need it, and they evaluate it
+        // themselves.  (Reduced children never reach the horizon, except
+        // the reply to a null move, which evaluated its parent.)
+        int score = UNEVALUATED;
+        if (!lazyEvaluation || (!quiescence && pliesRemaining <= 1)) {
+            score = heuristic.value(position);
+        }
         if (pliesFromRoot < maxPlies || shouldExtend(score, parentScore)) {
-            // Generate all legal transitions.
-            List<Move<P>> moves = new ArrayList<Move<P>>(position.moves());
-            // TODO(jasonpr): Order nicely.
-            Collections.shuffle(moves);
+            final boolean isMaxStep = position.toMove() == Player.MAXIMIZER;
+
+            if (nullMovePruning && pliesFromRoot > 0 && !afterNullMove &&
+                    pliesRemaining > NULL_MOVE_REDUCTION &&
+                    isNullMoveCutoff(board, pliesFromRoot, maxPlies, alpha, beta, score, isMaxStep)) {
+                pvLengths[pliesFromRoot] = 0;
+                return isMaxStep ? beta : alpha;
+            }
+            // Late quiet Moves may be reduced, unless this player is in check.
+            boolean mayReduce = lateMoveReductions && pliesRemaining >= MIN_REDUCTION_PLIES &&
+                    !board.isInCheck();
+
+            // bestScore is ALWAYS set in the moves loop,
+            // unless there are no legal moves.
+            int bestScore = 0;
+            boolean seenAny = false;
+            int searched = 0;
+            int bestMove = SearchBoard.NO_MOVE;
+            pvLengths[pliesFromRoot] = 0;
+
+            // Moves are tried in batches, so that a cutoff saves generating
+            // the later ones: first the hash move, if the board can vouch
+            // for it, then each stage of candidate moves, then the moves the
+            // orderer deferred.  The board rejects illegal moves when we
+            // try to make them.
+            boolean hashMoveFirst = hashMove != SearchBoard.NO_MOVE && board.isCandidate(hashMove);
+            int stageCount = staged ? board.stageCount() : 1;
+            MoveList moves = batchMoves[pliesFromRoot];
+            MoveList deferred = deferredMoves[pliesFromRoot];
+            deferred.clear();
+            searchLoop:
+            for (int batch = -1; batch <= stageCount; batch++) {
+                int tryNow;
+                if (batch == -1) {
+                    if (!hashMoveFirst) {
+                        continue;
+                    }
+                    moves.clear();
+                    moves.add(hashMove);
+                    tryNow = 1;
+                } else if (batch < stageCount) {
+                    moves.clear();
+                    if (staged) {
+                        board.candidateMoves(batch, moves);
+                    } else {
+                        for (int stage = 0; stage < board.stageCount(); stage++) {
+                            board.candidateMoves(stage, moves);
+                        }
+                    }
+                    int hashMoveIndex = hashMoveFirst ? moves.indexOf(hashMove) : -1;
+                    if (hashMoveIndex >= 0) {
+                        moves.remove(hashMoveIndex);
+                    }
+                    tryNow = orderer.order(moves, position, hashMove, pliesFromRoot);
+                    for (int i = tryNow; i < moves.size(); i++) {
+                        deferred.add(moves.get(i));
+                    }
+                } else {
+                    moves = deferred;
+                    tryNow = deferred.size();
+                }
+
+                for (int i = 0; i < tryNow; i++) {
+                    int t = moves.get(i);
+                    if (!board.makeMove(t)) {
+                        // Illegal.
+                        continue;
+                    }
+                    searched++;
+
+                    // Get the best score from this possible result...
+                    int nextScore = 0;
+                    int best = isMaxStep ? alpha : beta;
+                    boolean reduced = false;
+                    if (mayReduce && batch >= 0 && searched > FULL_DEPTH_MOVES &&
+                            !board.isTactical(t) && !board.isInCheck()) {
+                        // A late quiet Move: does it beat the best so far, even searched shallower?
+                        nextScore = nullWindowSearch(board, pliesFromRoot + 1, maxPlies - 1, best, isMaxStep,
+                                                     score, false);
+                        // If it might, search it fully.
+                        reduced = !isBetter(nextScore, best, isMaxStep);
+                    }
+                    if (reduced) {
+                        // It was reduced, and didn't beat the best.
+                    } else if (principalVariationSearch && seenAny) {
+                        // A null window: does this Move beat the best so far?
+                        nextScore = nullWindowSearch(board, pliesFromRoot + 1, maxPlies, best, isMaxStep,
+                                                     score, false);
+                        if (nextScore > alpha && nextScore < beta) {
+                            // It does, and the score matters, so find it exactly.
+                            nextScore = alphaBeta(board, pliesFromRoot + 1, maxPlies, alpha, beta, score, false);
+                        }
+                    } else {
+                        nextScore = alphaBeta(board, pliesFromRoot + 1, maxPlies, alpha, beta, score, false);
+                    }
+                    board.unmakeMove();
+                    if (!seenAny || isBetter(nextScore, bestScore, isMaxStep)) {
+                        seenAny = true;
+                        bestScore = nextScore;
+                        bestMove = t;
+                        extendVariation(pliesFromRoot, t);
+                    }
+
+                    // update alpha and beta
+                    if (isMaxStep && bestScore > alpha) {
+                        alpha = bestScore;
+                    } else if (!isMaxStep && bestScore < beta) {
+                        beta = bestScore;
+                    }
+
+                    // ...and terminate if alpha-beta condition is satisfied.
+                    if (alpha >= beta) {
+                        orderer.cutoff(t, position, pliesFromRoot, maxPlies - pliesFromRoot);
+                        break searchLoop;
+                    }
+                }
+            }
 
             // Decide it's checkmate/stalemate.
-            if (moves.size() == 0) {
-                TerminalScore mate;
+            if (!seenAny) {
+                int mate;
                 Outcome outcome = position.outcome();
                 switch (outcome) {
                 case WIN:
-                    mate = TerminalScore.wins(position.toMove(), pliesFromRoot);
+                    mate = IntScore.wins(position.toMove(), pliesFromRoot);
                     break;
                 case DRAW:
-                    mate = TerminalScore.draw(pliesFromRoot);
+                    mate = IntScore.DRAW;
                     break;
                 case LOSS:
-                    mate = TerminalScore.loses(position.toMove(), pliesFromRoot);
+                    mate = IntScore.loses(position.toMove(), pliesFromRoot);
                     break;
                 default:
                     throw new RuntimeException("Illegal Outcome " + outcome);
                 }
-                return new Decision<P>(new ArrayList<Move<P>>(), mate);
+                if (cacheable) {
+                    table.store(key, pliesRemaining, TranspositionTable.Bound.EXACT, mate,
+                                pliesFromRoot, SearchBoard.NO_MOVE);
+                }
+                return mate;
             }
-            final boolean isMaxStep = position.toMove() == Player.MAXIMIZER;
+            if (cacheable) {
+                TranspositionTable.Bound bound;
+                if (bestScore <= alphaBefore) {
+                    bound = TranspositionTable.Bound.UPPER;
+                } else if (bestScore >= betaBefore) {
+                    bound = TranspositionTable.Bound.LOWER;
+                } else {
+                    bound = TranspositionTable.Bound.EXACT;
+                }
+                table.store(key, pliesRemaining, bound, bestScore, pliesFromRoot, bestMove);
+            }
+            return bestScore;
+        } else {
+            pvLengths[pliesFromRoot] = 0;
+            return score;
+        }
+    }
 
+    /**
+     * Try passing, and return whether the player to move would still
+     * do well enough that the other player would avoid the Position.
+     * If so, the Position can be cut off.  Otherwise, it must be
+     * searched.
+     * @param score The Heuristic value of the Position, or UNEVALUATED.
+     */
+    private boolean isNullMoveCutoff(SearchBoard<P> board, int pliesFromRoot, int maxPlies, int alpha,
+                                     int beta, int score, boolean isMaxStep) {
+        // The other player's bound; passing must reach it.
+        int bound = isMaxStep ? beta : alpha;
+        // Don't trust a pass to find mates, and don't bother if the
+        // Position doesn't even look good enough.
+        if (IntScore.isMate(bound) || !(board instanceof NullMoveBoard)) {
+            return false;
+        }
+        NullMoveBoard<P> passingBoard = (NullMoveBoard<P>) board;
+        if (!passingBoard.canMakeNullMove()) {
+            return false;
+        }
+        if (score == UNEVALUATED) {
+            score = heuristic.value(board.position());
+        }
+        if (isBetter(bound, score, isMaxStep)) {
+            return false;
+        }
+        passingBoard.makeNullMove();
+        int reply = nullWindowSearch(board, pliesFromRoot + 1, maxPlies - NULL_MOVE_REDUCTION, bound,
+                                     !isMaxStep, score, true);
+        board.unmakeMove();
+        return !IntScore.isMate(reply) && !isBetter(bound, reply, isMaxStep);
+    }
 
-            // We'll never actually return null:
-            // bestDecision is ALWAYS set in the legalMoves loop.
-            // (since we've gotten this far, legalMoves.size() >= 1.)
-            Decision<P> bestDecision = null;
-            boolean seenAny = false;
-            P possibleResult;
-            List<Move<P>> variation = new ArrayList<Move<P>>();
-            for (Move<P> t : moves) {
-                // Get the result, so we can do alphaBeta recursively.
-                possibleResult = t.result(position);
-
-                // Get the best decision from this possible result...
-                Decision<P> nextDecision = alphaBeta(possibleResult, pliesFromRoot + 1, maxPlies, alpha, beta, score);
-                if (!seenAny || Decision.isNewBest(nextDecision, bestDecision, isMaxStep)) {
-                    seenAny = true;
-                    variation = new ArrayList<Move<P>>();
-                    variation.add(t);
-                    variation.addAll(nextDecision.getVariation());
-                    bestDecision = new Decision<P>(variation, nextDecision.getScore());
-                }
+    /**
+     * Search with a null window beside a score, which only asks whether
+     * the true score is beyond it.
+     * @param bound The int score to compare to.
+     * @param above Whether to ask if the true score is above the bound,
+     *      rather than below it.
+     */
+    private int nullWindowSearch(SearchBoard<P> board, int pliesFromRoot, int maxPlies, int bound,
+                                 boolean above, int parentScore, boolean afterNullMove) {
+        if (above) {
+            return alphaBeta(board, pliesFromRoot, maxPlies, bound, bound + 1, parentScore, afterNullMove);
+        } else {
+            return alphaBeta(board, pliesFromRoot, maxPlies, bound - 1, bound, parentScore, afterNullMove);
+        }
+    }
 
-                // update alpha and beta
-                if (isMaxStep && bestDecision.getScore().greaterThan(alpha)) {
-                    alpha = bestDecision.getScore();
-                } else if (!isMaxStep && bestDecision.getScore().lessThan(beta)) {
-                    beta = bestDecision.getScore();
-                }
+    /** Return whether one int score is better than another for some player. */
+    private static boolean isBetter(int score, int than, boolean isMaxStep) {
+        return isMaxStep ? score > than : score < than;
+    }
 
-                // ...and terminate if alpha-beta condition is satisfied.
-                if (!alpha.lessThan(beta)) {
-                    break;
-                }
+    /**
+     * Search only the tactical Moves from the board's Position, until
+     * the Position is quiet.  The player to move may stand pat instead.
+     * Moves that the MoveOrderer defers, like captures that lose
+     * material, aren't searched.  Neither are quiet escapes from check,
+     * so a quiescence search can miss checkmates.
+     */
+    private int quiesce(SearchBoard<P> board, int pliesFromRoot, int alpha, int beta) {
+        nodeCount++;
+        if (budget != null && !budget.spendNode()) {
+            throw new SearchAbortedException();
+        }
+        ensurePlies(pliesFromRoot + 2);
+        pvLengths[pliesFromRoot] = 0;
+        P position = board.position();
+        final boolean isMaxStep = position.toMove() == Player.MAXIMIZER;
+        int standPat = heuristic.value(position);
+        int bestScore = standPat;
+        if (isMaxStep) {
+            if (standPat >= beta) {
+                return standPat;
+            } else if (standPat > alpha) {
+                alpha = standPat;
             }
-            return bestDecision;
         } else {
-            return new Decision<P>(new ArrayList<Move<P>>(), score);
+            if (standPat <= alpha) {
+                return standPat;
+            } else if (standPat < beta) {
+                beta = standPat;
+            }
+        }
+
+        MoveList moves = batchMoves[pliesFromRoot];
+        moves.clear();
+        board.tacticalMoves(moves);
+        int tryNow = orderer.order(moves, position, SearchBoard.NO_MOVE, pliesFromRoot);
+        for (int i = 0; i < tryNow; i++) {
+            int t = moves.get(i);
+            if (gains != null && isFutile(standPat, gains.maxGain(t, position), isMaxStep ? alpha : beta,
+                                          isMaxStep)) {
+                continue;
+            }
+            if (!board.makeMove(t)) {
+                // Illegal.
+                continue;
+            }
+            int nextScore = quiesce(board, pliesFromRoot + 1, alpha, beta);
+            board.unmakeMove();
+            if (isBetter(nextScore, bestScore, isMaxStep)) {
+                bestScore = nextScore;
+                extendVariation(pliesFromRoot, t);
+            }
+
+            if (isMaxStep && bestScore > alpha) {
+                alpha = bestScore;
+            } else if (!isMaxStep && bestScore < beta) {
+                beta = bestScore;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Return whether a tactical Move can't reach a bound, even if it
+     * gains as much as it possibly could.
+     * @param standPat The value of the Position before the Move.
+     * @param maxGain The most the Move could gain for its mover.
+     * @param bound The score the mover must beat: alpha for the
+     *      maximizer, beta for the minimizer.
+     */
+    private static boolean isFutile(int standPat, int maxGain, int bound, boolean isMaxStep) {
+        if (isMaxStep) {
+            return standPat + maxGain < bound;
+        } else {
+            return standPat - maxGain > bound;
+        }
+    }
+
+    /**
+     * Return whether a cached result settles the Position's score, so
+     * that it needn't be searched.
+     * @param bound What the cached score says about the true score.
+     * @param cachedScore The cached int score.
+     * @param alpha The int score the maximizer can already force.
+     * @param beta The int score the minimizer can already force.
+     */
+    private static boolean isUsable(TranspositionTable.Bound bound, int cachedScore, int alpha, int beta) {
+        switch (bound) {
+        case EXACT:
+            return true;
+        case LOWER:
+            // The true score is at least beta, so the minimizer avoids this Position.
+            return cachedScore >= beta;
+        case UPPER:
+            // The true score is at most alpha, so the maximizer avoids this Position.
+            return cachedScore <= alpha;
+        default:
+            throw new RuntimeException("Illegal Bound " + bound);
+        }
+    }
+
+    /**
+     * Make a node's variation its best Move, followed by the variation
+     * of the node that Move leads to.
+     * @param pliesFromRoot How far the node is from the root.
+     * @param move The node's best packed Move.
+     */
+    private void extendVariation(int pliesFromRoot, int move) {
+        int[] row = pv[pliesFromRoot];
+        int childLength = pvLengths[pliesFromRoot + 1];
+        row[0] = move;
+        System.arraycopy(pv[pliesFromRoot + 1], 0, row, 1, childLength);
+        pvLengths[pliesFromRoot] = childLength + 1;
+    }
+
+    /**
+     * Make sure there are MoveLists and principal variation rows for
+     * some number of plies from the root.
+     */
+    private void ensurePlies(int plies) {
+        if (plies <= batchMoves.length) {
+            return;
+        }
+        int oldPlies = batchMoves.length;
+        int newPlies = Math.max(plies, Math.max(INITIAL_PLIES, 2 * oldPlies));
+        batchMoves = Arrays.copyOf(batchMoves, newPlies);
+        deferredMoves = Arrays.copyOf(deferredMoves, newPlies);
+        pvLengths = Arrays.copyOf(pvLengths, newPlies);
+        pv = Arrays.copyOf(pv, newPlies);
+        for (int ply = 0; ply < newPlies; ply++) {
+            // Rows above the new plies may hold variations mid-search.
+            pv[ply] = ply < oldPlies ? Arrays.copyOf(pv[ply], newPlies - ply) : new int[newPlies - ply];
+        }
+        for (int ply = oldPlies; ply < newPlies; ply++) {
+            batchMoves[ply] = new MoveList();
+            deferredMoves[ply] = new MoveList();
         }
     }
 
@@ -98,11 +675,13 @@ public class AlphaBeta<P extends Position<P>> implements Decider<P>{
      * until the drastic moves stop coming.  At that point, the dust has settled, and
      * there's a better chance that the Position's score is an accurate representation
      * of the Position's value.
+     * Quiescence search (see setQuiescence) replaces this.
      *
      * @param score The Position's current score.
      * @param parentScore The score of the Position that led to this one.
      */
-    private static boolean shouldExtend(EstimatedScore score, EstimatedScore parentScore) {
-        return Math.abs(score.getValue() - parentScore.getValue()) > EXTENSION_THRESHOLD;
+    private static boolean shouldExtend(int score, int parentScore) {
+        assert score != UNEVALUATED && parentScore != UNEVALUATED;
+        return Math.abs(score - parentScore) > EXTENSION_THRESHOLD;
     }
 }
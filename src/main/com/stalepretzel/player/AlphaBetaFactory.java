@@ -0,0 +1,14 @@
+package com.stalepretzel.player;
+
+/**
+ * A source of AlphaBetas, for Deciders that run several searches at once.
+ * @param <P> The type of Position the AlphaBetas search.
+ */
+public interface AlphaBetaFactory<P extends Position<P>> {
+    /**
+     * Create a new AlphaBeta.  AlphaBetas are not thread-safe, so
+     * each one must have its own MoveOrderer, and anything else
+     * stateful, except for a TranspositionTable.
+     */
+    public AlphaBeta<P> alphaBeta();
+}
@@ -0,0 +1,35 @@
+package com.stalepretzel.player;
+
+/**
+ * A Heuristic that remembers the values another Heuristic gave, keyed
+ * by Position.hashKey().  It only pays for expensive Heuristics.
+ *
+ * @param <P> The type of positions this Heuristic will evaluate.
+ */
+public class CachingHeuristic<P extends Position<P>> extends LossyIntTable implements Heuristic<P> {
+
+    private final Heuristic<P> heuristic;
+
+    /** Create a CachingHeuristic that uses about some positive number of megabytes. */
+    public CachingHeuristic(Heuristic<P> heuristic, int megabytes) {
+        super(megabytes);
+        this.heuristic = heuristic;
+    }
+
+    /** Get the Heuristic whose values are cached. */
+    public Heuristic<P> getHeuristic() {
+        return heuristic;
+    }
+
+    @Override
+    public int value(P position) {
+        long key = position.hashKey();
+        long cached = find(key);
+        if (cached != MISSING) {
+            return (int) cached;
+        }
+        int value = heuristic.value(position);
+        store(key, value);
+        return value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.stalepretzel.player;
+
+/**
+ * Estimates how much a tactical Move can gain, for delta pruning.
+ *
+ * A quiescence search may skip a capture that can't raise the score
+ * enough to matter, even if the captured piece were won for free.
+ * That needs an upper bound on the gain, in centipawns, as the
+ * search's Heuristic scores, which only something that knows the game
+ * can give.
+ *
+ * @param <P> The type of Position whose Moves are estimated.
+ */
+public interface GainEstimator<P extends Position<P>> {
+    /**
+     * Get the most that making a packed tactical Move could change the
+     * score in its mover's favor, with a margin for positional
+     * changes.  It should never be an underestimate, or the search
+     * will miss good Moves.
+     * @param move One of the position's tactical Moves.
+     * @param position The position the Move would be made from.
+     */
+    public int maxGain(int move, P position);
+}
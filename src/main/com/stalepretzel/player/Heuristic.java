@@ -13,10 +13,14 @@ package com.stalepretzel.player;
  * consider features like king safety, central dominance, pawn
  * structure, etc.
  *
+ * Values are int scores (see IntScore): centipawns, positive when the
+ * maximizer is favored.  They must stay within IntScore.MAX_ESTIMATE
+ * of 0, so that they can't be mistaken for mates.
+ *
  * @param <P> The type of positions this Heuristic will evaluate.
  */
 public interface Heuristic<P extends Position<P>> {
     // TODO: Figure out a legal alternative to making this a static method.
-    /** Evaluate the position according to this Heuristic. */
-    public EstimatedScore value(P position);
+    /** Evaluate the position according to this Heuristic, in centipawns. */
+    public int value(P position);
 }
@@ -0,0 +1,95 @@
+package com.stalepretzel.player;
+
+/**
+ * Scores packed into plain ints, as searches use them internally.
+ * Searches convert to and from Scores only where Decisions are returned.
+ *
+ * Estimates are in centipawns, within MAX_ESTIMATE of 0.  A win for the
+ * maximizer some plies from the root is MATE minus the plies, a loss
+ * its negation, and a draw 0, so ints compare as TerminalScores do.
+ */
+public final class IntScore {
+
+    /** The score of a win for the maximizer at the root. */
+    public static final int MATE = 1 << 30;
+    /** Higher than any score a search can return. */
+    public static final int HIGHEST = MATE;
+    /** Lower than any score a search can return. */
+    public static final int LOWEST = -MATE;
+    /** The score of a draw. */
+    public static final int DRAW = 0;
+    /** The farthest from the root a mate can be. */
+    public static final int MAX_MATE_PLIES = 1 << 16;
+    /** The largest magnitude an estimated score can have. */
+    public static final int MAX_ESTIMATE = MATE - MAX_MATE_PLIES - 1;
+    /** How many of an int score's units there are in an EstimatedScore's. */
+    public static final int CENTIPAWNS_PER_PAWN = 100;
+
+    // Static utility class.
+    private IntScore() {
+    }
+
+    /** Get the score of a win for some player, some plies from the root. */
+    public static int wins(Player winner, int pliesFromRoot) {
+        int win = MATE - pliesFromRoot;
+        return winner == Player.MAXIMIZER ? win : -win;
+    }
+
+    /** Get the score of a loss for some player, some plies from the root. */
+    public static int loses(Player loser, int pliesFromRoot) {
+        return -wins(loser, pliesFromRoot);
+    }
+
+    /** Return whether a score is a win or loss, rather than an estimate or a draw. */
+    public static boolean isMate(int score) {
+        return score > MAX_ESTIMATE || score < -MAX_ESTIMATE;
+    }
+
+    /**
+     * Get a score as seen some plies further from the root (or nearer,
+     * for negative plies).  Only mates change.
+     */
+    public static int plusPlies(int score, int plies) {
+        if (score > MAX_ESTIMATE) {
+            return score - plies;
+        } else if (score < -MAX_ESTIMATE) {
+            return score + plies;
+        }
+        return score;
+    }
+
+    /** Convert an estimate in pawns to centipawns, clamped to MAX_ESTIMATE. */
+    public static int fromPawns(float pawns) {
+        // Math.round saturates, rather than overflowing.
+        int centipawns = Math.round(pawns * CENTIPAWNS_PER_PAWN);
+        return Math.max(-MAX_ESTIMATE, Math.min(MAX_ESTIMATE, centipawns));
+    }
+
+    /** Convert a Score to an int score. */
+    public static int fromScore(Score score) {
+        if (score instanceof TerminalScore) {
+            TerminalScore terminal = (TerminalScore) score;
+            float value = terminal.getValue();
+            if (value > 0) {
+                return wins(Player.MAXIMIZER, terminal.getPliesUntilEnd());
+            } else if (value < 0) {
+                return wins(Player.MINIMIZER, terminal.getPliesUntilEnd());
+            }
+            return DRAW;
+        }
+        return fromPawns(score.getValue());
+    }
+
+    /**
+     * Convert an int score to a Score.  Draws become even
+     * EstimatedScores, since an int score doesn't tell them apart.
+     */
+    public static Score toScore(int score) {
+        if (score > MAX_ESTIMATE) {
+            return TerminalScore.wins(Player.MAXIMIZER, MATE - score);
+        } else if (score < -MAX_ESTIMATE) {
+            return TerminalScore.wins(Player.MINIMIZER, MATE + score);
+        }
+        return new EstimatedScore((float) score / CENTIPAWNS_PER_PAWN);
+    }
+}
@@ -0,0 +1,117 @@
+package com.stalepretzel.player;
+
+/**
+ * A Decider that searches ever deeper until its SearchBudget runs out.
+ *
+ * A fixed-depth search takes wildly different amounts of time in quiet
+ * and tactical positions.  IterativeDeepening instead runs an AlphaBeta
+ * search to depth 1, then 2, then 3, and so on, and returns the
+ * Decision of the deepest search that finished within budget.
+ *
+ * The shallow searches are cheap compared to the deepest one, and, if
+ * the AlphaBeta has a TranspositionTable, each search tries the best
+ * Moves found by the one before it first, which speeds it up.  All the
+ * searches for one Decision are a single search of the table, so the
+ * deep results of one depth aren't replaced by shallow ones of the
+ * next.
+ *
+ * The depth-1 search always runs to completion, ignoring the budget,
+ * so that there is always a Decision to return.
+ *
+ * Each search's score is usually close to the last one's.  So, with an
+ * aspiration window, each search after the first only looks for
+ * scores near the last score, which cuts off more.  If the score
+ * turns out to be outside the window, the search is run again, with
+ * no window.
+ *
+ * @param <P> The type of positions that will be analyzed.
+ */
+public class IterativeDeepening<P extends Position<P>> implements Decider<P> {
+
+    private final AlphaBeta<P> search;
+    private final SearchBudget budget;
+    // Zero if there is no aspiration window.
+    private float aspirationWindow;
+    private int completedDepth;
+    private int aspirationFailures;
+
+    /**
+     * Create an IterativeDeepening Decider.
+     * @param search The search to run at each depth.
+     * @param budget The budget for each Decision.  It is restarted
+     *      by every call to bestDecision.
+     */
+    public IterativeDeepening(AlphaBeta<P> search, SearchBudget budget) {
+        this.search = search;
+        this.budget = budget;
+    }
+
+    /**
+     * Search each depth with an aspiration window around the last depth's score.
+     * @param aspirationWindow How far the window reaches on either side, in
+     *      pawns (EstimatedScore units), or zero for none, the default.
+     */
+    public IterativeDeepening<P> setAspirationWindow(float aspirationWindow) {
+        if (aspirationWindow < 0) {
+            throw new IllegalArgumentException("Aspiration window must not be negative: "
+                                               + aspirationWindow);
+        }
+        this.aspirationWindow = aspirationWindow;
+        return this;
+    }
+
+    /**
+     * Get the best Decision found within budget.
+     * @param depth The greatest depth to search, in plies.  The search
+     *      stops there, even if there's budget left.
+     */
+    @Override
+    public Decision<P> bestDecision(P position, int depth) {
+        budget.start();
+        search.newSearch();
+        Decision<P> decision = search.search(position, 1, null);
+        completedDepth = 1;
+        aspirationFailures = 0;
+        for (int nextDepth = 2; nextDepth <= depth && !budget.isExhausted(); nextDepth++) {
+            try {
+                decision = aspire(position, nextDepth, decision.getScore());
+            } catch (SearchAbortedException e) {
+                break;
+            }
+            completedDepth = nextDepth;
+        }
+        return decision;
+    }
+
+    /**
+     * Search to some depth, within the aspiration window around the
+     * last depth's score, if there is one.
+     * @throws SearchAbortedException If the budget runs out first.
+     */
+    private Decision<P> aspire(P position, int depth, Score lastScore) {
+        // Windows around TerminalScores make no sense.
+        if (aspirationWindow > 0 && lastScore instanceof EstimatedScore) {
+            Score alpha = new EstimatedScore(lastScore.getValue() - aspirationWindow);
+            Score beta = new EstimatedScore(lastScore.getValue() + aspirationWindow);
+            Decision<P> decision = search.search(position, depth, budget, alpha, beta);
+            if (decision.getScore().greaterThan(alpha) && decision.getScore().lessThan(beta)) {
+                return decision;
+            }
+            aspirationFailures++;
+        }
+        return search.search(position, depth, budget);
+    }
+
+    /** Get the depth of the search that produced the last Decision. */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Get the number of searches for the last Decision whose score fell
+     * outside the aspiration window, and so had to be run again.
+     */
+    public int getAspirationFailures() {
+        return aspirationFailures;
+    }
+}
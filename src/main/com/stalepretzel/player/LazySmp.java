@@ -0,0 +1,173 @@
+package com.stalepretzel.player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A Decider that searches with several threads at once, in the style
+ * known as Lazy SMP.
+ *
+ * Every thread runs its own iteratively deepening AlphaBeta search of
+ * the same Position, and they cooperate only through a shared
+ * TranspositionTable.  Every other helper searches a ply deeper.  The
+ * main thread's Decision is returned, and may vary from run to run.
+ *
+ * @param <P> The type of positions that will be analyzed.
+ */
+public class LazySmp<P extends Position<P>> implements Decider<P> {
+
+    // The threads of the helper pool are named after this.
+    private static final String THREAD_NAME = "LazySmp helper";
+
+    // searches.get(0) is the main thread's.  The rest are helpers'.
+    private final List<AlphaBeta<P>> searches;
+    private final TranspositionTable table;
+    // Null if there are no helpers.
+    private final ExecutorService helpers;
+    // The nodes each search visited, across its iterations.
+    private final long[] nodeCounts;
+
+    /**
+     * Create a LazySmp Decider.
+     * @param factory Creates each thread's AlphaBeta.  Any
+     *      TranspositionTable they have is replaced with the shared one.
+     * @param table The table all threads share.  Must not be null.
+     * @param threads The number of threads to search with, counting
+     *      the main thread.  Must be positive.
+     */
+    public LazySmp(AlphaBetaFactory<P> factory, TranspositionTable table, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        if (table == null) {
+            throw new IllegalArgumentException("Lazy SMP needs a shared table.");
+        }
+        this.table = table;
+        searches = new ArrayList<AlphaBeta<P>>();
+        for (int i = 0; i < threads; i++) {
+            searches.add(factory.alphaBeta().setTranspositionTable(table));
+        }
+        nodeCounts = new long[threads];
+        if (threads > 1) {
+            helpers = Executors.newFixedThreadPool(threads - 1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, THREAD_NAME);
+                    // Idle helpers shouldn't keep the JVM alive.
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        } else {
+            helpers = null;
+        }
+    }
+
+    /** Get the number of threads that search, counting the main thread. */
+    public int getThreadCount() {
+        return searches.size();
+    }
+
+    /**
+     * Get the number of nodes the last Decision's search visited,
+     * counting every iteration of every thread.
+     */
+    public long getNodeCount() {
+        long total = 0;
+        for (long nodes : nodeCounts) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    @Override
+    public Decision<P> bestDecision(P position, int depth) {
+        table.newSearch();
+        List<SearchBudget> budgets = new ArrayList<SearchBudget>();
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int helper = 1; helper < searches.size(); helper++) {
+            // The budget is only there so that the helper can be stopped.
+            SearchBudget budget = new SearchBudget(SearchBudget.UNLIMITED, SearchBudget.UNLIMITED);
+            budgets.add(budget);
+            futures.add(helpers.submit(helperSearch(helper, position, depth, budget)));
+        }
+
+        try {
+            AlphaBeta<P> main = searches.get(0);
+            nodeCounts[0] = 0;
+            Decision<P> decision = null;
+            for (int iteration = 1; iteration <= depth; iteration++) {
+                decision = main.search(position, iteration, null);
+                nodeCounts[0] += main.getNodeCount();
+            }
+            return decision;
+        } finally {
+            for (SearchBudget budget : budgets) {
+                budget.exhaust();
+            }
+            awaitHelpers(futures);
+        }
+    }
+
+    /**
+     * Create the task that a helper runs.
+     * @param helper The helper's index in searches.
+     * @param budget The budget the helper spends, until the main
+     *      thread exhausts it.
+     */
+    private Runnable helperSearch(final int helper, final P position, final int depth,
+                                  final SearchBudget budget) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                AlphaBeta<P> search = searches.get(helper);
+                nodeCounts[helper] = 0;
+                int extraPlies = helper % 2;
+                for (int iteration = 1; iteration <= depth; iteration++) {
+                    try {
+                        search.search(position, iteration + extraPlies, budget);
+                    } catch (SearchAbortedException e) {
+                        return;
+                    } finally {
+                        nodeCounts[helper] += search.getNodeCount();
+                    }
+                }
+            }
+        };
+    }
+
+    /** Wait for stopped helpers to finish, and rethrow anything they threw. */
+    private static void awaitHelpers(List<Future<?>> futures) {
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // Keep waiting: the helpers still use the table.
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("A helper search failed.", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop the helper threads.  This LazySmp must not be used again.
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.stalepretzel.player;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lossy table of int values, keyed by 64-bit hash keys.
+ * Each entry is one long, a tag from the key's high half plus the
+ * value, so threads may share a table without locking.
+ */
+public class LossyIntTable {
+
+    /** What find() returns for a key with no entry.  It's no int. */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private static final int BYTES_PER_ENTRY = 8;
+    private static final int BYTES_PER_MEGABYTE = 1 << 20;
+    private static final long TAG_MASK = 0xFFFFFFFF00000000L;
+    private static final long VALUE_MASK = 0x00000000FFFFFFFFL;
+    // Set in every tag.
+    private static final long TAG_BIT = 1L << 32;
+
+    private final AtomicLongArray entries;
+    private final int indexMask;
+    private boolean counting = false;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Create a LossyIntTable that uses about some positive number of megabytes. */
+    public LossyIntTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + megabytes);
+        }
+        long budget = (long) megabytes * BYTES_PER_MEGABYTE;
+        // Keep the entry count a legal array size.
+        long capacity = Math.min(Long.highestOneBit(budget / BYTES_PER_ENTRY), 1 << 30);
+        entries = new AtomicLongArray((int) capacity);
+        indexMask = (int) capacity - 1;
+    }
+
+    /** Get the number of entries this table can hold. */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /** Count hits and misses, or stop counting them.  It's off by default. */
+    public LossyIntTable setCounting(boolean counting) {
+        this.counting = counting;
+        return this;
+    }
+
+    /** Get the tag that checks a key's entry. */
+    private static long tag(long key) {
+        return (key & TAG_MASK) | TAG_BIT;
+    }
+
+    /** Find the value stored for a key, or return MISSING. */
+    public long find(long key) {
+        long entry = entries.get((int) key & indexMask);
+        boolean hit = (entry & TAG_MASK) == tag(key);
+        if (counting) {
+            (hit ? hits : misses).incrementAndGet();
+        }
+        return hit ? (int) entry : MISSING;
+    }
+
+    /** Store a key's value, replacing whatever its entry held. */
+    public void store(long key, int value) {
+        // Nobody waits on the store, so it needn't be a volatile write.
+        entries.lazySet((int) key & indexMask, tag(key) | (value & VALUE_MASK));
+    }
+
+    /** Get the number of lookups that found their key, while counting. */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** Get the number of lookups that didn't find their key, while counting. */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Get the fraction of counted lookups that hit, or 0 if there have been none. */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /** Reset the hit and miss counts to 0. */
+    public void resetCounts() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /** Remove all entries. */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0L);
+        }
+    }
+}
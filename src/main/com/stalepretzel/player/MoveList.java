@@ -0,0 +1,80 @@
+package com.stalepretzel.player;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of packed Moves, as SearchBoards encode them.
+ *
+ * A search keeps one MoveList per ply, per batch of Moves, and clears
+ * and refills it at every node.  After the first few nodes, the lists
+ * are big enough, so generating Moves allocates nothing.
+ */
+public final class MoveList {
+
+    // Enough for all the Moves of almost any chess position.
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] moves;
+    private int size;
+
+    /** Create an empty MoveList. */
+    public MoveList() {
+        moves = new int[INITIAL_CAPACITY];
+    }
+
+    /** Get the number of Moves in this list. */
+    public int size() {
+        return size;
+    }
+
+    /** Get the Move at some index, in [0, size()). */
+    public int get(int index) {
+        checkIndex(index);
+        return moves[index];
+    }
+
+    /** Replace the Move at some index, in [0, size()). */
+    public void set(int index, int move) {
+        checkIndex(index);
+        moves[index] = move;
+    }
+
+    /** Add a Move to the end of this list. */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * size);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Remove the Move at some index, in [0, size()).
+     * The Moves after it each move down one index.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        System.arraycopy(moves, index + 1, moves, index, size - index - 1);
+        size--;
+    }
+
+    /** Get the index of the first occurrence of a Move, or -1 if there is none. */
+    public int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Remove all Moves. */
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+    }
+}
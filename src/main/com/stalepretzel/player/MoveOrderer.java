@@ -0,0 +1,49 @@
+package com.stalepretzel.player;
+
+/**
+ * Decides the order in which a search tries Moves.
+ *
+ * Alpha-beta search prunes the most when it tries the best Move
+ * first.  A MoveOrderer guesses which Moves are best, usually with
+ * game-specific knowledge (e.g. "try captures first"), and learns from
+ * the Moves that turn out to cause cutoffs.
+ *
+ * Moves are packed as the search's SearchBoards pack them, so a
+ * game-specific MoveOrderer must match the game's SearchBoard.
+ *
+ * MoveOrderers keep state from node to node, so each search must use
+ * its own.
+ *
+ * @param <P> The type of Position whose Moves are ordered.
+ */
+public interface MoveOrderer<P extends Position<P>> {
+    /** Forget anything specific to the previous search, because a new one is starting. */
+    public void newSearch();
+
+    /**
+     * Sort packed Moves, in place, so that the most promising Moves come first.
+     *
+     * The Moves are one stage of a SearchBoard's candidates.  Some of
+     * them might be less promising than the next stage's Moves (e.g.
+     * captures that lose material, compared to quiet moves), so only
+     * a prefix of the sorted Moves is tried right away.  The rest are
+     * deferred until after the last stage.
+     *
+     * @param moves The Moves to sort.
+     * @param position The Position the Moves are made from.
+     * @param hashMove The best Move from an earlier search of the
+     *      Position, or SearchBoard.NO_MOVE if there is none.
+     * @param pliesFromRoot How far the Position is from the search's root.
+     * @return The number of sorted Moves to try before the next stage.
+     */
+    public int order(MoveList moves, P position, int hashMove, int pliesFromRoot);
+
+    /**
+     * Note that a packed Move was good enough to cut off the search of its siblings.
+     * @param move The Move.
+     * @param position The Position the Move was made from.
+     * @param pliesFromRoot How far the Position is from the search's root.
+     * @param pliesRemaining How many more plies the Position was to be searched.
+     */
+    public void cutoff(int move, P position, int pliesFromRoot, int pliesRemaining);
+}
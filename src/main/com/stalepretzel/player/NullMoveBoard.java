@@ -0,0 +1,30 @@
+package com.stalepretzel.player;
+
+/**
+ * A SearchBoard on which the player to move may pass, for null-move
+ * pruning.  (See AlphaBeta.setNullMovePruning.)  Boards that can't
+ * pass, such as PositionStacks, don't implement it, and are searched
+ * without null-move pruning.
+ *
+ * @param <P> The type of Position this board represents.
+ */
+public interface NullMoveBoard<P extends Position<P>> extends SearchBoard<P> {
+
+    /**
+     * Return whether the player to move may pass, by making a null
+     * move.  Passing is illegal in most games, but a search can pass
+     * to learn whether the Position is so good that even passing
+     * would keep it good enough (null-move pruning).  That reasoning
+     * fails when the player is in check, or when every Move would make
+     * things worse (zugzwang), so this should return false when either
+     * is likely.
+     */
+    public boolean canMakeNullMove();
+
+    /**
+     * Pass, leaving the other player to move.  Like other Moves, a
+     * null move is undone by unmakeMove.  Only call this if
+     * canMakeNullMove returns true.
+     */
+    public void makeNullMove();
+}
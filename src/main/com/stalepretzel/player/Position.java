@@ -30,4 +30,12 @@ public interface Position<P extends Position<P>> {
 
     /** Return the Player whose move it is.*/
     public Player toMove();
+
+    /**
+     * Return a 64-bit hash of this Position.
+     * Equal Positions must have equal hash keys, and unequal
+     * Positions should almost never collide.  Searches use
+     * the key to index TranspositionTables.
+     */
+    public long hashKey();
 }
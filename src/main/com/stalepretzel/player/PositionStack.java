@@ -0,0 +1,138 @@
+package com.stalepretzel.player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A SearchBoard for any type of Position, built on immutable Positions.
+ *
+ * Making a Move pushes the Move's result onto a stack of Positions,
+ * and unmaking it pops the result back off.  This works for any
+ * Position, but it creates a new Position per Move made.  Games with
+ * a mutable board of their own should provide a more efficient
+ * SearchBoard.
+ *
+ * Since nothing is known about the game's Moves, a Move is packed as
+ * an id, assigned the first time the Move is seen.  PositionStacks
+ * from the same factory share their ids, even across threads.
+ *
+ * @param <P> The type of Position this board represents.
+ */
+public class PositionStack<P extends Position<P>> implements SearchBoard<P> {
+
+    private final List<P> positions;
+    private final MoveIds<P> ids;
+
+    /** Create a PositionStack whose current Position is some Position. */
+    public PositionStack(P position) {
+        this(position, new MoveIds<P>());
+    }
+
+    private PositionStack(P position, MoveIds<P> ids) {
+        positions = new ArrayList<P>();
+        positions.add(position);
+        this.ids = ids;
+    }
+
+    /** Return a SearchBoardFactory that creates PositionStacks. */
+    public static <P extends Position<P>> SearchBoardFactory<P> factory() {
+        final MoveIds<P> ids = new MoveIds<P>();
+        return new SearchBoardFactory<P>() {
+            @Override
+            public SearchBoard<P> searchBoard(P position) {
+                return new PositionStack<P>(position, ids);
+            }
+        };
+    }
+
+    @Override
+    public P position() {
+        return positions.get(positions.size() - 1);
+    }
+
+    @Override
+    public int stageCount() {
+        return 1;
+    }
+
+    @Override
+    public void candidateMoves(int stage, MoveList moves) {
+        // Positions only produce legal moves, so makeMove never rejects one.
+        for (Move<P> move : position().moves()) {
+            moves.add(ids.idOf(move));
+        }
+    }
+
+    @Override
+    public void tacticalMoves(MoveList moves) {
+        // Nothing is known about the game, so no Move is tactical.
+    }
+
+    @Override
+    public boolean isTactical(int move) {
+        return false;
+    }
+
+    @Override
+    public boolean isInCheck() {
+        return false;
+    }
+
+    @Override
+    public boolean isCandidate(int move) {
+        // Checking would mean generating every Move twice.
+        return false;
+    }
+
+    @Override
+    public boolean makeMove(int move) {
+        positions.add(ids.moveOf(move).result(position()));
+        return true;
+    }
+
+    @Override
+    public void unmakeMove() {
+        if (positions.size() == 1) {
+            throw new IllegalStateException("There is no Move to unmake.");
+        }
+        positions.remove(positions.size() - 1);
+    }
+
+    @Override
+    public Move<P> toMove(int move) {
+        return ids.moveOf(move);
+    }
+
+    @Override
+    public int fromMove(Move<P> move) {
+        return ids.idOf(move);
+    }
+
+    /**
+     * Assigns each distinct Move an id, counting up from 1.
+     * Parallel searches share a factory, so access is synchronized.
+     */
+    private static class MoveIds<P extends Position<P>> {
+        // moves.get(id - 1) has the id.
+        private final List<Move<P>> moves = new ArrayList<Move<P>>();
+        private final Map<Move<P>, Integer> ids = new HashMap<Move<P>, Integer>();
+
+        /** Get a Move's id, assigning it one if it has none yet. */
+        synchronized int idOf(Move<P> move) {
+            Integer id = ids.get(move);
+            if (id == null) {
+                moves.add(move);
+                id = moves.size();
+                ids.put(move, id);
+            }
+            return id;
+        }
+
+        /** Get the Move with some id. */
+        synchronized Move<P> moveOf(int id) {
+            return moves.get(id - 1);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.stalepretzel.player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Decider that splits the search between threads at the nodes of
+ * the principal variation, after their first Move has been searched.
+ *
+ * Splitting only at the root (as RootSplit does) wastes work when the
+ * first root Move is the best, which, with good move ordering, it
+ * usually is: every other Move is searched before that Move's score
+ * can help rule them out.  Instead, PvSplit follows the "Young
+ * Brothers Wait" rule.  At each node of the principal variation, the
+ * first Move (the eldest brother) is searched alone, recursively,
+ * and only then are the remaining Moves (the young brothers) searched
+ * in parallel, all of them trying to beat the eldest's score.  The
+ * young brothers are searched with the worker threads' AlphaBetas,
+ * on a work-stealing ForkJoinPool.  (See SiblingSearch.)
+ *
+ * PvSplit deepens iteratively, and takes each node's eldest brother
+ * from the principal variation of the search one ply shallower.  The
+ * workers share a TranspositionTable, if there is one.  Which results
+ * each worker finds there depends on timing, so Decisions may vary
+ * from run to run.
+ *
+ * @param <P> The type of positions that will be analyzed.
+ */
+public class PvSplit<P extends Position<P>> implements Decider<P> {
+
+    // Nodes with fewer plies left than this are searched serially,
+    // since splitting them costs more than it saves.
+    private static final int MIN_SPLIT_PLIES = 2;
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    // Each worker thread's AlphaBeta.
+    private final ThreadLocal<AlphaBeta<P>> searches;
+    private final AtomicLong nodeCount = new AtomicLong();
+    private final AtomicLong splitCount = new AtomicLong();
+    private long elapsedNanos;
+
+    /**
+     * Create a PvSplit Decider.
+     * @param factory Creates each worker thread's AlphaBeta.  Any
+     *      TranspositionTable they have is replaced with the shared one.
+     * @param table The table all workers share, or null for none.
+     * @param parallelism The number of worker threads.  Must be positive.
+     */
+    public PvSplit(final AlphaBetaFactory<P> factory, final TranspositionTable table, int parallelism) {
+        this.table = table;
+        pool = new ForkJoinPool(parallelism);
+        searches = new ThreadLocal<AlphaBeta<P>>() {
+            @Override
+            protected AlphaBeta<P> initialValue() {
+                return factory.alphaBeta().setTranspositionTable(table);
+            }
+        };
+    }
+
+    /** Get the number of worker threads. */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Get the number of nodes the last Decision's search visited,
+     * counting every iteration.  Nodes on the principal variation
+     * that were split aren't counted.
+     */
+    public long getNodeCount() {
+        return nodeCount.get();
+    }
+
+    /**
+     * Get the number of nodes at which the last Decision's search
+     * split its young brothers between threads.
+     */
+    public long getSplitCount() {
+        return splitCount.get();
+    }
+
+    /**
+     * Get how long the last Decision took, in nanoseconds.  Compared
+     * to a serial search's time, this gives the speedup.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public Decision<P> bestDecision(P position, int depth) {
+        long start = System.nanoTime();
+        nodeCount.set(0);
+        splitCount.set(0);
+        if (table != null) {
+            table.newSearch();
+        }
+        List<Move<P>> principalVariation = Collections.emptyList();
+        Decision<P> decision = null;
+        for (int iteration = 1; iteration <= depth; iteration++) {
+            decision = pool.invoke(new PvNode(position, 0, iteration, principalVariation));
+            principalVariation = decision.getVariation();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return decision;
+    }
+
+    /** Stop the worker threads.  This PvSplit must not be used again. */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /** Searches a node of the principal variation, for its exact score. */
+    private class PvNode extends RecursiveTask<Decision<P>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final P position;
+        private final int pliesFromRoot;
+        private final int maxPlies;
+        // The rest of the last iteration's principal variation, if this
+        // node is on it.  Otherwise, empty.
+        private final List<Move<P>> lastVariation;
+
+        PvNode(P position, int pliesFromRoot, int maxPlies, List<Move<P>> lastVariation) {
+            this.position = position;
+            this.pliesFromRoot = pliesFromRoot;
+            this.maxPlies = maxPlies;
+            this.lastVariation = lastVariation;
+        }
+
+        @Override
+        protected Decision<P> compute() {
+            int pliesRemaining = maxPlies - pliesFromRoot;
+            List<Move<P>> moves = new ArrayList<Move<P>>(position.moves());
+            if (pliesRemaining < MIN_SPLIT_PLIES || moves.isEmpty()) {
+                AlphaBeta<P> search = searches.get();
+                Decision<P> decision = search.search(position, pliesRemaining, null);
+                nodeCount.addAndGet(search.getNodeCount());
+                return new Decision<P>(decision.getVariation(),
+                                       SiblingSearch.plusPlies(decision.getScore(), pliesFromRoot));
+            }
+
+            // The eldest brother comes first...
+            List<Move<P>> eldestVariation = Collections.emptyList();
+            if (!lastVariation.isEmpty() && moves.remove(lastVariation.get(0))) {
+                moves.add(0, lastVariation.get(0));
+                eldestVariation = lastVariation.subList(1, lastVariation.size());
+            }
+            Move<P> eldest = moves.get(0);
+            Decision<P> eldestReply = new PvNode(eldest.result(position), pliesFromRoot + 1, maxPlies,
+                                                 eldestVariation).compute();
+            List<Move<P>> variation = new ArrayList<Move<P>>();
+            variation.add(eldest);
+            variation.addAll(eldestReply.getVariation());
+
+            // ...and the young brothers try to beat it.
+            boolean isMaxStep = position.toMove() == Player.MAXIMIZER;
+            AtomicReference<Score> best = new AtomicReference<Score>(eldestReply.getScore());
+            List<SiblingSearch<P>> youngBrothers = new ArrayList<SiblingSearch<P>>();
+            for (Move<P> move : moves.subList(1, moves.size())) {
+                youngBrothers.add(new SiblingSearch<P>(searches, nodeCount, move, move.result(position),
+                                                       pliesFromRoot + 1, pliesRemaining - 1, isMaxStep,
+                                                       best));
+            }
+            if (!youngBrothers.isEmpty()) {
+                splitCount.incrementAndGet();
+                invokeAll(youngBrothers);
+            }
+
+            List<Decision<P>> decisions = new ArrayList<Decision<P>>();
+            decisions.add(new Decision<P>(variation, eldestReply.getScore()));
+            for (SiblingSearch<P> youngBrother : youngBrothers) {
+                // A bound can tie the best score without its Move doing as well.
+                if (!youngBrother.isBound()) {
+                    decisions.add(youngBrother.getRawResult());
+                }
+            }
+            return Decision.bestScored(decisions, isMaxStep);
+        }
+    }
+}
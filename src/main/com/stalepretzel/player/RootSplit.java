@@ -0,0 +1,189 @@
+package com.stalepretzel.player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Decider that searches the root's Moves in parallel, one task per
+ * Move, on a ForkJoinPool.
+ *
+ * Each task searches the result of its Move with an AlphaBeta of its
+ * worker thread.  The tasks share the best score found so far for
+ * the player to move at the root, and each task searches only for
+ * scores that beat it.  (See SiblingSearch.)  The Move that a search
+ * one ply shallower finds best is searched first, alone, so that the
+ * rest start with a score to beat.
+ *
+ * The workers keep their AlphaBetas from task to task, and share a
+ * TranspositionTable, if there is one.  What a task finds depends on
+ * the best score so far and on the table, and so on timing, but the
+ * merge doesn't: among Moves with the best score, the first in the
+ * order of Position.moves() is chosen, however the tasks finished.
+ *
+ * @param <P> The type of positions that will be analyzed.
+ */
+public class RootSplit<P extends Position<P>> implements Decider<P> {
+
+    private final AlphaBetaFactory<P> factory;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    // Each worker thread's AlphaBeta.
+    private final ThreadLocal<AlphaBeta<P>> searches;
+    private final AtomicLong nodeCount = new AtomicLong();
+
+    /**
+     * Create a RootSplit Decider.
+     * @param factory Creates each worker thread's AlphaBeta.  Any
+     *      TranspositionTable they have is replaced with the shared one.
+     * @param table The table all workers share, or null for none.
+     * @param parallelism The number of worker threads.  Must be positive.
+     */
+    public RootSplit(final AlphaBetaFactory<P> factory, final TranspositionTable table, int parallelism) {
+        this.factory = factory;
+        this.table = table;
+        pool = new ForkJoinPool(parallelism);
+        searches = new ThreadLocal<AlphaBeta<P>>() {
+            @Override
+            protected AlphaBeta<P> initialValue() {
+                return factory.alphaBeta().setTranspositionTable(table);
+            }
+        };
+    }
+
+    /** Get the number of worker threads. */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Get the number of nodes the last Decision's search visited,
+     * counting every task, but not the root.
+     */
+    public long getNodeCount() {
+        return nodeCount.get();
+    }
+
+    @Override
+    public Decision<P> bestDecision(P position, int depth) {
+        nodeCount.set(0);
+        List<Move<P>> moves = new ArrayList<Move<P>>(position.moves());
+        if (moves.isEmpty() || depth <= 0) {
+            // There's nothing to split.
+            AlphaBeta<P> search = factory.alphaBeta().setTranspositionTable(table);
+            Decision<P> decision = search.bestDecision(position, depth);
+            nodeCount.set(search.getNodeCount());
+            return decision;
+        }
+        if (table != null) {
+            table.newSearch();
+        }
+        return pool.invoke(new RootSearch(position, moves, depth));
+    }
+
+    /** Stop the worker threads.  This RootSplit must not be used again. */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /** Searches every root Move, and picks the best. */
+    private class RootSearch extends RecursiveTask<Decision<P>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final P position;
+        private final List<Move<P>> moves;
+        private final int depth;
+
+        RootSearch(P position, List<Move<P>> moves, int depth) {
+            this.position = position;
+            this.moves = moves;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Decision<P> compute() {
+            boolean isMaxStep = position.toMove() == Player.MAXIMIZER;
+            AtomicReference<Score> best = new AtomicReference<Score>();
+            List<SiblingSearch<P>> tasks = new ArrayList<SiblingSearch<P>>();
+            for (Move<P> move : moves) {
+                tasks.add(new SiblingSearch<P>(searches, nodeCount, move, move.result(position), 1,
+                                               depth - 1, isMaxStep, best));
+            }
+
+            // Search the Move a search one ply shallower likes best
+            // first, alone, so that the others have its score to beat.
+            int eldest = 0;
+            if (depth > 1) {
+                AlphaBeta<P> search = searches.get();
+                Decision<P> shallower = search.search(position, depth - 1, null);
+                nodeCount.addAndGet(search.getNodeCount());
+                eldest = Math.max(0, moves.indexOf(shallower.getFirstMove()));
+            }
+            tasks.get(eldest).invoke();
+            List<SiblingSearch<P>> youngBrothers = new ArrayList<SiblingSearch<P>>(tasks);
+            youngBrothers.remove(eldest);
+            invokeAll(youngBrothers);
+
+            // The earliest Move that found the best score exactly.
+            Score bestScore = best.get();
+            int winner = 0;
+            while (tasks.get(winner).isBound() ||
+                    SiblingSearch.isBetter(bestScore, tasks.get(winner).getRawResult().getScore(), isMaxStep)) {
+                winner++;
+            }
+            // An earlier Move whose bound reaches the best score may
+            // really tie it.  If one does, the earliest is chosen,
+            // whichever task finished first.
+            List<TieTest> tieTests = new ArrayList<TieTest>();
+            for (int i = 0; i < winner; i++) {
+                SiblingSearch<P> task = tasks.get(i);
+                if (!SiblingSearch.isBetter(bestScore, task.getRawResult().getScore(), isMaxStep)) {
+                    tieTests.add(new TieTest(moves.get(i).result(position), i, depth - 1, bestScore, isMaxStep));
+                }
+            }
+            invokeAll(tieTests);
+            for (TieTest tieTest : tieTests) {
+                if (tieTest.getRawResult()) {
+                    return tasks.get(tieTest.index).exact().invoke();
+                }
+            }
+            return tasks.get(winner).getRawResult();
+        }
+    }
+
+    /** Tests whether a root Move's score reaches some score, with a null window. */
+    private class TieTest extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final P result;
+        private final int index;
+        private final int depth;
+        private final Score score;
+        private final boolean isMaxStep;
+
+        TieTest(P result, int index, int depth, Score score, boolean isMaxStep) {
+            this.result = result;
+            this.index = index;
+            this.depth = depth;
+            this.score = score;
+            this.isMaxStep = isMaxStep;
+        }
+
+        @Override
+        protected Boolean compute() {
+            // The score as seen from the result, a ply from the root.
+            int bound = IntScore.fromScore(SiblingSearch.plusPlies(score, -1));
+            AlphaBeta<P> search = searches.get();
+            Decision<P> reply = isMaxStep ? search.search(result, depth, null, bound - 1, bound)
+                                          : search.search(result, depth, null, bound, bound + 1);
+            nodeCount.addAndGet(search.getNodeCount());
+            int replyScore = IntScore.fromScore(reply.getScore());
+            return isMaxStep ? replyScore >= bound : replyScore <= bound;
+        }
+    }
+}
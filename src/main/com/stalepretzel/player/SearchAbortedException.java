@@ -0,0 +1,18 @@
+package com.stalepretzel.player;
+
+/**
+ * Indicates that a search ran out of its SearchBudget before finishing.
+ * The search's partial results are discarded.
+ */
+public class SearchAbortedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SearchAbortedException() {
+        super();
+    }
+
+    public SearchAbortedException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,117 @@
+package com.stalepretzel.player;
+
+/**
+ * A board on which a search makes and unmakes Moves, in place.
+ *
+ * Searching by transforming immutable Positions requires a new
+ * Position for every node searched.  A SearchBoard instead holds a
+ * single, current Position, which the search changes by making a
+ * Move, and changes back by unmaking it.
+ *
+ * Moves are unmade in the reverse of the order in which they were
+ * made, like a stack.
+ *
+ * Within a search, Moves are packed into ints, so that generating them
+ * allocates nothing.  Each SearchBoard decides how to pack its Moves,
+ * except that NO_MOVE is never a Move.  Packed Moves are converted to
+ * and from Move objects with toMove and fromMove, at the boundaries of
+ * the search.  A packed Move means the same Move from any SearchBoard
+ * of the same SearchBoardFactory.
+ *
+ * @param <P> The type of Position this board represents.
+ */
+public interface SearchBoard<P extends Position<P>> {
+
+    /** An int that no SearchBoard uses for a Move. */
+    public static final int NO_MOVE = 0;
+
+    /**
+     * Get the current Position.
+     * The returned Position may be a view of this board, in which
+     * case it changes when Moves are made or unmade.  So, it should
+     * not be retained past the next makeMove or unmakeMove.
+     */
+    public P position();
+
+    /**
+     * Get the number of stages in which candidate Moves are generated.
+     *
+     * A search that cuts off early never looks at most Moves, so a
+     * SearchBoard can generate its candidate Moves in stages, most
+     * promising first (e.g. captures, then quiet moves), and the search
+     * only asks for later stages when the earlier ones didn't cut off.
+     */
+    public int stageCount();
+
+    /**
+     * Add the candidate Moves of one stage from the current Position
+     * to a MoveList.
+     *
+     * Together, the stages include every legal Move, each in exactly
+     * one stage.  Some illegal Moves may be included, too: makeMove
+     * rejects them.
+     *
+     * @param stage The stage, in [0, stageCount()).
+     * @param moves The list to add the packed Moves to.
+     */
+    public void candidateMoves(int stage, MoveList moves);
+
+    /**
+     * Add the candidate Moves from the current Position that change
+     * the material balance, e.g. captures and promotions, to a MoveList.
+     *
+     * Quiescence searches try only these Moves, so that they settle
+     * the exchanges in progress at the horizon, and then stop.  A
+     * board that can't tell which Moves are tactical may add none.
+     *
+     * @param moves The list to add the packed Moves to.
+     */
+    public void tacticalMoves(MoveList moves);
+
+    /**
+     * Return whether a packed Move is tactical, i.e. whether
+     * tacticalMoves would include it.  Searches reduce tactical Moves
+     * less readily than quiet ones.
+     * @param move One of the current candidate Moves.
+     */
+    public boolean isTactical(int move);
+
+    /**
+     * Return whether the player to move is in check, or in any other
+     * danger that makes it unsafe to prune or reduce the search of the
+     * current Position.  A board that can't tell returns false.
+     */
+    public boolean isInCheck();
+
+    /**
+     * Return whether a packed Move, e.g. from a TranspositionTable, is
+     * one of the current candidate Moves, so that it may be made.
+     * May return false for candidate Moves, if checking is expensive.
+     * In that case, the search tries the Move in its stage, instead.
+     */
+    public boolean isCandidate(int move);
+
+    /**
+     * Make a packed Move, if it is legal.
+     * @param move One of the current candidate Moves.
+     * @return Whether the Move was legal, and so was made.  If it was
+     *      not legal, then this board is left unchanged, and the Move
+     *      must not be unmade.
+     */
+    public boolean makeMove(int move);
+
+    /** Unmake the most recently made Move that has not been unmade yet. */
+    public void unmakeMove();
+
+    /**
+     * Unpack a Move.
+     * @param move A candidate Move from some Position of this board.
+     */
+    public Move<P> toMove(int move);
+
+    /**
+     * Pack a Move from the current Position.
+     * @param move One of the current Position's legal Moves.
+     */
+    public int fromMove(Move<P> move);
+}
@@ -0,0 +1,10 @@
+package com.stalepretzel.player;
+
+/**
+ * A source of SearchBoards.
+ * @param <P> The type of Position the SearchBoards represent.
+ */
+public interface SearchBoardFactory<P extends Position<P>> {
+    /** Create a new SearchBoard whose current Position is equal to some Position. */
+    public SearchBoard<P> searchBoard(P position);
+}
@@ -0,0 +1,108 @@
+package com.stalepretzel.player;
+
+/**
+ * A limit on how long a search may run, in wall-clock time, in
+ * nodes searched, or both.
+ *
+ * A search calls spendNode() once per node.  Once either limit is
+ * reached, spendNode() returns false, and the search should abort.
+ * Reading the clock is slow compared to searching a node, so the
+ * clock is only checked every CLOCK_CHECK_INTERVAL nodes.
+ *
+ * A SearchBudget can be reused: start() resets it.
+ *
+ * A SearchBudget is spent by one thread, but any thread may
+ * exhaust() it, to stop that thread's search early.
+ */
+public class SearchBudget {
+
+    /** The limit that means "no limit". */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    // Must be a power of two.
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final long maxMillis;
+    private final long maxNodes;
+
+    private long deadlineNanos;
+    private long nodesSpent;
+    // Volatile, since exhaust() may be called from another thread.
+    private volatile boolean exhausted;
+
+    /**
+     * Create a SearchBudget.
+     * @param maxMillis The most wall-clock time to spend, in
+     *      milliseconds, or UNLIMITED.
+     * @param maxNodes The most nodes to search, or UNLIMITED.
+     */
+    public SearchBudget(long maxMillis, long maxNodes) {
+        if (maxMillis <= 0 || maxNodes <= 0) {
+            throw new IllegalArgumentException("Budgets must be positive.");
+        }
+        this.maxMillis = maxMillis;
+        this.maxNodes = maxNodes;
+        start();
+    }
+
+    /** Create a SearchBudget limited only by wall-clock time. */
+    public static SearchBudget millis(long maxMillis) {
+        return new SearchBudget(maxMillis, UNLIMITED);
+    }
+
+    /** Create a SearchBudget limited only by nodes searched. */
+    public static SearchBudget nodes(long maxNodes) {
+        return new SearchBudget(UNLIMITED, maxNodes);
+    }
+
+    /** Start spending the budget from scratch, as of now. */
+    public void start() {
+        if (maxMillis == UNLIMITED) {
+            deadlineNanos = UNLIMITED;
+        } else {
+            deadlineNanos = System.nanoTime() + maxMillis * NANOS_PER_MILLI;
+        }
+        nodesSpent = 0;
+        exhausted = false;
+    }
+
+    /**
+     * Spend one node of the budget.
+     * @return Whether the budget still allows the node to be searched.
+     */
+    public boolean spendNode() {
+        if (exhausted) {
+            return false;
+        }
+        nodesSpent++;
+        if (nodesSpent > maxNodes) {
+            exhausted = true;
+        } else if (deadlineNanos != UNLIMITED && (nodesSpent & (CLOCK_CHECK_INTERVAL - 1)) == 0 &&
+                System.nanoTime() - deadlineNanos >= 0) {
+            exhausted = true;
+        }
+        return !exhausted;
+    }
+
+    /** Return whether the budget has run out. */
+    public boolean isExhausted() {
+        if (!exhausted && deadlineNanos != UNLIMITED && System.nanoTime() - deadlineNanos >= 0) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    /**
+     * Run out the budget now.  The search spending it aborts at its
+     * next node.  This may be called from any thread.
+     */
+    public void exhaust() {
+        exhausted = true;
+    }
+
+    /** Get the number of nodes spent since start(). */
+    public long getNodesSpent() {
+        return nodesSpent;
+    }
+}
@@ -0,0 +1,43 @@
+package com.stalepretzel.player;
+
+import java.util.Random;
+
+/**
+ * A MoveOrderer for any type of Position, which knows nothing about
+ * the game: it tries the hash Move first, and the rest in random order.
+ *
+ * @param <P> The type of Position whose Moves are ordered.
+ */
+public class ShuffleMoveOrderer<P extends Position<P>> implements MoveOrderer<P> {
+
+    private final Random random = new Random();
+
+    @Override
+    public void newSearch() {
+    }
+
+    @Override
+    public int order(MoveList moves, P position, int hashMove, int pliesFromRoot) {
+        // Fisher-Yates, from the back.
+        for (int i = moves.size() - 1; i > 0; i--) {
+            swap(moves, i, random.nextInt(i + 1));
+        }
+        if (hashMove != SearchBoard.NO_MOVE) {
+            int hashMoveIndex = moves.indexOf(hashMove);
+            if (hashMoveIndex > 0) {
+                swap(moves, 0, hashMoveIndex);
+            }
+        }
+        return moves.size();
+    }
+
+    @Override
+    public void cutoff(int move, P position, int pliesFromRoot, int pliesRemaining) {
+    }
+
+    private static void swap(MoveList moves, int i, int j) {
+        int move = moves.get(i);
+        moves.set(i, moves.get(j));
+        moves.set(j, move);
+    }
+}
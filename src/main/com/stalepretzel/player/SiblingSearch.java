@@ -0,0 +1,147 @@
+package com.stalepretzel.player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A task that searches the result of one of a node's Moves, in
+ * parallel with the node's other Moves.
+ *
+ * The node's tasks share the best score found so far for the player
+ * to move at the node, and each task searches only for scores that
+ * beat it.  A task that can't beat it returns just a bound on its
+ * Move's score, which is enough to rule the Move out.  The node
+ * itself must be searched for scores between the lowest and the
+ * highest, as the root and the nodes on its principal variation are.
+ *
+ * Each task searches with the AlphaBeta of the worker thread that
+ * runs it.  Scores, including the bound, count plies from the root
+ * of the whole search, not from the task's own.
+ *
+ * @param <P> The type of Position searched.
+ */
+class SiblingSearch<P extends Position<P>> extends RecursiveTask<Decision<P>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ThreadLocal<AlphaBeta<P>> searches;
+    private final AtomicLong nodeCount;
+    private final Move<P> move;
+    private final P result;
+    private final int pliesFromRoot;
+    private final int depth;
+    private final boolean isMaxStep;
+    // The best score so far, or null to search for the exact score.
+    private final AtomicReference<Score> best;
+    private boolean bound;
+
+    /**
+     * Create a SiblingSearch.
+     * @param searches Each worker thread's AlphaBeta.
+     * @param nodeCount Counts the nodes all tasks visit.
+     * @param move The Move whose result is searched.
+     * @param result The result of the Move.
+     * @param pliesFromRoot How far the result is from the root.
+     * @param depth How deep to search the result, in plies.
+     * @param isMaxStep Whether the maximizer made the Move.
+     * @param best The best score the Move's siblings have found, which
+     *      this task updates, or null to search for the exact score.
+     */
+    SiblingSearch(ThreadLocal<AlphaBeta<P>> searches, AtomicLong nodeCount, Move<P> move,
+                  P result, int pliesFromRoot, int depth, boolean isMaxStep,
+                  AtomicReference<Score> best) {
+        this.searches = searches;
+        this.nodeCount = nodeCount;
+        this.move = move;
+        this.result = result;
+        this.pliesFromRoot = pliesFromRoot;
+        this.depth = depth;
+        this.isMaxStep = isMaxStep;
+        this.best = best;
+    }
+
+    /** Create a task that searches the same Move, but for its exact score. */
+    SiblingSearch<P> exact() {
+        return new SiblingSearch<P>(searches, nodeCount, move, result, pliesFromRoot, depth,
+                                    isMaxStep, null);
+    }
+
+    /** Get whether the score found is only a bound, since it couldn't beat the best. */
+    boolean isBound() {
+        return bound;
+    }
+
+    @Override
+    protected Decision<P> compute() {
+        Score toBeat = best == null ? null : best.get();
+        Score alpha = TerminalScore.LOWEST;
+        Score beta = TerminalScore.HIGHEST;
+        if (toBeat != null && isMaxStep) {
+            alpha = toBeat;
+        } else if (toBeat != null) {
+            beta = toBeat;
+        }
+
+        AlphaBeta<P> search = searches.get();
+        int low = IntScore.fromScore(plusPlies(alpha, -pliesFromRoot));
+        int high = IntScore.fromScore(plusPlies(beta, -pliesFromRoot));
+        Decision<P> reply;
+        if (toBeat == null) {
+            reply = search.search(result, depth, null, low, high);
+            nodeCount.addAndGet(search.getNodeCount());
+        } else {
+            // First just test whether the Move beats the best, with a
+            // null window, as Principal Variation Search does.
+            int nullLow = isMaxStep ? low : high - 1;
+            reply = search.search(result, depth, null, nullLow, nullLow + 1);
+            nodeCount.addAndGet(search.getNodeCount());
+            int replyScore = IntScore.fromScore(reply.getScore());
+            if (isMaxStep ? replyScore > low : replyScore < high) {
+                reply = search.search(result, depth, null, low, high);
+                nodeCount.addAndGet(search.getNodeCount());
+            }
+        }
+        Score score = plusPlies(reply.getScore(), pliesFromRoot);
+
+        bound = toBeat != null && !isBetter(score, toBeat, isMaxStep);
+        if (best != null && !bound) {
+            improve(score);
+        }
+        List<Move<P>> variation = new ArrayList<Move<P>>();
+        variation.add(move);
+        variation.addAll(reply.getVariation());
+        return new Decision<P>(variation, score);
+    }
+
+    /** Make a score the shared best, unless another task beat it already. */
+    private void improve(Score score) {
+        while (true) {
+            Score current = best.get();
+            if (current != null && !isBetter(score, current, isMaxStep)) {
+                return;
+            }
+            if (best.compareAndSet(current, score)) {
+                return;
+            }
+        }
+    }
+
+    /** Get whether one score is better than another for some player. */
+    static boolean isBetter(Score score, Score than, boolean isMaxStep) {
+        return isMaxStep ? score.greaterThan(than) : score.lessThan(than);
+    }
+
+    /**
+     * Get a score as seen some plies further from the root.
+     * TerminalScores count plies from the root of their search.
+     */
+    static Score plusPlies(Score score, int plies) {
+        if (score instanceof TerminalScore) {
+            return ((TerminalScore) score).plusPlies(plies);
+        }
+        return score;
+    }
+}
@@ -55,10 +55,18 @@ public class TerminalScore extends Score {
         return pliesUntilEnd;
     }
 
+    /**
+     * Get the TerminalScore with the same outcome, but some number
+     * of plies later (or earlier, for negative plies).
+     */
+    public TerminalScore plusPlies(int plies) {
+        return new TerminalScore(outcomeForMaximizer, pliesUntilEnd + plies);
+    }
+
     @Override
     public boolean greaterThan(Score s) {
-        if (getValue() > s.getValue()) {
-            return true;
+        if (getValue() != s.getValue()) {
+            return getValue() > s.getValue();
         } else if (getClass() == s.getClass()) {
             TerminalScore that = (TerminalScore) s;
             if (outcomeForMaximizer == Outcome.WIN) {
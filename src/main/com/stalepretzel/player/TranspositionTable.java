@@ -0,0 +1,163 @@
+package com.stalepretzel.player;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size cache of search results, keyed by Position.hashKey().
+ *
+ * Each bucket holds a depth-preferred entry and an always-replaced one.
+ * An entry is two longs, a data word and a check word XORed with it, so
+ * threads may share a table without locking: a torn entry fails the check.
+ */
+public class TranspositionTable {
+
+    /** What a stored score says about the Position's true score. */
+    public enum Bound {
+        /** The true score is the stored score. */
+        EXACT,
+        /** The true score is at least the stored score. */
+        LOWER,
+        /** The true score is at most the stored score. */
+        UPPER;
+    }
+
+    private static final Bound[] BOUNDS = Bound.values();
+
+    /** A copy of a stored search result.  (See find.) */
+    public static final class Entry {
+        private Bound bound;
+        private int depth;
+        private int score;
+        private int move;
+
+        /** Get the depth, in plies, to which the Position was searched. */
+        public int getDepth() {
+            return depth;
+        }
+
+        /** Get what the score says about the Position's true score. */
+        public Bound getBound() {
+            return bound;
+        }
+
+        /** Get the int score, with mates counted from a Position pliesFromRoot from the root. */
+        public int getScore(int pliesFromRoot) {
+            return IntScore.plusPlies(score, pliesFromRoot);
+        }
+
+        /** Get the best packed Move from the Position, or SearchBoard.NO_MOVE if it has none. */
+        public int getMove() {
+            return move;
+        }
+    }
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int BYTES_PER_MEGABYTE = 1 << 20;
+
+    // The check word's fields.  Its low half is never 0 in a stored
+    // entry, since the bound is stored plus 1, so empty entries never match.
+    private static final long KEY_MASK = 0xFFFFFFFF00000000L;
+    private static final int DEPTH_MASK = 0xFF;
+    private static final int BOUND_SHIFT = 8;
+    private static final int BOUND_MASK = 0x3;
+    private static final int GENERATION_SHIFT = 10;
+    private static final int GENERATION_MASK = (1 << 22) - 1;
+    private static final long LOW_MASK = 0x00000000FFFFFFFFL;
+
+    // Entry e is words 2e (check) and 2e + 1 (data).  Bucket b holds
+    // entries 2b (depth-preferred) and 2b + 1 (always-replace).
+    private final AtomicLongArray words;
+    private final int bucketMask;
+    // Only the low 22 bits are stored, so entries look current again
+    // after four million searches.
+    private int generation;
+
+    /** Create a TranspositionTable that uses at most some positive number of megabytes. */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + megabytes);
+        }
+        long budget = (long) megabytes * BYTES_PER_MEGABYTE;
+        long buckets = Long.highestOneBit(budget / (BYTES_PER_ENTRY * ENTRIES_PER_BUCKET));
+        // Keep the word count a legal array size.
+        buckets = Math.min(buckets, 1 << 28);
+
+        words = new AtomicLongArray((int) buckets * ENTRIES_PER_BUCKET * 2);
+        bucketMask = (int) buckets - 1;
+    }
+
+    /** Get the number of entries this table can hold. */
+    public int getCapacity() {
+        return words.length() / 2;
+    }
+
+    /** Make the results of earlier searches replaceable by any new result. */
+    public void newSearch() {
+        generation++;
+    }
+
+    /** Remove all entries. */
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+    }
+
+    /** Get the first entry in a key's bucket. */
+    private int bucketStart(long key) {
+        // The low bits are as random as any, since keys are Zobrist-like.
+        return ((int) key & bucketMask) * ENTRIES_PER_BUCKET;
+    }
+
+    /** Find the entry for a Position's hash key, or return null. */
+    public Entry find(long key) {
+        Entry entry = new Entry();
+        return find(key, entry) ? entry : null;
+    }
+
+    /** Copy the entry for a Position's hash key into an Entry, and return whether there was one. */
+    public boolean find(long key, Entry entry) {
+        int start = bucketStart(key);
+        for (int e = start; e < start + ENTRIES_PER_BUCKET; e++) {
+            long data = words.get(2 * e + 1);
+            long check = words.get(2 * e) ^ data;
+            int fields = (int) check;
+            if (fields != 0 && (check & KEY_MASK) == (key & KEY_MASK)) {
+                entry.depth = fields & DEPTH_MASK;
+                entry.bound = BOUNDS[((fields >>> BOUND_SHIFT) & BOUND_MASK) - 1];
+                entry.score = (int) data;
+                entry.move = (int) (data >>> 32);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Store a search result.
+     * @param pliesFromRoot How far the Position is from the root of the current search.
+     * @param bestMove The best packed Move found, or SearchBoard.NO_MOVE.
+     */
+    public void store(long key, int depth, Bound bound, int score, int pliesFromRoot,
+                      int bestMove) {
+        depth = Math.min(depth, DEPTH_MASK);
+        int current = generation & GENERATION_MASK;
+        int preferred = bucketStart(key);
+        int incumbent = (int) (words.get(2 * preferred) ^ words.get(2 * preferred + 1));
+        int e;
+        if (incumbent == 0 || (incumbent >>> GENERATION_SHIFT) != current ||
+                depth >= (incumbent & DEPTH_MASK)) {
+            e = preferred;
+        } else {
+            e = preferred + 1;
+        }
+
+        long data = ((long) bestMove << 32) | (IntScore.plusPlies(score, -pliesFromRoot) & LOW_MASK);
+        int fields = depth | (bound.ordinal() + 1) << BOUND_SHIFT | current << GENERATION_SHIFT;
+        long check = (key & KEY_MASK) | (fields & LOW_MASK);
+        // Nobody waits on the store, so it needn't be a volatile write.
+        words.lazySet(2 * e, check ^ data);
+        words.lazySet(2 * e + 1, data);
+    }
+}
@@ -7,11 +7,14 @@ import java.util.Scanner;
 import com.stalepretzel.chess.ChessMove;
 import com.stalepretzel.chess.ChessPosition;
 import com.stalepretzel.chess.ChessPositionBuilder;
-import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessSearch;
+import com.stalepretzel.chess.player.PieceSquareHeuristic;
 import com.stalepretzel.player.AlphaBeta;
 import com.stalepretzel.player.Decider;
 import com.stalepretzel.player.Decision;
 import com.stalepretzel.player.Heuristic;
+import com.stalepretzel.player.IterativeDeepening;
+import com.stalepretzel.player.SearchBudget;
 
 public class StreamChessServer {
 
@@ -22,8 +25,15 @@ public class StreamChessServer {
     private Heuristic<ChessPosition> heuristic;
     private Decider<ChessPosition> decider;
 
-    // The depth to which the Decider should search.
-    private static final int DEPTH = 3 /* plies */;
+    // The Decider searches deeper and deeper until it runs out of
+    // time, or reaches this depth.
+    private static final int MAX_DEPTH = 32 /* plies */;
+    // The time the Decider may spend on each move.
+    private static final long MOVE_MILLIS = 1000;
+    // The memory budget of the Decider's TranspositionTable.
+    private static final int TABLE_MEGABYTES = 64;
+    // How far each search's aspiration window reaches from the last score.
+    private static final float ASPIRATION_PAWNS = 0.5f;
 
     public StreamChessServer(InputStream in, PrintStream out) {
         this.in = in;
@@ -33,8 +43,12 @@ public class StreamChessServer {
         position = new ChessPositionBuilder().setupNewGame().build();
 
         // Setup the player.
-        heuristic = new BoardPieceValueHeuristic();
-        decider = new AlphaBeta<ChessPosition>(heuristic);
+        heuristic = new PieceSquareHeuristic();
+        // The table lives as long as the server, so each turn's search
+        // reuses what earlier turns found.
+        AlphaBeta<ChessPosition> search = ChessSearch.newAlphaBeta(heuristic, TABLE_MEGABYTES);
+        decider = new IterativeDeepening<ChessPosition>(search, SearchBudget.millis(MOVE_MILLIS))
+                .setAspirationWindow(ASPIRATION_PAWNS);
     }
 
     private void error(String msg) {
@@ -61,7 +75,7 @@ public class StreamChessServer {
         }
 
         // Decide a response, and play it on the board.
-        Decision<ChessPosition> bestDecision = decider.bestDecision(position, DEPTH);
+        Decision<ChessPosition> bestDecision = decider.bestDecision(position, MAX_DEPTH);
         ChessMove response = (ChessMove) bestDecision.getFirstMove();
         position  = response.result(position);
 
@@ -9,6 +9,7 @@ import java.util.Collection;
 
 import com.stalepretzel.chess.CastlingInfo;
 import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
 import com.stalepretzel.chess.Square;
 import com.stalepretzel.chess.piece.Bishop;
 import com.stalepretzel.chess.piece.Pawn;
@@ -31,6 +32,18 @@ public class TestUtil {
         assertTrue(allActual.containsAll(allExpected));
     }
 
+    /**
+     * Get each ChessPositionBuilder.Representation, as the parameters
+     * of a test that runs once for each.  (See Parameterized.)
+     */
+    public static Collection<Object[]> representations() {
+        Collection<Object[]> parameters = new ArrayList<Object[]>();
+        for (Representation representation : Representation.values()) {
+            parameters.add(new Object[] {representation});
+        }
+        return parameters;
+    }
+
     /** Assert that a ChessPosition is in the new-game position. */
     public static void assertIsNewGame(ChessPosition position) {
         // Do a couple perfunctory spot checks for pieces.
@@ -0,0 +1,106 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.IllegalMoveException;
+import com.stalepretzel.chess.piece.Piece;
+
+/** Tests for ChessPosition.isAttacked, which is implemented by chess.Attacks. */
+public class AttacksTest {
+
+    private static final Piece.Color WHITE = Piece.Color.WHITE;
+    private static final Piece.Color BLACK = Piece.Color.BLACK;
+
+    /** Build the same position in both Representations. */
+    private static ChessPosition[] bothRepresentations(String[] placements) {
+        return new ChessPosition[] {
+            new ChessPositionBuilder().setRepresentation(Representation.ARRAY)
+                                      .placePieces(placements).build(),
+            new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                      .placePieces(placements).build()
+        };
+    }
+
+    private static void assertAttacked(boolean expected, String[] placements,
+                                       String square, Piece.Color attackerColor) {
+        for (ChessPosition position : bothRepresentations(placements)) {
+            assertEquals(expected, position.isAttacked(Square.algebraic(square), attackerColor));
+        }
+    }
+
+    @Test
+    public void testKnight() {
+        String[] placements = {"WNd4"};
+        assertAttacked(true, placements, "e6", WHITE);
+        assertAttacked(true, placements, "b3", WHITE);
+        assertAttacked(false, placements, "d5", WHITE);
+        assertAttacked(false, placements, "e6", BLACK);
+        // Knights can't hop off the board and back on.
+        assertAttacked(false, new String[] {"WNh4"}, "a5", WHITE);
+    }
+
+    @Test
+    public void testKing() {
+        String[] placements = {"BKa8"};
+        assertAttacked(true, placements, "b7", BLACK);
+        assertAttacked(true, placements, "a7", BLACK);
+        assertAttacked(false, placements, "a6", BLACK);
+        assertAttacked(false, placements, "h7", BLACK);
+    }
+
+    @Test
+    public void testPawns() {
+        String[] placements = {"WPe4", "BPe5"};
+        // Pawns attack diagonally forward, only.
+        assertAttacked(true, placements, "d5", WHITE);
+        assertAttacked(true, placements, "f5", WHITE);
+        assertAttacked(false, placements, "e5", WHITE);
+        assertAttacked(false, placements, "d3", WHITE);
+        assertAttacked(true, placements, "d4", BLACK);
+        assertAttacked(true, placements, "f4", BLACK);
+        assertAttacked(false, placements, "d6", BLACK);
+        // Edge pawns attack only one square.
+        assertAttacked(true, new String[] {"WPa2"}, "b3", WHITE);
+        assertAttacked(false, new String[] {"WPa2"}, "h2", WHITE);
+    }
+
+    @Test
+    public void testSlidersAreBlocked() {
+        String[] placements = {"WRa1", "WBc1", "BQh8", "BPf6"};
+        // The rook sees along the first rank until the bishop...
+        assertAttacked(true, placements, "b1", WHITE);
+        assertAttacked(false, placements, "d1", WHITE);
+        // ...and up the a-file.
+        assertAttacked(true, placements, "a8", WHITE);
+        // The queen sees the pawn, but not past it.
+        assertAttacked(true, placements, "f6", BLACK);
+        assertAttacked(false, placements, "d4", BLACK);
+        assertAttacked(true, placements, "h1", BLACK);
+        assertAttacked(true, placements, "a8", BLACK);
+        // Bishops don't move like rooks.
+        assertAttacked(false, new String[] {"WBd4"}, "d5", WHITE);
+        assertAttacked(true, new String[] {"WBd4"}, "a7", WHITE);
+    }
+
+    @Test
+    public void testRepresentationsAgree() throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "c5", "Nf3", "d6", "d4", "cxd4", "Nxd4", "Nf6", "Nc3", "a6",
+                          "Be3", "e5", "Nb3", "Be6", "f3", "Be7", "Qd2", "O-O", "O-O-O", "Nbd7"};
+        ChessPosition array = Game.fromMoves(moves).getCurrentPosition();
+        ChessPosition bitboard = new ChessPositionBuilder(array)
+                .setRepresentation(Representation.BITBOARD).build();
+        for (Square square : Square.ALL) {
+            for (Piece.Color color : Piece.Color.values()) {
+                assertEquals(array.isAttacked(square, color), bitboard.isAttacked(square, color));
+            }
+        }
+        assertTrue(array.isAttacked(Square.algebraic("d5"), WHITE));
+        assertFalse(array.isAttacked(Square.algebraic("h5"), WHITE));
+    }
+}
@@ -0,0 +1,109 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.TestUtil;
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.IllegalMoveException;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.chess.piece.Rook;
+
+/**
+ * Tests for the chess.BitboardChessPosition class.
+ *
+ * The rest of the ChessPosition behavior is tested on both
+ * Representations in RepresentationTest.
+ */
+public class BitboardChessPositionTest {
+
+    @Test
+    public void testNewGame() {
+        ChessPosition newGame = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                          .setupNewGame().build();
+        assertTrue(newGame instanceof BitboardChessPosition);
+        TestUtil.assertIsNewGame(newGame);
+        assertEquals(new ChessPositionBuilder().setupNewGame().build(), newGame);
+    }
+
+    @Test
+    public void testEmptyBoard() {
+        ChessPosition empty = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                        .build();
+        for (Square square : Square.ALL) {
+            assertNull(empty.getPiece(square));
+        }
+        assertFalse(empty.anyOccupied(Square.ALL));
+    }
+
+    @Test
+    public void testExtraInfo() {
+        CastlingInfo castlingInfo = CastlingInfo.allowAll().updated(new NormalChessMove("a1", "a2"));
+        ChessPosition position = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                           .setEnPassantSquare(Square.algebraic("c6"))
+                                                           .setToMoveColor(Piece.Color.BLACK)
+                                                           .setCastlingInfo(castlingInfo)
+                                                           .build();
+        assertEquals(Square.algebraic("c6"), position.getEnPassantSquare());
+        assertEquals(Piece.Color.BLACK, position.getToMoveColor());
+        assertEquals(castlingInfo, position.getCastlingInfo());
+    }
+
+    @Test
+    public void testResultKeepsRepresentation() {
+        ChessPosition newGame = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                          .setupNewGame().build();
+        ChessPosition afterMove = new NormalChessMove("g1", "f3").result(newGame);
+        assertTrue(afterMove instanceof BitboardChessPosition);
+    }
+
+    @Test
+    public void testMatchesArrayRepresentation()
+            throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "d5", "exd5", "Qxd5", "Nc3", "Qa5", "d4", "c6", "Nf3", "Bg4"};
+        ChessPosition arrayPosition = Game.fromMoves(moves).getCurrentPosition();
+        ChessPosition bitboardPosition = new ChessPositionBuilder(arrayPosition)
+                .setRepresentation(Representation.BITBOARD).build();
+
+        for (Square square : Square.ALL) {
+            assertEquals(arrayPosition.getPiece(square), bitboardPosition.getPiece(square));
+        }
+        assertEquals(arrayPosition, bitboardPosition);
+        assertEquals(arrayPosition.hashCode(), bitboardPosition.hashCode());
+        TestUtil.assertSameElements(arrayPosition.moves(), bitboardPosition.moves());
+    }
+
+    @Test
+    public void testReplacedPiece() {
+        ChessPosition position = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                           .setupNewGame()
+                                                           .placePiece("BRe2")
+                                                           .build();
+        assertEquals(new Rook(Piece.Color.BLACK), position.getPiece(Square.algebraic("e2")));
+    }
+
+    @Test
+    public void testBitboards() throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "d5", "exd5", "Qxd5", "Nc3", "Qa5", "d4", "c6", "Nf3", "Bg4"};
+        BitboardChessPosition position = (BitboardChessPosition) Game.fromMoves(moves, Representation.BITBOARD)
+                                                                     .getCurrentPosition();
+        long occupied = 0L;
+        for (Piece.Type type : Piece.Type.values()) {
+            for (Piece.Color color : Piece.Color.values()) {
+                long bitboard = position.getBitboard(type, color);
+                for (Square square : Square.ALL) {
+                    Piece piece = position.getPiece(square);
+                    boolean isKind = piece != null && piece.getType() == type && piece.getColor() == color;
+                    assertEquals(isKind, (bitboard & (1L << square.getIndex())) != 0);
+                }
+                occupied |= bitboard;
+            }
+        }
+        assertEquals(occupied, position.getOccupied());
+    }
+}
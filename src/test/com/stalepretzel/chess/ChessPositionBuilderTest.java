@@ -14,6 +14,7 @@ import com.stalepretzel.chess.Game;
 import com.stalepretzel.chess.NormalChessMove;
 import com.stalepretzel.chess.Square;
 import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.FenException;
 import com.stalepretzel.chess.exceptions.IllegalMoveException;
 import com.stalepretzel.chess.piece.Bishop;
 import com.stalepretzel.chess.piece.King;
@@ -289,4 +290,67 @@ public class ChessPositionBuilderTest {
         assertEquals(whiteKing, position.getPiece(Square.algebraic("a1")));
         assertEquals(blackKing, position.getPiece(Square.algebraic("h8")));
     }
+
+    @Test
+    public void testKingSquares() {
+        ChessPositionBuilder builder = new ChessPositionBuilder().setupNewGame();
+        ChessPosition newGame = builder.build();
+        assertEquals(Square.algebraic("e1"), newGame.getKingSquare(Piece.Color.WHITE));
+        assertEquals(Square.algebraic("e8"), newGame.getKingSquare(Piece.Color.BLACK));
+
+        // Moved, captured, and copied kings.
+        ChessPositionBuilder movedBuilder = new ChessPositionBuilder(newGame);
+        movedBuilder.vacate(Square.algebraic("e1")).placePiece("WKd3");
+        movedBuilder.placePiece("WQe8");
+        ChessPosition moved = new ChessPositionBuilder(movedBuilder.build()).build();
+        assertEquals(Square.algebraic("d3"), moved.getKingSquare(Piece.Color.WHITE));
+        assertNull(moved.getKingSquare(Piece.Color.BLACK));
+
+        // Move results.
+        ChessPosition afterMove = new NormalChessMove("e1", "e2").result(
+                new ChessPositionBuilder().placePieces(new String[] {"WKe1", "BKe8"}).build());
+        assertEquals(Square.algebraic("e2"), afterMove.getKingSquare(Piece.Color.WHITE));
+        assertEquals(Square.algebraic("e8"), afterMove.getKingSquare(Piece.Color.BLACK));
+    }
+
+    @Test
+    public void testFen() throws FenException, AlgebraicNotationException, IllegalMoveException {
+        ChessPosition newGame = new ChessPositionBuilder().setupNewGame().build();
+        String newGameFen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+        assertEquals(newGame, new ChessPositionBuilder().setupFen(newGameFen).build());
+
+        // The clocks are optional.
+        ChessPosition afterE4 = Game.fromMoves(new String[] {"e4"}).getCurrentPosition();
+        String afterE4Fen = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3";
+        assertEquals(afterE4, new ChessPositionBuilder().setupFen(afterE4Fen).build());
+
+        ChessPosition partial = new ChessPositionBuilder().setupFen("4k2r/8/8/8/8/8/8/R3K3 w Qk - 3 40").build();
+        assertEquals(new Rook(Piece.Color.BLACK), partial.getPiece(Square.algebraic("h8")));
+        assertEquals(Square.algebraic("e1"), partial.getKingSquare(Piece.Color.WHITE));
+        CastlingInfo castlingInfo = partial.getCastlingInfo();
+        assertEquals(false, castlingInfo.castlePiecesReady(Piece.Color.WHITE, CastlingMove.Side.KINGSIDE));
+        assertEquals(true, castlingInfo.castlePiecesReady(Piece.Color.WHITE, CastlingMove.Side.QUEENSIDE));
+        assertEquals(true, castlingInfo.castlePiecesReady(Piece.Color.BLACK, CastlingMove.Side.KINGSIDE));
+        assertEquals(false, castlingInfo.castlePiecesReady(Piece.Color.BLACK, CastlingMove.Side.QUEENSIDE));
+    }
+
+    @Test
+    public void testIllegalFen() {
+        String[] illegalFens = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq -",
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w KQkq -",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq -",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq -",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w QK -",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w"};
+        for (String fen : illegalFens) {
+            try {
+                new ChessPositionBuilder().setupFen(fen);
+                fail("Accepted illegal FEN " + fen);
+            } catch (FenException expected) {
+            }
+        }
+    }
 }
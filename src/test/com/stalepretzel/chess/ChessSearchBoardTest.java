@@ -0,0 +1,247 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.stalepretzel.TestUtil;
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.IllegalMoveException;
+import com.stalepretzel.chess.piece.Knight;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.player.MoveList;
+import com.stalepretzel.player.SearchBoard;
+
+public class ChessSearchBoardTest {
+
+    /** Get all of a board's candidate moves, stage by stage. */
+    private static MoveList candidateMoves(ChessSearchBoard board) {
+        MoveList moves = new MoveList();
+        for (int stage = 0; stage < board.stageCount(); stage++) {
+            board.candidateMoves(stage, moves);
+        }
+        return moves;
+    }
+
+    /**
+     * Assert that a ChessSearchBoard's candidate moves are the sane moves,
+     * that making each one gives the same position as ChessMove.result,
+     * and that unmaking it restores the original position.
+     */
+    private static void assertMakeMatchesResult(ChessPosition position) {
+        ChessSearchBoard board = new ChessSearchBoard(position);
+        assertEquals(position, board.snapshot());
+
+        Set<ChessMove> saneMoves = new HashSet<ChessMove>();
+        for (Square start : Square.ALL) {
+            Piece piece = position.getPiece(start);
+            if (piece != null && piece.getColor() == position.getToMoveColor()) {
+                for (ChessMove saneMove : piece.saneMoves(start, position)) {
+                    saneMoves.add(saneMove);
+                }
+            }
+        }
+
+        Set<ChessMove> candidates = new HashSet<ChessMove>();
+        int legalCount = 0;
+        MoveList packedMoves = candidateMoves(board);
+        for (int i = 0; i < packedMoves.size(); i++) {
+            int packedMove = packedMoves.get(i);
+            ChessMove move = PackedMove.toChessMove(packedMove);
+            assertTrue(candidates.add(move));
+            assertEquals(packedMove, board.fromMove(move));
+
+            boolean legal = move.isLegal(position);
+            assertEquals(legal, board.makeMove(packedMove));
+            if (legal) {
+                legalCount++;
+                ChessPosition result = move.result(position);
+                assertEquals(result, board.snapshot());
+                for (Piece.Color color : Piece.Color.values()) {
+                    assertEquals(result.getKingSquare(color), board.getKingSquare(color));
+                }
+                board.unmakeMove();
+            }
+            assertEquals(position, board.snapshot());
+            for (Piece.Color color : Piece.Color.values()) {
+                assertEquals(position.getKingSquare(color), board.getKingSquare(color));
+            }
+        }
+        assertEquals(saneMoves, candidates);
+        assertEquals(new HashSet<ChessMove>(position.moves()).size(), legalCount);
+        assertStagesSplitCandidates(board);
+    }
+
+    /**
+     * Assert that the stages of a board's candidate moves are the
+     * captures and promotions, then everything else.
+     */
+    private static void assertStagesSplitCandidates(ChessSearchBoard board) {
+        assertEquals(2, board.stageCount());
+        for (int stage = 0; stage < board.stageCount(); stage++) {
+            MoveList moves = new MoveList();
+            board.candidateMoves(stage, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int packedMove = moves.get(i);
+                assertTrue(board.isCandidate(packedMove));
+                ChessMove move = PackedMove.toChessMove(packedMove);
+                boolean tactical = move instanceof PromotionMove ||
+                        move.capturedSquare(board) != null;
+                assertEquals(stage == 0, tactical);
+                assertEquals(tactical, PackedMove.isTactical(packedMove));
+            }
+        }
+    }
+
+    /** Pack a move with some flags, from and to squares in algebraic notation. */
+    private static int pack(String start, String end, int flags) {
+        return PackedMove.pack(Square.algebraic(start).getIndex(), Square.algebraic(end).getIndex(), flags);
+    }
+
+    @Test
+    public void testNewGame() {
+        assertMakeMatchesResult(new ChessPositionBuilder().setupNewGame().build());
+    }
+
+    @Test
+    public void testCapturesAndChecks() throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6", "Ng5", "d5", "exd5", "Nxd5"};
+        assertMakeMatchesResult(Game.fromMoves(moves).getCurrentPosition());
+    }
+
+    @Test
+    public void testEnPassant() {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        String[] placements = {"WKc3", "BKa8", "WPg5", "BPf5"};
+        builder.placePieces(placements);
+        builder.setEnPassantSquare(Square.algebraic("f6"));
+        assertMakeMatchesResult(builder.build());
+    }
+
+    @Test
+    public void testCastling() {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        // The black bishop attacks f1, so white can only castle queenside.
+        String[] placements = {"WRa1", "WKe1", "WRh1", "BKe8", "BBa6"};
+        builder.placePieces(placements);
+        assertMakeMatchesResult(builder.build());
+    }
+
+    @Test
+    public void testPromotion() {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        String[] placements = {"WPe7", "BNd8", "WKe2", "BKh8"};
+        builder.placePieces(placements);
+        assertMakeMatchesResult(builder.build());
+    }
+
+    @Test
+    public void testIllegalMoveRejected() {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        // The white knight is pinned to the white king.
+        String[] placements = {"WKe1", "WNe2", "BRe8", "BKa8"};
+        builder.placePieces(placements);
+        ChessPosition pinned = builder.build();
+        ChessSearchBoard board = new ChessSearchBoard(pinned);
+
+        assertFalse(board.makeMove(pack("e2", "c3", PackedMove.QUIET)));
+        // The move is still a candidate, though: only making it reveals the check.
+        assertTrue(board.isCandidate(pack("e2", "c3", PackedMove.QUIET)));
+        // Moves with the wrong flags are not.
+        assertFalse(board.isCandidate(pack("e2", "c3", PackedMove.CAPTURE)));
+        assertFalse(board.isCandidate(pack("e2", "e4", PackedMove.QUIET)));
+        assertFalse(board.isCandidate(pack("e8", "e7", PackedMove.QUIET)));
+        assertFalse(board.isCandidate(SearchBoard.NO_MOVE));
+        assertEquals(pinned, board.snapshot());
+        assertEquals(new Knight(Piece.Color.WHITE), board.getPiece(Square.algebraic("e2")));
+    }
+
+    @Test
+    public void testNullMove() {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        String[] placements = {"WKc3", "BKa8", "WPg5", "BPf5", "BNb8"};
+        builder.placePieces(placements);
+        builder.setToMoveColor(Piece.Color.BLACK);
+        builder.setEnPassantSquare(Square.algebraic("f6"));
+        ChessPosition position = builder.build();
+        ChessSearchBoard board = new ChessSearchBoard(position);
+
+        assertFalse(board.isInCheck());
+        assertTrue(board.canMakeNullMove());
+        board.makeNullMove();
+        assertEquals(Piece.Color.WHITE, board.getToMoveColor());
+        assertEquals(null, board.getEnPassantSquare());
+        ChessPosition passed = new ChessPositionBuilder(position).setToMoveColor(Piece.Color.WHITE)
+                .setEnPassantSquare(null).build();
+        assertEquals(passed, board.snapshot());
+        assertEquals(passed.getZobristKey(), board.getZobristKey());
+        // White has just a king and pawns, so passing is too risky: zugzwang.
+        assertFalse(board.canMakeNullMove());
+        board.unmakeMove();
+        assertEquals(position, board.snapshot());
+        assertEquals(position.getZobristKey(), board.getZobristKey());
+    }
+
+    @Test
+    public void testNoNullMoveInCheck() {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        String[] placements = {"WKe1", "WQd1", "BRe8", "BKa8"};
+        builder.placePieces(placements);
+        ChessSearchBoard board = new ChessSearchBoard(builder.build());
+        assertTrue(board.isInCheck());
+        assertFalse(board.canMakeNullMove());
+    }
+
+    @Test
+    public void testDeepMakeAndUnmake() throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7",
+                          "Re1", "b5", "Bb3", "d6", "c3", "O-O", "h3", "Nb8", "d4", "Nbd7"};
+        Game game = Game.fromMoves(moves);
+        ChessPosition start = game.getPosition(0, 0);
+        ChessSearchBoard board = new ChessSearchBoard(start);
+
+        // Make every move of the game, checking each position along the way...
+        ChessPosition current = start;
+        for (String alg : moves) {
+            ChessMove move = AlgebraicNotation.parse(alg, current);
+            assertTrue(board.makeMove(board.fromMove(move)));
+            current = move.result(current);
+            assertEquals(current, board.snapshot());
+        }
+        assertEquals(game.getCurrentPosition(), board.snapshot());
+
+        // ...then unmake them all.
+        for (int i = 0; i < moves.length; i++) {
+            board.unmakeMove();
+        }
+        assertEquals(start, board.snapshot());
+        TestUtil.assertIsNewGame(board);
+
+        try {
+            board.unmakeMove();
+            fail("Unmade a move that was never made.");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testEqualOnlyToItself() {
+        ChessPosition newGame = new ChessPositionBuilder().setupNewGame().build();
+        ChessSearchBoard board = new ChessSearchBoard(newGame);
+        assertFalse(newGame.equals(board));
+        assertFalse(board.equals(newGame));
+        assertFalse(board.equals(new ChessSearchBoard(newGame)));
+
+        Set<ChessPosition> positions = new HashSet<ChessPosition>();
+        positions.add(board);
+        board.makeMove(board.fromMove(new NormalChessMove("e2", "e4")));
+        assertTrue(positions.contains(board));
+        assertEquals(board.snapshot(), new NormalChessMove("e2", "e4").result(newGame));
+    }
+}
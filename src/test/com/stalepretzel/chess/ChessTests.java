@@ -5,19 +5,35 @@ import org.junit.runners.Suite;
 
 import com.stalepretzel.chess.abstractchessposition.AbstractChessPositionTests;
 import com.stalepretzel.chess.chessmove.ChessMoveTests;
+import com.stalepretzel.chess.player.ChessGainEstimatorTest;
+import com.stalepretzel.chess.player.ChessMoveOrdererTest;
+import com.stalepretzel.chess.player.EvaluationHeuristicTest;
+import com.stalepretzel.chess.player.PawnHashTableTest;
 import com.stalepretzel.chess.piece.PieceTests;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         AbstractChessPositionTests.class,
         AlgebraicNotationTest.class,
+        AttacksTest.class,
+        BitboardChessPositionTest.class,
         CastlingInfoTest.class,
+        ChessGainEstimatorTest.class,
+        ChessMoveOrdererTest.class,
         ChessMoveTests.class,
         ChessPositionBuilderTest.class,
+        ChessSearchBoardTest.class,
         DeltaTest.class,
+        EvaluationHeuristicTest.class,
         GameTest.class,
+        PackedMoveTest.class,
+        PawnHashTableTest.class,
+        PerftTest.class,
+        PieceSquareTableTest.class,
         PieceTests.class,
-        SquareTest.class
+        RepresentationTest.class,
+        SquareTest.class,
+        ZobristTest.class
         })
 public class ChessTests {
 }
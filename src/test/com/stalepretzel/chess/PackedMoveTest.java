@@ -0,0 +1,86 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.IllegalMoveException;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.chess.piece.Queen;
+import com.stalepretzel.player.SearchBoard;
+
+public class PackedMoveTest {
+
+    /** Assert that every legal move of a position survives packing and unpacking. */
+    private static void assertRoundTrips(ChessPosition position) {
+        for (ChessMove move : position.moves()) {
+            int packed = PackedMove.fromChessMove(move, position);
+            assertTrue(packed != SearchBoard.NO_MOVE);
+            assertEquals(move, PackedMove.toChessMove(packed));
+            assertEquals(move.getStart().getIndex(), PackedMove.start(packed));
+            assertEquals(move.getEnd().getIndex(), PackedMove.end(packed));
+            assertEquals(move.capturedSquare(position) != null, PackedMove.isCapture(packed));
+            assertEquals(move instanceof PromotionMove, PackedMove.isPromotion(packed));
+            assertEquals(move instanceof CastlingMove, PackedMove.isCastling(packed));
+        }
+    }
+
+    @Test
+    public void testNewGame() {
+        assertRoundTrips(new ChessPositionBuilder().setupNewGame().build());
+    }
+
+    @Test
+    public void testMiddlegame() throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6", "Ng5", "d5", "exd5", "Nxd5"};
+        assertRoundTrips(Game.fromMoves(moves).getCurrentPosition());
+    }
+
+    @Test
+    public void testCastling() {
+        String[] placements = {"WRa1", "WKe1", "WRh1", "BRa8", "BKe8", "BRh8"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        assertRoundTrips(position);
+
+        int kingside = PackedMove.fromChessMove(new CastlingMove(CastlingMove.Side.KINGSIDE,
+                                                                 Piece.Color.WHITE), position);
+        assertEquals(PackedMove.KING_CASTLE, PackedMove.flags(kingside));
+        assertEquals(Square.algebraic("g1").getIndex(), PackedMove.end(kingside));
+    }
+
+    @Test
+    public void testBlackPromotionCaptures() {
+        String[] placements = {"WKh8", "BKa8", "BPc2", "WRd1"};
+        ChessPositionBuilder builder = new ChessPositionBuilder().placePieces(placements);
+        builder.flipToMoveColor();
+        ChessPosition position = builder.build();
+        assertRoundTrips(position);
+
+        PromotionMove promotion = new PromotionMove(new NormalChessMove("c2", "d1"),
+                                                    new Queen(Piece.Color.BLACK));
+        int packed = PackedMove.fromChessMove(promotion, position);
+        assertTrue(PackedMove.isCapture(packed));
+        assertEquals(Piece.Type.QUEEN, PackedMove.promotedType(packed));
+        assertEquals("c2d1q", PackedMove.toString(packed));
+    }
+
+    @Test
+    public void testEnPassant() {
+        String[] placements = {"WKc3", "BKa8", "WPg5", "BPf5"};
+        ChessPositionBuilder builder = new ChessPositionBuilder().placePieces(placements);
+        builder.setEnPassantSquare(Square.algebraic("f6"));
+        ChessPosition position = builder.build();
+        assertRoundTrips(position);
+
+        int enPassant = PackedMove.fromChessMove(new NormalChessMove("g5", "f6"), position);
+        assertEquals(PackedMove.EN_PASSANT, PackedMove.flags(enPassant));
+        assertTrue(PackedMove.isTactical(enPassant));
+        int doublePush = PackedMove.fromChessMove(new NormalChessMove("e2", "e4"),
+                                                  new ChessPositionBuilder().setupNewGame().build());
+        assertEquals(PackedMove.DOUBLE_PUSH, PackedMove.flags(doublePush));
+        assertFalse(PackedMove.isTactical(doublePush));
+    }
+}
@@ -0,0 +1,86 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.exceptions.FenException;
+
+/**
+ * Checks perft counts against the published ones, from
+ * https://www.chessprogramming.org/Perft_Results.
+ *
+ * Counting with moves() and result is slow, so the deepest count of
+ * each position is only checked on a ChessSearchBoard.
+ */
+public class PerftTest {
+
+    private static final String KIWIPETE =
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // Lots of en passant, including captures that would expose the king.
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    // Promotions, including capturing ones, and castling rights for black only.
+    private static final String POSITION_4 =
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 =
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    /**
+     * Assert that a position has the published perft counts, by both
+     * ways of counting, then the deepest one on a ChessSearchBoard only.
+     * @param counts The counts at depths 1, 2, ...
+     */
+    private static void assertPerft(ChessPosition position, long... counts) {
+        for (int depth = 1; depth < counts.length; depth++) {
+            assertEquals(counts[depth - 1], Perft.perft(position, depth));
+            assertEquals(counts[depth - 1], Perft.searchBoardPerft(position, depth));
+        }
+        assertEquals(counts[counts.length - 1], Perft.searchBoardPerft(position, counts.length));
+    }
+
+    private static ChessPosition fen(String fen) throws FenException {
+        return new ChessPositionBuilder().setupFen(fen).build();
+    }
+
+    @Test
+    public void testNewGame() {
+        ChessPosition newGame = new ChessPositionBuilder().setupNewGame().build();
+        assertEquals(1, Perft.perft(newGame, 0));
+        assertPerft(newGame, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    public void testKiwipete() throws FenException {
+        assertPerft(fen(KIWIPETE), 48, 2039, 97862);
+    }
+
+    @Test
+    public void testPosition3() throws FenException {
+        assertPerft(fen(POSITION_3), 14, 191, 2812, 43238);
+    }
+
+    @Test
+    public void testPosition4() throws FenException {
+        assertPerft(fen(POSITION_4), 6, 264, 9467);
+    }
+
+    @Test
+    public void testPosition5() throws FenException {
+        assertPerft(fen(POSITION_5), 44, 1486, 62379);
+    }
+
+    @Test
+    public void testDivide() {
+        ChessPosition newGame = new ChessPositionBuilder().setupNewGame().build();
+        Map<ChessMove, Long> counts = Perft.divide(newGame, 3);
+        assertEquals(20, counts.size());
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        assertEquals(8902, total);
+        assertEquals(Long.valueOf(600), counts.get(new NormalChessMove("e2", "e4")));
+    }
+}
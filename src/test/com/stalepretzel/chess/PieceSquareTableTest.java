@@ -0,0 +1,88 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
+
+public class PieceSquareTableTest {
+
+    private static final int GAME_COUNT = 20;
+    private static final int MAX_PLIES = 80;
+
+    /** Assert that a position's incrementally updated value and phase match from-scratch ones. */
+    private static void assertValueCorrect(ChessPosition position) {
+        assertEquals(PieceSquareTable.value(position), position.getPieceSquareValue());
+        assertEquals(PieceSquareTable.phase(position), position.getPhase());
+    }
+
+    /**
+     * Play random games, checking the values of every position reached,
+     * by ChessMove.result in both Representations, and by a ChessSearchBoard.
+     */
+    @Test
+    public void testRandomGames() {
+        Random random = new Random(7);
+        for (int game = 0; game < GAME_COUNT; game++) {
+            ChessPosition array = new ChessPositionBuilder().setRepresentation(Representation.ARRAY)
+                                                            .setupNewGame().build();
+            ChessPosition bitboard = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                               .setupNewGame().build();
+            ChessSearchBoard board = new ChessSearchBoard(array);
+            List<Integer> values = new ArrayList<Integer>();
+            int madeCount = 0;
+
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                assertValueCorrect(array);
+                assertValueCorrect(bitboard);
+                assertValueCorrect(board);
+                assertEquals(array.getPieceSquareValue(), bitboard.getPieceSquareValue());
+                assertEquals(array.getPieceSquareValue(), board.getPieceSquareValue());
+                values.add(board.getPieceSquareValue());
+
+                List<ChessMove> moves = new ArrayList<ChessMove>(array.moves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                array = move.result(array);
+                bitboard = move.result(bitboard);
+                assertTrue(board.makeMove(board.fromMove(move)));
+                madeCount++;
+            }
+
+            // Unmaking should restore each value along the way.
+            for (int i = madeCount - 1; i >= 0; i--) {
+                board.unmakeMove();
+                assertEquals(values.get(i).intValue(), board.getPieceSquareValue());
+            }
+        }
+    }
+
+    @Test
+    public void testNewGameIsEven() {
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        assertEquals(0, position.getPieceSquareValue());
+        assertEquals(PieceSquareTable.MAX_PHASE, position.getPhase());
+    }
+
+    @Test
+    public void testMirroredPositionsAreOpposite() {
+        String[] whitePlacements = {"WKg1", "WNf3", "WPe4", "BKe8"};
+        String[] blackPlacements = {"BKg8", "BNf6", "BPe5", "WKe1"};
+        ChessPosition white = new ChessPositionBuilder().placePieces(whitePlacements).build();
+        ChessPosition black = new ChessPositionBuilder().placePieces(blackPlacements).build();
+        assertEquals(-white.getPieceSquareValue(), black.getPieceSquareValue());
+
+        // A centralized knight is worth more than a knight in the corner.
+        String[] cornerPlacements = {"WKg1", "WNa1", "WPe4", "BKe8"};
+        ChessPosition corner = new ChessPositionBuilder().placePieces(cornerPlacements).build();
+        assertTrue(white.getPieceSquareValue() > corner.getPieceSquareValue());
+    }
+}
@@ -0,0 +1,83 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.stalepretzel.TestUtil;
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.FenException;
+import com.stalepretzel.chess.exceptions.IllegalMoveException;
+
+/**
+ * Tests that run once per ChessPositionBuilder.Representation.
+ *
+ * The other ChessPosition tests build the default Representation.
+ * These check that each one generates the same moves and results,
+ * with perft counts over positions that castle, capture en passant
+ * and promote.  (See PerftTest.)
+ */
+@RunWith(Parameterized.class)
+public class RepresentationTest {
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> representations() {
+        return TestUtil.representations();
+    }
+
+    private final Representation representation;
+
+    public RepresentationTest(Representation representation) {
+        this.representation = representation;
+    }
+
+    private ChessPosition fen(String fen) throws FenException {
+        return new ChessPositionBuilder(representation).setupFen(fen).build();
+    }
+
+    @Test
+    public void testNewGame() {
+        ChessPosition newGame = new ChessPositionBuilder(representation).setupNewGame().build();
+        TestUtil.assertIsNewGame(newGame);
+        assertEquals(new ChessPositionBuilder().setupNewGame().build(), newGame);
+        assertEquals(8902, Perft.perft(newGame, 3));
+    }
+
+    @Test
+    public void testKiwipete() throws FenException {
+        ChessPosition position =
+                fen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertEquals(2039, Perft.perft(position, 2));
+    }
+
+    @Test
+    public void testEnPassant() throws FenException {
+        assertEquals(2812, Perft.perft(fen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"), 3));
+    }
+
+    @Test
+    public void testPromotions() throws FenException {
+        ChessPosition position =
+                fen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        assertEquals(264, Perft.perft(position, 2));
+    }
+
+    @Test
+    public void testGame() throws AlgebraicNotationException, IllegalMoveException {
+        String[] moves = {"e4", "d5", "exd5", "c5", "dxc6", "Nf6", "cxb7", "e5", "bxa8=Q", "Bc5",
+                          "Nf3", "O-O"};
+        ChessPosition position = Game.fromMoves(moves, representation).getCurrentPosition();
+        ChessPosition expected = Game.fromMoves(moves).getCurrentPosition();
+        for (Square square : Square.ALL) {
+            assertEquals(expected.getPiece(square), position.getPiece(square));
+        }
+        assertEquals(expected, position);
+        TestUtil.assertSameElements(expected.moves(), position.moves());
+    }
+}
@@ -0,0 +1,124 @@
+package com.stalepretzel.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPositionBuilder.Representation;
+import com.stalepretzel.chess.exceptions.AlgebraicNotationException;
+import com.stalepretzel.chess.exceptions.IllegalMoveException;
+import com.stalepretzel.chess.piece.Piece;
+
+public class ZobristTest {
+
+    private static final int GAME_COUNT = 20;
+    private static final int MAX_PLIES = 80;
+
+    /** Assert that a position's incrementally updated keys match from-scratch keys. */
+    private static void assertKeyCorrect(ChessPosition position) {
+        assertEquals(Zobrist.key(position), position.getZobristKey());
+        assertEquals(Zobrist.pawnKey(position), position.getPawnKey());
+    }
+
+    /**
+     * Play random games, checking the keys of every position reached,
+     * by ChessMove.result in both Representations, and by a ChessSearchBoard.
+     */
+    @Test
+    public void testRandomGames() {
+        Random random = new Random(5);
+        for (int game = 0; game < GAME_COUNT; game++) {
+            ChessPosition array = new ChessPositionBuilder().setRepresentation(Representation.ARRAY)
+                                                            .setupNewGame().build();
+            ChessPosition bitboard = new ChessPositionBuilder().setRepresentation(Representation.BITBOARD)
+                                                               .setupNewGame().build();
+            ChessSearchBoard board = new ChessSearchBoard(array);
+            List<Long> keys = new ArrayList<Long>();
+            int madeCount = 0;
+
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                assertKeyCorrect(array);
+                assertKeyCorrect(bitboard);
+                assertKeyCorrect(board);
+                assertEquals(array.getZobristKey(), bitboard.getZobristKey());
+                assertEquals(array.getZobristKey(), board.getZobristKey());
+                keys.add(board.getZobristKey());
+
+                List<ChessMove> moves = new ArrayList<ChessMove>(array.moves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                array = move.result(array);
+                bitboard = move.result(bitboard);
+                assertTrue(board.makeMove(board.fromMove(move)));
+                madeCount++;
+            }
+
+            // Unmaking should restore each key along the way.
+            for (int i = madeCount - 1; i >= 0; i--) {
+                board.unmakeMove();
+                assertEquals(keys.get(i).longValue(), board.getZobristKey());
+                assertEquals(Zobrist.pawnKey(board), board.getPawnKey());
+            }
+        }
+    }
+
+    @Test
+    public void testTranspositionsMatch() throws AlgebraicNotationException, IllegalMoveException {
+        String[] oneOrder = {"Nf3", "Nf6", "Nc3", "Nc6"};
+        String[] otherOrder = {"Nc3", "Nc6", "Nf3", "Nf6"};
+        ChessPosition one = Game.fromMoves(oneOrder).getCurrentPosition();
+        ChessPosition other = Game.fromMoves(otherOrder).getCurrentPosition();
+        assertEquals(one, other);
+        assertEquals(one.getZobristKey(), other.getZobristKey());
+        assertEquals(one.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void testFeaturesChangeKey() {
+        String[] placements = {"WKe1", "WRh1", "WPe4", "BKe8"};
+        ChessPosition base = new ChessPositionBuilder().placePieces(placements).build();
+
+        ChessPosition blackToMove = new ChessPositionBuilder(base)
+                .setToMoveColor(Piece.Color.BLACK).build();
+        ChessPosition enPassant = new ChessPositionBuilder(base)
+                .setEnPassantSquare(Square.algebraic("e3")).build();
+        ChessPosition noCastling = new ChessPositionBuilder(base)
+                .setCastlingInfo(CastlingInfo.fromId(0)).build();
+        ChessPosition moved = new ChessPositionBuilder(base)
+                .vacate(Square.algebraic("e4")).placePiece("WPe5").build();
+
+        for (ChessPosition changed : new ChessPosition[] {blackToMove, enPassant, noCastling, moved}) {
+            assertKeyCorrect(changed);
+            assertFalse(base.getZobristKey() == changed.getZobristKey());
+        }
+
+        // Changing a feature and changing it back restores the key.
+        ChessPosition restored = new ChessPositionBuilder(blackToMove)
+                .setToMoveColor(Piece.Color.WHITE).build();
+        assertEquals(base.getZobristKey(), restored.getZobristKey());
+    }
+
+    @Test
+    public void testPawnKeyDependsOnlyOnPawns() {
+        String[] placements = {"WKe1", "WRh1", "WPe4", "BKe8", "BPd5"};
+        ChessPosition base = new ChessPositionBuilder().placePieces(placements).build();
+
+        ChessPosition kingMoved = new ChessPositionBuilder(base)
+                .vacate(Square.algebraic("e1")).placePiece("WKf1")
+                .setToMoveColor(Piece.Color.BLACK).build();
+        assertEquals(base.getPawnKey(), kingMoved.getPawnKey());
+
+        ChessPosition pawnMoved = new ChessPositionBuilder(base)
+                .vacate(Square.algebraic("e4")).placePiece("WPe5").build();
+        assertFalse(base.getPawnKey() == pawnMoved.getPawnKey());
+        assertEquals(0L, new ChessPositionBuilder().placePiece("WKe1").build().getPawnKey());
+    }
+}
@@ -87,7 +87,7 @@ public class NormalChessMoveTest {
         final ChessPosition position = builder.build();
         final NormalChessMove enPassantCapture = new NormalChessMove("e5", "d6");
 
-        final Square capturedSquare = Square.algebraic("d6");
+        final Square capturedSquare = Square.algebraic("d5");
         assertEquals(capturedSquare, enPassantCapture.capturedSquare(position));
     }
 
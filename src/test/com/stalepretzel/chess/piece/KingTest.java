@@ -1,5 +1,6 @@
 package com.stalepretzel.chess.piece;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -134,6 +135,21 @@ public class KingTest {
         assertFalse(WHITE_KING.isSane(castles, position));
     }
 
+    @Test
+    public void testOnlyOwnCastlingIsProposed() {
+        builder.placePiece("WKe1").placePiece("BKe8");
+        builder.placePiece("WRa1").placePiece("WRh1");
+        builder.placePiece("BRa8").placePiece("BRh8");
+        position = builder.build();
+
+        // White is to move, but the black king proposes only its own castling.
+        for (ChessMove move : BLACK_KING.saneMoves(Square.algebraic("e8"), position)) {
+            if (move instanceof CastlingMove) {
+                assertEquals(Piece.Color.BLACK, ((CastlingMove) move).getColor());
+            }
+        }
+    }
+
     @Test
     public void testSaneMoves() {
         builder.placePiece("WKe1").placePiece("BKe8");
@@ -0,0 +1,71 @@
+package com.stalepretzel.chess.player;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessMove;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.player.MoveList;
+
+public class ChessGainEstimatorTest {
+
+    private static final int GAME_COUNT = 20;
+    private static final int MAX_PLIES = 120;
+
+    /** Assert that no tactical move gains more piece-square value than estimated. */
+    private static void assertNoUnderestimates(ChessSearchBoard board, ChessGainEstimator gains) {
+        int sign = board.getToMoveColor() == Piece.Color.WHITE ? 1 : -1;
+        int before = board.getPieceSquareValue();
+        MoveList moves = new MoveList();
+        board.tacticalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int maxGain = gains.maxGain(move, board);
+            if (board.makeMove(move)) {
+                int gain = sign * (board.getPieceSquareValue() - before);
+                board.unmakeMove();
+                assertTrue(gain <= maxGain);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomGames() {
+        ChessGainEstimator gains = new ChessGainEstimator();
+        Random random = new Random(11);
+        for (int game = 0; game < GAME_COUNT; game++) {
+            ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+            ChessSearchBoard board = new ChessSearchBoard(position);
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                assertNoUnderestimates(board, gains);
+                List<ChessMove> moves = new ArrayList<ChessMove>(position.moves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                ChessMove move = moves.get(random.nextInt(moves.size()));
+                position = move.result(position);
+                assertTrue(board.makeMove(board.fromMove(move)));
+            }
+        }
+    }
+
+    @Test
+    public void testPromotions() {
+        // Pawns about to promote, by pushing or by capturing.
+        String[] placements = {"WKg1", "WPb7", "BRa8", "BKg8", "BPe2", "WNd1"};
+        ChessPosition white = new ChessPositionBuilder().placePieces(placements).build();
+        ChessPosition black = new ChessPositionBuilder().placePieces(placements)
+                                                        .setToMoveColor(Piece.Color.BLACK).build();
+        ChessGainEstimator gains = new ChessGainEstimator();
+        assertNoUnderestimates(new ChessSearchBoard(white), gains);
+        assertNoUnderestimates(new ChessSearchBoard(black), gains);
+    }
+}
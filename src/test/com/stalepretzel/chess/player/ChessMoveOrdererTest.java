@@ -0,0 +1,82 @@
+package com.stalepretzel.chess.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessMove;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.PackedMove;
+import com.stalepretzel.player.MoveList;
+import com.stalepretzel.player.SearchBoard;
+
+public class ChessMoveOrdererTest {
+
+    // White can take the rook on g4, the pawns on b5 and d5, and the
+    // pawn on a4, which b5 defends.
+    private static final String[] PLACEMENTS = {"WKa1", "WQd1", "WNc3", "BKh8", "BRg4",
+                                                "BPa4", "BPb5", "BPd5"};
+    private static final int GOOD_CAPTURE_COUNT = 4;
+
+    private static final ChessPosition POSITION = new ChessPositionBuilder().placePieces(PLACEMENTS).build();
+
+    /** Pack a legal move of POSITION, from and to squares in algebraic notation. */
+    private static int pack(String start, String end) {
+        return PackedMove.fromChessMove(new NormalChessMove(start, end), POSITION);
+    }
+
+    /** Get POSITION's legal moves, packed, in the order some orderer gives them. */
+    private static MoveList orderedMoves(ChessMoveOrderer orderer, int hashMove, int pliesFromRoot) {
+        MoveList moves = new MoveList();
+        for (ChessMove move : POSITION.moves()) {
+            moves.add(PackedMove.fromChessMove(move, POSITION));
+        }
+        orderer.order(moves, POSITION, hashMove, pliesFromRoot);
+        return moves;
+    }
+
+    @Test
+    public void testCapturesFirst() {
+        MoveList moves = orderedMoves(new ChessMoveOrderer(), SearchBoard.NO_MOVE, 0);
+        // The most valuable victim first...
+        assertEquals(pack("d1", "g4"), moves.get(0));
+        // ...then the pawns, least valuable attacker first.
+        assertEquals(pack("d1", "d5"), moves.get(GOOD_CAPTURE_COUNT - 1));
+        // Captures that would be recaptured go last.
+        assertEquals(pack("c3", "a4"), moves.get(moves.size() - 2));
+        assertEquals(pack("d1", "a4"), moves.get(moves.size() - 1));
+    }
+
+    @Test
+    public void testHashMoveFirst() {
+        int hashMove = pack("a1", "b1");
+        MoveList moves = orderedMoves(new ChessMoveOrderer(), hashMove, 0);
+        assertEquals(hashMove, moves.get(0));
+    }
+
+    @Test
+    public void testKillersAndHistory() {
+        ChessMoveOrderer orderer = new ChessMoveOrderer();
+        int killer = pack("a1", "b2");
+        int capture = pack("d1", "g4");
+        orderer.cutoff(killer, POSITION, 0, 3);
+        // Captures don't become killers.
+        orderer.cutoff(capture, POSITION, 0, 3);
+
+        MoveList moves = orderedMoves(orderer, SearchBoard.NO_MOVE, 0);
+        // The killer comes right after the good captures.
+        assertEquals(killer, moves.get(GOOD_CAPTURE_COUNT));
+
+        // At other plies, the killer is only ordered by its history,
+        // which still puts it ahead of other quiet moves.
+        MoveList deeperMoves = orderedMoves(orderer, SearchBoard.NO_MOVE, 1);
+        assertEquals(killer, deeperMoves.get(GOOD_CAPTURE_COUNT));
+
+        // A new search forgets killers.
+        orderer.newSearch();
+        assertTrue(orderedMoves(orderer, SearchBoard.NO_MOVE, 0).indexOf(killer) >= GOOD_CAPTURE_COUNT);
+    }
+}
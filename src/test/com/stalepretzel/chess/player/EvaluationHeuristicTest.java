@@ -0,0 +1,166 @@
+package com.stalepretzel.chess.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessMove;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.PieceSquareTable;
+import com.stalepretzel.chess.Square;
+import com.stalepretzel.chess.piece.Piece;
+import com.stalepretzel.player.AlphaBeta;
+
+public class EvaluationHeuristicTest {
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+
+    /** Get a position with the colors swapped, and the board flipped top to bottom. */
+    private static ChessPosition mirror(ChessPosition position) {
+        ChessPositionBuilder builder = new ChessPositionBuilder();
+        for (Square square : Square.ALL) {
+            Piece piece = position.getPiece(square);
+            if (piece != null) {
+                char color = piece.getColor() == Piece.Color.WHITE ? 'B' : 'W';
+                char type = PIECE_LETTERS.charAt(piece.getType().ordinal());
+                Square mirrored = Square.fromIndex(square.getIndex() ^ 56);
+                builder.placePiece("" + color + type + mirrored);
+            }
+        }
+        return builder.setToMoveColor(position.getToMoveColor().opposite()).build();
+    }
+
+    @Test
+    public void testTaperedScoresPack() {
+        int[] values = {0, 1, -1, 250, -250, 4000, -4000, 32767, -32768};
+        for (int middlegame : values) {
+            for (int endgame : values) {
+                int score = TaperedScore.pack(middlegame, endgame);
+                assertEquals(middlegame, TaperedScore.middlegame(score));
+                assertEquals(endgame, TaperedScore.endgame(score));
+            }
+        }
+        // Packed scores add like their parts.
+        int sum = TaperedScore.pack(30, -70) + TaperedScore.pack(-50, 20);
+        assertEquals(-20, TaperedScore.middlegame(sum));
+        assertEquals(-50, TaperedScore.endgame(sum));
+    }
+
+    @Test
+    public void testTaper() {
+        int score = TaperedScore.pack(100, 300);
+        assertEquals(100, TaperedScore.taper(score, PieceSquareTable.MAX_PHASE));
+        assertEquals(100, TaperedScore.taper(score, PieceSquareTable.MAX_PHASE + 4));
+        assertEquals(300, TaperedScore.taper(score, 0));
+        assertEquals(200, TaperedScore.taper(score, PieceSquareTable.MAX_PHASE / 2));
+    }
+
+    /** Every term should see a mirrored position as the opposite of the original. */
+    @Test
+    public void testMirroredPositionsAreOpposite() {
+        Random random = new Random(11);
+        EvaluationHeuristic heuristic = new EvaluationHeuristic();
+        for (int game = 0; game < 10; game++) {
+            ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+            for (int ply = 0; ply < 60; ply++) {
+                ChessPosition mirrored = mirror(position);
+                assertEquals(position.getPhase(), mirrored.getPhase());
+                for (EvaluationTerm term : heuristic.getTerms()) {
+                    assertEquals(term.getClass().getSimpleName(),
+                                 -term.value(position), term.value(mirrored));
+                }
+                assertEquals(-heuristic.value(position), heuristic.value(mirrored));
+
+                List<ChessMove> moves = new ArrayList<ChessMove>(position.moves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position = moves.get(random.nextInt(moves.size())).result(position);
+            }
+        }
+    }
+
+    @Test
+    public void testSwitchingTerms() {
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        EvaluationHeuristic heuristic = new EvaluationHeuristic()
+                .setEnabled(MobilityTerm.class, false)
+                .setEnabled(PawnStructureTerm.class, false)
+                .setEnabled(KingSafetyTerm.class, false);
+        // In the opening, only the middlegame tables count.
+        assertEquals(position.getPieceSquareValue(), heuristic.value(position));
+
+        String[] placements = {"WKg1", "WPf2", "WPg2", "WPh2", "WNc3", "BKe8"};
+        ChessPosition endgame = new ChessPositionBuilder().placePieces(placements).build();
+        int pieceSquare = heuristic.value(endgame);
+        heuristic.setEnabled(MobilityTerm.class, true);
+        assertTrue(heuristic.value(endgame) > pieceSquare);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSwitchingMissingTerm() {
+        new EvaluationHeuristic(new PieceSquareTerm()).setEnabled(MobilityTerm.class, false);
+    }
+
+    @Test
+    public void testTiming() {
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        EvaluationHeuristic heuristic = new EvaluationHeuristic().setEnabled(KingSafetyTerm.class, false);
+        int untimed = heuristic.value(position);
+        heuristic.setTiming(true);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(untimed, heuristic.value(position));
+        }
+        assertEquals(100, heuristic.getTimedCalls());
+        for (EvaluationTerm term : heuristic.getTerms()) {
+            if (term instanceof KingSafetyTerm) {
+                assertEquals(0, heuristic.getNanos(term));
+            } else {
+                assertTrue(heuristic.getNanos(term) > 0);
+            }
+        }
+    }
+
+    @Test
+    public void testPawnStructure() {
+        EvaluationTerm term = new PawnStructureTerm();
+        String[] healthy = {"WKg1", "WPe4", "WPf4", "BKg8", "BPe5", "BPf5"};
+        String[] doubledIsolated = {"WKg1", "WPc4", "WPc3", "BKg8", "BPe5", "BPf5"};
+        String[] passed = {"WKg1", "WPe4", "WPf6", "BKg8", "BPe5", "BPa7"};
+        int healthyScore = term.value(new ChessPositionBuilder().placePieces(healthy).build());
+        int weakScore = term.value(new ChessPositionBuilder().placePieces(doubledIsolated).build());
+        int passedScore = term.value(new ChessPositionBuilder().placePieces(passed).build());
+        assertEquals(0, healthyScore);
+        assertTrue(TaperedScore.middlegame(weakScore) < 0);
+        assertTrue(TaperedScore.endgame(weakScore) < TaperedScore.middlegame(weakScore));
+        assertTrue(TaperedScore.endgame(passedScore) > TaperedScore.middlegame(passedScore));
+        assertTrue(TaperedScore.middlegame(passedScore) > 0);
+    }
+
+    @Test
+    public void testKingSafety() {
+        EvaluationTerm term = new KingSafetyTerm();
+        String[] sheltered = {"WKg1", "WPf2", "WPg2", "WPh2", "BKg8", "BPf7", "BPg7", "BPh7"};
+        String[] exposed = {"WKg1", "WPf2", "WPa2", "WPb2", "BKg8", "BPf7", "BPg7", "BPh7"};
+        assertEquals(0, term.value(new ChessPositionBuilder().placePieces(sheltered).build()));
+        int exposedScore = term.value(new ChessPositionBuilder().placePieces(exposed).build());
+        assertTrue(TaperedScore.middlegame(exposedScore) < 0);
+        assertEquals(0, TaperedScore.endgame(exposedScore));
+    }
+
+    @Test
+    public void testSolvesTactics() {
+        AlphaBeta<ChessPosition> search = new AlphaBeta<ChessPosition>(new EvaluationHeuristic(),
+                                                                       ChessSearchBoard.FACTORY)
+                .setMoveOrderer(new ChessMoveOrderer())
+                .setQuiescence(true);
+        assertEquals(TacticsSuite.problems().size(), TacticsSuite.solvedCount(search));
+    }
+}
@@ -0,0 +1,128 @@
+package com.stalepretzel.chess.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessMove;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+
+public class PawnHashTableTest {
+
+    private static final int MAX_PLIES = 80;
+
+    /** Play a random game, returning every position reached. */
+    private static List<ChessPosition> randomGame(Random random) {
+        List<ChessPosition> positions = new ArrayList<ChessPosition>();
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            positions.add(position);
+            List<ChessMove> moves = new ArrayList<ChessMove>(position.moves());
+            if (moves.isEmpty()) {
+                break;
+            }
+            position = moves.get(random.nextInt(moves.size())).result(position);
+        }
+        return positions;
+    }
+
+    @Test
+    public void testCapacity() {
+        assertEquals(1 << 17, new PawnHashTable(1).getCapacity());
+        assertEquals(1 << 20, new PawnHashTable(8).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadBudget() {
+        new PawnHashTable(0);
+    }
+
+    @Test
+    public void testMatchesUncachedScores() {
+        Random random = new Random(13);
+        EvaluationTerm uncached = new PawnStructureTerm();
+        PawnHashTable table = new PawnHashTable(1);
+        table.setCounting(true);
+        EvaluationTerm cached = new PawnStructureTerm(table);
+        int lookups = 0;
+        for (int game = 0; game < 20; game++) {
+            for (ChessPosition position : randomGame(random)) {
+                assertEquals(uncached.value(position), cached.value(position));
+                // The second lookup must hit.
+                assertEquals(uncached.value(position), cached.value(position));
+                lookups += 2;
+            }
+        }
+        assertEquals(lookups, table.getHits() + table.getMisses());
+        assertTrue(table.getHits() >= lookups / 2);
+    }
+
+    @Test
+    public void testCounts() {
+        PawnHashTable table = new PawnHashTable(1);
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        // Nothing is counted until counting is on.
+        table.score(position);
+        assertEquals(0, table.getHits() + table.getMisses());
+        table.clear();
+        table.setCounting(true);
+        assertEquals(0, table.getHitRate(), 0);
+        table.score(position);
+        assertEquals(0, table.getHits());
+        assertEquals(1, table.getMisses());
+        table.score(position);
+        table.score(position);
+        table.score(position);
+        assertEquals(3, table.getHits());
+        assertEquals(0.75, table.getHitRate(), 1e-9);
+
+        table.resetCounts();
+        assertEquals(0, table.getHits());
+        assertEquals(0, table.getMisses());
+        table.clear();
+        table.score(position);
+        assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    public void testConcurrentUse() throws InterruptedException {
+        final PawnHashTable table = new PawnHashTable(1);
+        table.setCounting(true);
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger lookups = new AtomicInteger();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final Random random = new Random(t);
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    EvaluationTerm uncached = new PawnStructureTerm();
+                    EvaluationTerm cached = new PawnStructureTerm(table);
+                    for (int game = 0; game < 10; game++) {
+                        for (ChessPosition position : randomGame(random)) {
+                            lookups.incrementAndGet();
+                            if (uncached.value(position) != cached.value(position)) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+        assertEquals(lookups.get(), table.getHits() + table.getMisses());
+    }
+}
@@ -0,0 +1,110 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessMoveOrderer;
+import com.stalepretzel.chess.player.ChessSearch;
+
+public class AlphaBetaTest {
+
+    private static final String[] TWO_KNIGHTS = {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6",
+                                                 "Ng5", "d5", "exd5", "Nxd5"};
+
+    /**
+     * Assert that a Decision's variation is playable, at least some
+     * plies long, and leads to a Position whose value is the Decision's
+     * score, as an exact search's principal variation must.
+     */
+    private static void assertVariationLeadsToScore(ChessPosition position, Decision<ChessPosition> decision,
+                                                    int minLength) {
+        assertTrue(decision.getVariation().size() >= minLength);
+        ChessPosition end = position;
+        for (Move<ChessPosition> move : decision.getVariation()) {
+            assertTrue(end.moves().contains(move));
+            end = move.result(end);
+        }
+        int value = new BoardPieceValueHeuristic().value(end);
+        assertEquals(IntScore.toScore(value), decision.getScore());
+    }
+
+    @Test
+    public void testVariationWhenExtending() throws ChessException {
+        ChessPosition position = Game.fromMoves(TWO_KNIGHTS).getCurrentPosition();
+        AlphaBeta<ChessPosition> search =
+                new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                .setMoveOrderer(new ChessMoveOrderer());
+        for (int depth = 1; depth <= 4; depth++) {
+            assertVariationLeadsToScore(position, search.bestDecision(position, depth), depth);
+        }
+    }
+
+    @Test
+    public void testVariationWithQuiescence() throws ChessException {
+        ChessPosition position = Game.fromMoves(TWO_KNIGHTS).getCurrentPosition();
+        AlphaBeta<ChessPosition> search =
+                new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                .setMoveOrderer(new ChessMoveOrderer())
+                .setQuiescence(true)
+                .setPrincipalVariationSearch(true);
+        for (int depth = 1; depth <= 4; depth++) {
+            assertVariationLeadsToScore(position, search.bestDecision(position, depth), depth);
+        }
+    }
+
+    /** A Heuristic that counts its evaluations. */
+    private static class CountingHeuristic implements Heuristic<ChessPosition> {
+        private final Heuristic<ChessPosition> heuristic = new BoardPieceValueHeuristic();
+        private long count;
+
+        @Override
+        public int value(ChessPosition position) {
+            count++;
+            return heuristic.value(position);
+        }
+    }
+
+    /** Get a search with every kind of pruning, and a TranspositionTable. */
+    private static AlphaBeta<ChessPosition> prunedSearch(Heuristic<ChessPosition> heuristic,
+                                                         boolean quiescence) {
+        return ChessSearch.newAlphaBeta(heuristic, 1).setQuiescence(quiescence);
+    }
+
+    /**
+     * Assert that searches with and without lazy evaluation find the
+     * same Decisions, visiting the same nodes, and that the lazy one
+     * evaluates fewer Positions.
+     */
+    private static void assertLazyEvaluationAgrees(boolean quiescence) throws ChessException {
+        ChessPosition position = Game.fromMoves(TWO_KNIGHTS).getCurrentPosition();
+        CountingHeuristic eager = new CountingHeuristic();
+        CountingHeuristic lazy = new CountingHeuristic();
+        AlphaBeta<ChessPosition> eagerSearch = prunedSearch(eager, quiescence).setLazyEvaluation(false);
+        AlphaBeta<ChessPosition> lazySearch = prunedSearch(lazy, quiescence);
+        for (int depth = 1; depth <= 4; depth++) {
+            Decision<ChessPosition> eagerDecision = eagerSearch.bestDecision(position, depth);
+            Decision<ChessPosition> lazyDecision = lazySearch.bestDecision(position, depth);
+            assertEquals(eagerDecision.getVariation(), lazyDecision.getVariation());
+            assertEquals(eagerDecision.getScore(), lazyDecision.getScore());
+            assertEquals(eagerSearch.getNodeCount(), lazySearch.getNodeCount());
+        }
+        assertTrue(lazy.count < eager.count);
+    }
+
+    @Test
+    public void testLazyEvaluationWhenExtending() throws ChessException {
+        assertLazyEvaluationAgrees(false);
+    }
+
+    @Test
+    public void testLazyEvaluationWithQuiescence() throws ChessException {
+        assertLazyEvaluationAgrees(true);
+    }
+}
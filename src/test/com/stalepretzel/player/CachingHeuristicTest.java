@@ -0,0 +1,101 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessMove;
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.ChessSearch;
+import com.stalepretzel.chess.player.EvaluationHeuristic;
+
+public class CachingHeuristicTest {
+
+    private static final int MEGABYTES = 1;
+
+    @Test
+    public void testCapacityIsPowerOfTwo() {
+        Heuristic<ChessPosition> heuristic = new EvaluationHeuristic();
+        int capacity = new CachingHeuristic<ChessPosition>(heuristic, MEGABYTES).getCapacity();
+        assertEquals(0, capacity & (capacity - 1));
+        int biggerCapacity = new CachingHeuristic<ChessPosition>(heuristic, 4 * MEGABYTES).getCapacity();
+        assertEquals(4 * capacity, biggerCapacity);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        new CachingHeuristic<ChessPosition>(new EvaluationHeuristic(), 0);
+    }
+
+    @Test
+    public void testValuesMatch() {
+        Random random = new Random(17);
+        Heuristic<ChessPosition> heuristic = new EvaluationHeuristic();
+        CachingHeuristic<ChessPosition> cache = new CachingHeuristic<ChessPosition>(heuristic, MEGABYTES);
+        cache.setCounting(true);
+        int lookups = 0;
+        for (int game = 0; game < 10; game++) {
+            ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+            for (int ply = 0; ply < 80; ply++) {
+                assertEquals(heuristic.value(position), cache.value(position));
+                // The second lookup hits.
+                assertEquals(heuristic.value(position), cache.value(position));
+                lookups += 2;
+
+                List<ChessMove> moves = new ArrayList<ChessMove>(position.moves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                position = moves.get(random.nextInt(moves.size())).result(position);
+            }
+        }
+        assertEquals(lookups, cache.getHits() + cache.getMisses());
+        assertTrue(cache.getHits() >= lookups / 2);
+    }
+
+    @Test
+    public void testCounts() {
+        CachingHeuristic<ChessPosition> cache =
+                new CachingHeuristic<ChessPosition>(new EvaluationHeuristic(), MEGABYTES);
+        cache.setCounting(true);
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        assertEquals(0, cache.getHitRate(), 0);
+        cache.value(position);
+        cache.value(position);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+
+        cache.resetCounts();
+        cache.clear();
+        cache.value(position);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testSearchesAgree() throws ChessException {
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7"};
+        ChessPosition position = Game.fromMoves(moves).getCurrentPosition();
+        CachingHeuristic<ChessPosition> cache =
+                new CachingHeuristic<ChessPosition>(new EvaluationHeuristic(), MEGABYTES);
+        cache.setCounting(true);
+        AlphaBeta<ChessPosition> plain = ChessSearch.newAlphaBeta(new EvaluationHeuristic(), 1);
+        AlphaBeta<ChessPosition> cached = ChessSearch.newAlphaBeta(cache, 1);
+
+        Decision<ChessPosition> plainDecision = plain.bestDecision(position, 3);
+        Decision<ChessPosition> cachedDecision = cached.bestDecision(position, 3);
+        assertEquals(plainDecision.getVariation(), cachedDecision.getVariation());
+        assertEquals(plainDecision.getScore(), cachedDecision.getScore());
+        assertEquals(plain.getNodeCount(), cached.getNodeCount());
+        assertTrue(cache.getHits() > 0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IntScoreTest {
+
+    private static final Score[] ASCENDING = {
+        TerminalScore.LOWEST,
+        TerminalScore.wins(Player.MINIMIZER, 1),
+        TerminalScore.wins(Player.MINIMIZER, 30),
+        new EstimatedScore(-1000.0f),
+        new EstimatedScore(-3.2f),
+        new EstimatedScore(0.0f),
+        new EstimatedScore(0.01f),
+        new EstimatedScore(9.0f),
+        TerminalScore.wins(Player.MAXIMIZER, 30),
+        TerminalScore.wins(Player.MAXIMIZER, 1),
+        TerminalScore.HIGHEST};
+
+    @Test
+    public void testRoundTrip() {
+        for (Score score : ASCENDING) {
+            assertEquals(score, IntScore.toScore(IntScore.fromScore(score)));
+        }
+    }
+
+    @Test
+    public void testOrderMatchesScores() {
+        for (int i = 0; i + 1 < ASCENDING.length; i++) {
+            assertTrue(ASCENDING[i + 1].greaterThan(ASCENDING[i]));
+            assertTrue(IntScore.fromScore(ASCENDING[i + 1]) > IntScore.fromScore(ASCENDING[i]));
+        }
+    }
+
+    @Test
+    public void testCentipawns() {
+        assertEquals(320, IntScore.fromPawns(3.2f));
+        assertEquals(-150, IntScore.fromScore(new EstimatedScore(-1.5f)));
+        // Huge estimates are clamped short of the mates.
+        assertEquals(IntScore.MAX_ESTIMATE, IntScore.fromPawns(Float.MAX_VALUE));
+        assertFalse(IntScore.isMate(IntScore.fromPawns(-Float.MAX_VALUE)));
+    }
+
+    @Test
+    public void testMates() {
+        int win = IntScore.wins(Player.MAXIMIZER, 4);
+        assertTrue(IntScore.isMate(win));
+        assertEquals(IntScore.loses(Player.MINIMIZER, 4), win);
+        assertEquals(IntScore.wins(Player.MAXIMIZER, 6), IntScore.plusPlies(win, 2));
+        assertEquals(IntScore.wins(Player.MINIMIZER, 2), IntScore.plusPlies(-win, -2));
+        // Estimates don't depend on where they're seen from.
+        assertEquals(150, IntScore.plusPlies(150, 7));
+        // Draws lose their plies.
+        assertEquals(IntScore.DRAW, IntScore.fromScore(TerminalScore.draw(5)));
+    }
+}
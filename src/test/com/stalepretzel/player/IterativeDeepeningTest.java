@@ -0,0 +1,156 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessSearch;
+import com.stalepretzel.player.TranspositionTable.Bound;
+
+public class IterativeDeepeningTest {
+
+    private static AlphaBeta<ChessPosition> newSearch() {
+        return new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                .setTranspositionTable(new TranspositionTable(1));
+    }
+
+    private static AlphaBeta<ChessPosition> newQuiescentSearch() {
+        return ChessSearch.newAlphaBeta(new BoardPieceValueHeuristic(), 1);
+    }
+
+    private static ChessPosition newGame() {
+        return new ChessPositionBuilder().setupNewGame().build();
+    }
+
+    @Test
+    public void testStopsAtMaxDepth() {
+        // White mates with Ra8.
+        String[] placements = {"WRa1", "WKg1", "BKg8", "BPf7", "BPg7", "BPh7"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        IterativeDeepening<ChessPosition> decider =
+                new IterativeDeepening<ChessPosition>(newSearch(), SearchBudget.nodes(SearchBudget.UNLIMITED));
+
+        Decision<ChessPosition> decision = decider.bestDecision(position, 3);
+        assertEquals(3, decider.getCompletedDepth());
+        assertEquals(new NormalChessMove("a1", "a8"), decision.getFirstMove());
+        assertEquals(TerminalScore.wins(Player.MAXIMIZER, 1), decision.getScore());
+    }
+
+    @Test
+    public void testNodeBudget() {
+        AlphaBeta<ChessPosition> search = newSearch();
+        IterativeDeepening<ChessPosition> decider =
+                new IterativeDeepening<ChessPosition>(search, SearchBudget.nodes(2000));
+
+        Decision<ChessPosition> decision = decider.bestDecision(newGame(), 10);
+        // The budget ran out well before depth 10, but some search finished.
+        int depth = decider.getCompletedDepth();
+        assertTrue(depth >= 1 && depth < 10);
+        assertTrue(newGame().moves().contains(decision.getFirstMove()));
+    }
+
+    @Test
+    public void testTinyBudgetStillDecides() {
+        IterativeDeepening<ChessPosition> decider =
+                new IterativeDeepening<ChessPosition>(newSearch(), SearchBudget.nodes(1));
+        Decision<ChessPosition> decision = decider.bestDecision(newGame(), 5);
+        assertEquals(1, decider.getCompletedDepth());
+        assertTrue(newGame().moves().contains(decision.getFirstMove()));
+    }
+
+    @Test
+    public void testTimeBudget() {
+        IterativeDeepening<ChessPosition> decider =
+                new IterativeDeepening<ChessPosition>(newSearch(), SearchBudget.millis(50));
+        long start = System.currentTimeMillis();
+        decider.bestDecision(newGame(), 30);
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue(decider.getCompletedDepth() < 30);
+        // Generous, so that slow test machines don't fail.
+        assertTrue(elapsed < 2000);
+    }
+
+    @Test
+    public void testAspirationWindow() throws ChessException {
+        // Nxf7 wins a pawn, which the shallowest search misses, so some
+        // search's score falls outside its window.
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6", "Ng5", "d5", "exd5", "Nxd5"};
+        ChessPosition position = Game.fromMoves(moves).getCurrentPosition();
+        IterativeDeepening<ChessPosition> plain =
+                new IterativeDeepening<ChessPosition>(newQuiescentSearch(), SearchBudget.nodes(SearchBudget.UNLIMITED));
+        IterativeDeepening<ChessPosition> aspiring =
+                new IterativeDeepening<ChessPosition>(newQuiescentSearch(), SearchBudget.nodes(SearchBudget.UNLIMITED))
+                .setAspirationWindow(0.5f);
+
+        Decision<ChessPosition> plainDecision = plain.bestDecision(position, 5);
+        Decision<ChessPosition> aspiringDecision = aspiring.bestDecision(position, 5);
+        assertEquals(plainDecision.getFirstMove(), aspiringDecision.getFirstMove());
+        assertEquals(plainDecision.getScore(), aspiringDecision.getScore());
+        assertTrue(aspiring.getAspirationFailures() > 0);
+        assertEquals(0, plain.getAspirationFailures());
+    }
+
+    @Test
+    public void testDeepResultsSurviveLaterIterations() {
+        // A table that, once the depth-1 search is done, fills every
+        // bucket's depth-preferred entry with a deep result.
+        final int buckets = new TranspositionTable(1).getCapacity() / 2;
+        TranspositionTable table = new TranspositionTable(1) {
+            private boolean filled = false;
+
+            @Override
+            public void store(long key, int depth, Bound bound, int score, int pliesFromRoot, int bestMove) {
+                super.store(key, depth, bound, score, pliesFromRoot, bestMove);
+                // The root's result is the last one a search stores.
+                if (!filled && pliesFromRoot == 0) {
+                    filled = true;
+                    for (long deepKey = 0; deepKey < buckets; deepKey++) {
+                        super.store(deepKey, 50, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+                    }
+                }
+            }
+        };
+        AlphaBeta<ChessPosition> search = newQuiescentSearch().setTranspositionTable(table);
+        IterativeDeepening<ChessPosition> decider =
+                new IterativeDeepening<ChessPosition>(search, SearchBudget.nodes(SearchBudget.UNLIMITED))
+                .setAspirationWindow(0.5f);
+
+        decider.bestDecision(newGame(), 4);
+        assertEquals(4, decider.getCompletedDepth());
+        // The shallower results of later depths went elsewhere.
+        for (long key = 0; key < buckets; key++) {
+            assertEquals(50, table.find(key).getDepth());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeAspirationWindow() {
+        new IterativeDeepening<ChessPosition>(newSearch(), SearchBudget.nodes(1)).setAspirationWindow(-1.0f);
+    }
+
+    @Test
+    public void testBudgetedAlphaBetaAborts() {
+        AlphaBeta<ChessPosition> search = newSearch();
+        SearchBudget budget = SearchBudget.nodes(100);
+        try {
+            search.bestDecision(newGame(), 4, budget);
+            fail("Searched depth 4 in 100 nodes.");
+        } catch (SearchAbortedException expected) {
+        }
+        assertTrue(budget.isExhausted());
+
+        budget.start();
+        assertFalse(budget.isExhausted());
+        assertEquals(0, budget.getNodesSpent());
+    }
+}
@@ -0,0 +1,77 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessMoveOrderer;
+
+public class LazySmpTest {
+
+    private static final AlphaBetaFactory<ChessPosition> FACTORY = new AlphaBetaFactory<ChessPosition>() {
+        @Override
+        public AlphaBeta<ChessPosition> alphaBeta() {
+            return new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                    .setMoveOrderer(new ChessMoveOrderer());
+        }
+    };
+
+    private static LazySmp<ChessPosition> newDecider(int threads) {
+        return new LazySmp<ChessPosition>(FACTORY, new TranspositionTable(1), threads);
+    }
+
+    @Test
+    public void testFindsMate() {
+        // White mates with Ra8.
+        String[] placements = {"WRa1", "WKg1", "BKg8", "BPf7", "BPg7", "BPh7"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        LazySmp<ChessPosition> decider = newDecider(4);
+        try {
+            // The helpers' results from one Decision are reused by the next.
+            for (int search = 0; search < 2; search++) {
+                Decision<ChessPosition> decision = decider.bestDecision(position, 3);
+                assertEquals(new NormalChessMove("a1", "a8"), decision.getFirstMove());
+                assertEquals(TerminalScore.wins(Player.MAXIMIZER, 1), decision.getScore());
+            }
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    @Test
+    public void testHelpersCountNodes() {
+        ChessPosition position = new ChessPositionBuilder().setupNewGame().build();
+        LazySmp<ChessPosition> single = newDecider(1);
+        LazySmp<ChessPosition> parallel = newDecider(3);
+        try {
+            Decision<ChessPosition> decision = parallel.bestDecision(position, 4);
+            assertTrue(position.moves().contains(decision.getFirstMove()));
+            assertEquals(3, parallel.getThreadCount());
+
+            single.bestDecision(position, 4);
+            assertTrue(single.getNodeCount() > 0);
+            // The main thread alone would have visited about as many
+            // nodes as a single thread does, and the helpers add more.
+            assertTrue(parallel.getNodeCount() > single.getNodeCount() / 2);
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoThreads() {
+        newDecider(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoTable() {
+        new LazySmp<ChessPosition>(FACTORY, null, 2);
+    }
+}
@@ -0,0 +1,116 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class LossyIntTableTest {
+
+    private static final int MEGABYTES = 1;
+
+    @Test
+    public void testCapacityIsPowerOfTwo() {
+        int capacity = new LossyIntTable(MEGABYTES).getCapacity();
+        assertEquals(0, capacity & (capacity - 1));
+        assertEquals(4 * capacity, new LossyIntTable(4 * MEGABYTES).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        new LossyIntTable(0);
+    }
+
+    @Test
+    public void testStoreAndFind() {
+        LossyIntTable table = new LossyIntTable(MEGABYTES);
+        long key = 0x123456789abcdefL;
+        assertEquals(LossyIntTable.MISSING, table.find(key));
+        table.store(key, -1234);
+        assertEquals(-1234, table.find(key));
+        table.store(key, Integer.MIN_VALUE);
+        assertEquals(Integer.MIN_VALUE, table.find(key));
+
+        // A key with the same low bits replaces the entry.
+        long other = key ^ (1L << 40);
+        table.store(other, 5);
+        assertEquals(LossyIntTable.MISSING, table.find(key));
+        assertEquals(5, table.find(other));
+
+        table.clear();
+        assertEquals(LossyIntTable.MISSING, table.find(other));
+    }
+
+    @Test
+    public void testEmptyEntriesNeverMatch() {
+        LossyIntTable table = new LossyIntTable(MEGABYTES);
+        // These keys' high halves are 0, as is an empty entry.
+        for (long key = 0; key < 100; key++) {
+            assertEquals(LossyIntTable.MISSING, table.find(key));
+        }
+        table.store(7L, 0);
+        assertEquals(0, table.find(7L));
+        table.clear();
+        assertEquals(LossyIntTable.MISSING, table.find(7L));
+    }
+
+    @Test
+    public void testCounting() {
+        LossyIntTable table = new LossyIntTable(MEGABYTES);
+        table.store(1L, 1);
+        table.find(1L);
+        table.find(2L);
+        // Counting is off by default.
+        assertEquals(0, table.getHits());
+        assertEquals(0, table.getMisses());
+        assertEquals(0, table.getHitRate(), 0);
+
+        assertEquals(table, table.setCounting(true));
+        table.find(1L);
+        table.find(1L);
+        table.find(1L);
+        table.find(2L);
+        assertEquals(3, table.getHits());
+        assertEquals(1, table.getMisses());
+        assertEquals(0.75, table.getHitRate(), 1e-9);
+
+        table.resetCounts();
+        assertEquals(0, table.getHits());
+        assertEquals(0, table.getMisses());
+    }
+
+    @Test
+    public void testConcurrentStoresNeverMix() throws InterruptedException {
+        final LossyIntTable table = new LossyIntTable(MEGABYTES);
+        final int storesPerThread = 200000;
+        final AtomicBoolean mixed = new AtomicBoolean(false);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    // Keys that share entries, each value derived from
+                    // its key, so a mix of two entries shows.
+                    for (int i = 0; i < storesPerThread; i++) {
+                        long key = ((long) (i % 8) << 40) | (i * threads.length + offset) % 1000;
+                        table.store(key, (int) (key >>> 20));
+                        long found = table.find(key);
+                        if (found != LossyIntTable.MISSING && found != (int) (key >>> 20)) {
+                            mixed.set(true);
+                        }
+                    }
+                }
+            };
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(mixed.get());
+    }
+}
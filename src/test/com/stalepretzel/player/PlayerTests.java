@@ -5,7 +5,19 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-        ScoreTest.class
+        AlphaBetaTest.class,
+        CachingHeuristicTest.class,
+        IntScoreTest.class,
+        IterativeDeepeningTest.class,
+        LazySmpTest.class,
+        LossyIntTableTest.class,
+        PrincipalVariationSearchTest.class,
+        PruningTest.class,
+        PvSplitTest.class,
+        QuiescenceTest.class,
+        RootSplitTest.class,
+        ScoreTest.class,
+        TranspositionTableTest.class
         })
 public class PlayerTests {
 }
@@ -0,0 +1,58 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessSearch;
+
+public class PrincipalVariationSearchTest {
+
+    private static final String[][] GAMES = {
+        {},
+        {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7"},
+        {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6", "Ng5", "d5", "exd5", "Nxd5"}};
+
+    private static AlphaBeta<ChessPosition> newSearch(boolean pvs) {
+        // Without the reductions, which would change the result.
+        return ChessSearch.newAlphaBeta(new BoardPieceValueHeuristic(), 0)
+                .setNullMovePruning(false)
+                .setLateMoveReductions(false)
+                .setPrincipalVariationSearch(pvs);
+    }
+
+    @Test
+    public void testSameDecisions() throws ChessException {
+        for (String[] moves : GAMES) {
+            ChessPosition position = Game.fromMoves(moves).getCurrentPosition();
+            Decision<ChessPosition> plainDecision = newSearch(false).bestDecision(position, 4);
+            Decision<ChessPosition> pvsDecision = newSearch(true).bestDecision(position, 4);
+            // Null windows only rule Moves out, so the result is the same.
+            assertEquals(plainDecision.getFirstMove(), pvsDecision.getFirstMove());
+            assertEquals(plainDecision.getScore(), pvsDecision.getScore());
+        }
+    }
+
+    @Test
+    public void testFewerNodesWhenDeepening() throws ChessException {
+        // With a table, re-searches are cheap, so PVS saves nodes.
+        ChessPosition position = Game.fromMoves(GAMES[1]).getCurrentPosition();
+        assertTrue(deepeningNodes(position, true) < deepeningNodes(position, false));
+    }
+
+    /** Count the nodes of searches to depths 1 to 5, as IterativeDeepening runs them. */
+    private static long deepeningNodes(ChessPosition position, boolean pvs) {
+        AlphaBeta<ChessPosition> search = newSearch(pvs).setTranspositionTable(new TranspositionTable(4));
+        long nodes = 0;
+        for (int depth = 1; depth <= 5; depth++) {
+            search.bestDecision(position, depth);
+            nodes += search.getNodeCount();
+        }
+        return nodes;
+    }
+}
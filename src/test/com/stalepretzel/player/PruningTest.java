@@ -0,0 +1,62 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessSearch;
+import com.stalepretzel.chess.player.TacticsSuite;
+
+public class PruningTest {
+
+    private static final String[] RUY_LOPEZ = {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6",
+                                               "O-O", "Be7"};
+
+    private static AlphaBeta<ChessPosition> newSearch(boolean nullMovePruning, boolean lateMoveReductions) {
+        return ChessSearch.newAlphaBeta(new BoardPieceValueHeuristic(), 1)
+                .setNullMovePruning(nullMovePruning)
+                .setLateMoveReductions(lateMoveReductions);
+    }
+
+    /** Count the nodes a search visits from the Ruy Lopez, to depth 5. */
+    private static long countNodes(AlphaBeta<ChessPosition> search) throws ChessException {
+        search.bestDecision(Game.fromMoves(RUY_LOPEZ).getCurrentPosition(), 5);
+        return search.getNodeCount();
+    }
+
+    @Test
+    public void testSolvesTactics() {
+        int problems = TacticsSuite.problems().size();
+        assertEquals(problems, TacticsSuite.solvedCount(newSearch(false, false)));
+        assertEquals(problems, TacticsSuite.solvedCount(newSearch(true, false)));
+        assertEquals(problems, TacticsSuite.solvedCount(newSearch(false, true)));
+        assertEquals(problems, TacticsSuite.solvedCount(newSearch(true, true)));
+    }
+
+    @Test
+    public void testNullMovePruningVisitsFewerNodes() throws ChessException {
+        assertTrue(countNodes(newSearch(true, false)) < countNodes(newSearch(false, false)));
+        assertTrue(countNodes(newSearch(true, true)) < countNodes(newSearch(false, true)));
+    }
+
+    @Test
+    public void testLateMoveReductionsVisitFewerNodes() throws ChessException {
+        assertTrue(countNodes(newSearch(false, true)) < countNodes(newSearch(false, false)));
+        assertTrue(countNodes(newSearch(true, true)) < countNodes(newSearch(true, false)));
+    }
+
+    @Test
+    public void testNullMovePruningOnBoardsThatCannotPass() throws ChessException {
+        // PositionStacks can't pass, so they're searched as if without pruning.
+        ChessPosition position = Game.fromMoves(RUY_LOPEZ).getCurrentPosition();
+        AlphaBeta<ChessPosition> pruning = new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic())
+                .setNullMovePruning(true);
+        AlphaBeta<ChessPosition> plain = new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic());
+        assertEquals(plain.bestDecision(position, 3).getScore(), pruning.bestDecision(position, 3).getScore());
+    }
+}
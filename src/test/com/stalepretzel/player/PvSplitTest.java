@@ -0,0 +1,63 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessMoveOrderer;
+
+public class PvSplitTest {
+
+    private static final AlphaBetaFactory<ChessPosition> FACTORY = new AlphaBetaFactory<ChessPosition>() {
+        @Override
+        public AlphaBeta<ChessPosition> alphaBeta() {
+            return new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                    .setMoveOrderer(new ChessMoveOrderer());
+        }
+    };
+
+    @Test
+    public void testFindsMate() {
+        // White mates with Ra8.
+        String[] placements = {"WRa1", "WKg1", "BKg8", "BPf7", "BPg7", "BPh7"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        PvSplit<ChessPosition> decider = new PvSplit<ChessPosition>(FACTORY, new TranspositionTable(1), 3);
+        try {
+            Decision<ChessPosition> decision = decider.bestDecision(position, 3);
+            assertEquals(new NormalChessMove("a1", "a8"), decision.getFirstMove());
+            assertEquals(TerminalScore.wins(Player.MAXIMIZER, 1), decision.getScore());
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    @Test
+    public void testMatchesSerialScore() throws ChessException {
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Bxc6"};
+        ChessPosition position = Game.fromMoves(moves).getCurrentPosition();
+        // Without a table, no result depends on what another thread cached.
+        PvSplit<ChessPosition> decider = new PvSplit<ChessPosition>(FACTORY, null, 4);
+        try {
+            for (int depth = 1; depth <= 4; depth++) {
+                Score serialScore = FACTORY.alphaBeta().bestDecision(position, depth).getScore();
+                Decision<ChessPosition> decision = decider.bestDecision(position, depth);
+                assertEquals(serialScore, decision.getScore());
+                assertTrue(position.moves().contains(decision.getFirstMove()));
+            }
+            assertTrue(decider.getNodeCount() > 0);
+            // Each iteration split every node of its principal variation
+            // with at least two plies left: 1 at depth 2, up to 3 at depth 4.
+            assertEquals(1 + 2 + 3, decider.getSplitCount());
+        } finally {
+            decider.shutdown();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessSearch;
+
+public class QuiescenceTest {
+
+    // A sharp position: after Ng5 d5 exd5 Nxd5, Ng5xf7 is on.
+    private static final String[] TWO_KNIGHTS = {"e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6",
+                                                 "Ng5", "d5", "exd5", "Nxd5"};
+
+    private static AlphaBeta<ChessPosition> newSearch(boolean quiescence) {
+        return ChessSearch.newAlphaBeta(new BoardPieceValueHeuristic(), 0).setQuiescence(quiescence);
+    }
+
+    @Test
+    public void testSeesRecapture() {
+        // The pawn on d5 is defended, so the queen shouldn't take it.
+        String[] placements = {"WKa1", "WQd1", "BKh8", "BPd5", "BPe6"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        Decision<ChessPosition> decision = newSearch(true).bestDecision(position, 1);
+        assertFalse(new NormalChessMove("d1", "d5").equals(decision.getFirstMove()));
+        assertEquals(new EstimatedScore(7.0f), decision.getScore());
+    }
+
+    @Test
+    public void testFewerNodesThanExtending() throws ChessException {
+        ChessPosition position = Game.fromMoves(TWO_KNIGHTS).getCurrentPosition();
+        AlphaBeta<ChessPosition> extending = newSearch(false);
+        AlphaBeta<ChessPosition> quiescent = newSearch(true);
+        extending.bestDecision(position, 3);
+        quiescent.bestDecision(position, 3);
+        assertTrue(quiescent.getNodeCount() < extending.getNodeCount());
+    }
+
+    @Test
+    public void testDeltaPruning() throws ChessException {
+        ChessPosition position = Game.fromMoves(TWO_KNIGHTS).getCurrentPosition();
+        AlphaBeta<ChessPosition> unpruned = newSearch(true).setDeltaPruning(null);
+        AlphaBeta<ChessPosition> pruned = newSearch(true);
+        Decision<ChessPosition> unprunedDecision = unpruned.bestDecision(position, 4);
+        Decision<ChessPosition> prunedDecision = pruned.bestDecision(position, 4);
+        assertEquals(new NormalChessMove("g5", "f7"), prunedDecision.getFirstMove());
+        assertEquals(unprunedDecision.getScore(), prunedDecision.getScore());
+        assertTrue(pruned.getNodeCount() < unpruned.getNodeCount());
+    }
+}
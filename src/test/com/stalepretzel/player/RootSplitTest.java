@@ -0,0 +1,89 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.Game;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.exceptions.ChessException;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.chess.player.ChessSearch;
+import com.stalepretzel.chess.player.PieceSquareHeuristic;
+
+public class RootSplitTest {
+
+    // Shuffled, so that each task's nodes come in a different order every time.
+    private static final AlphaBetaFactory<ChessPosition> FACTORY = new AlphaBetaFactory<ChessPosition>() {
+        @Override
+        public AlphaBeta<ChessPosition> alphaBeta() {
+            return new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY);
+        }
+    };
+
+    // Configured as StreamChessServer's search is, but for the table, which RootSplit shares.
+    private static final AlphaBetaFactory<ChessPosition> SERVER_FACTORY = new AlphaBetaFactory<ChessPosition>() {
+        @Override
+        public AlphaBeta<ChessPosition> alphaBeta() {
+            return ChessSearch.newAlphaBeta(new PieceSquareHeuristic(), 0);
+        }
+    };
+
+    @Test
+    public void testFindsMate() {
+        // White mates with Ra8.
+        String[] placements = {"WRa1", "WKg1", "BKg8", "BPf7", "BPg7", "BPh7"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        RootSplit<ChessPosition> decider = new RootSplit<ChessPosition>(FACTORY, null, 3);
+        try {
+            Decision<ChessPosition> decision = decider.bestDecision(position, 3);
+            assertEquals(new NormalChessMove("a1", "a8"), decision.getFirstMove());
+            assertEquals(TerminalScore.wins(Player.MAXIMIZER, 1), decision.getScore());
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeterministic() throws ChessException {
+        // Black to move, with several equally good moves.
+        String[] moves = {"e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Bxc6"};
+        ChessPosition position = Game.fromMoves(moves).getCurrentPosition();
+        Score serialScore = FACTORY.alphaBeta().bestDecision(position, 3).getScore();
+
+        RootSplit<ChessPosition> decider = new RootSplit<ChessPosition>(FACTORY, null, 4);
+        try {
+            Decision<ChessPosition> first = decider.bestDecision(position, 3);
+            assertEquals(serialScore, first.getScore());
+            for (int run = 0; run < 5; run++) {
+                Decision<ChessPosition> decision = decider.bestDecision(position, 3);
+                assertEquals(first.getFirstMove(), decision.getFirstMove());
+                assertEquals(first.getScore(), decision.getScore());
+            }
+        } finally {
+            decider.shutdown();
+        }
+    }
+
+    @Test
+    public void testServerSearch() throws ChessException {
+        // White mates with Ra8.
+        String[] placements = {"WRa1", "WKg1", "BKg8", "BPf7", "BPg7", "BPh7"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        RootSplit<ChessPosition> decider =
+                new RootSplit<ChessPosition>(SERVER_FACTORY, new TranspositionTable(1), 4);
+        try {
+            // The workers keep their searches and the table between Decisions.
+            for (int run = 0; run < 3; run++) {
+                Decision<ChessPosition> decision = decider.bestDecision(position, 4);
+                assertEquals(new NormalChessMove("a1", "a8"), decision.getFirstMove());
+                assertEquals(TerminalScore.wins(Player.MAXIMIZER, 1), decision.getScore());
+            }
+        } finally {
+            decider.shutdown();
+        }
+    }
+}
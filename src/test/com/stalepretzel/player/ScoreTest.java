@@ -106,6 +106,19 @@ public class ScoreTest {
         doGreaterAssertions(minWinInAWhile, minWinSoon);
     }
 
+    @Test
+    public void testOutcomeOutranksPlies() {
+        // A distant win beats a nearer loss or draw, however many plies apart.
+        Score maxWinSoon = TerminalScore.wins(Player.MAXIMIZER, 0);
+        Score draw = TerminalScore.draw(6);
+        Score minWinInAWhile = TerminalScore.wins(Player.MINIMIZER, 12);
+
+        doGreaterAssertions(maxWinSoon, draw);
+        doGreaterAssertions(draw, minWinInAWhile);
+        doGreaterAssertions(maxWinSoon, minWinInAWhile);
+        doGreaterAssertions(TerminalScore.HIGHEST, minWinInAWhile);
+    }
+
     @Test
     public void testEstimatedGetters() {
         EstimatedScore es = new EstimatedScore(1.5f);
@@ -0,0 +1,189 @@
+package com.stalepretzel.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.stalepretzel.chess.ChessPosition;
+import com.stalepretzel.chess.ChessPositionBuilder;
+import com.stalepretzel.chess.ChessSearchBoard;
+import com.stalepretzel.chess.NormalChessMove;
+import com.stalepretzel.chess.player.BoardPieceValueHeuristic;
+import com.stalepretzel.player.TranspositionTable.Bound;
+import com.stalepretzel.player.TranspositionTable.Entry;
+
+public class TranspositionTableTest {
+
+    private static final int MEGABYTES = 1;
+
+    @Test
+    public void testCapacityIsPowerOfTwo() {
+        int capacity = new TranspositionTable(MEGABYTES).getCapacity();
+        assertEquals(0, capacity & (capacity - 1));
+        int biggerCapacity = new TranspositionTable(4 * MEGABYTES).getCapacity();
+        assertEquals(4 * capacity, biggerCapacity);
+    }
+
+    @Test
+    public void testSixteenBytesPerEntry() {
+        assertEquals((1 << 20) / 16, new TranspositionTable(MEGABYTES).getCapacity());
+    }
+
+    @Test
+    public void testEmptyEntriesNeverMatch() {
+        TranspositionTable table = new TranspositionTable(MEGABYTES);
+        // These keys' high halves are 0, as is an empty entry.
+        for (long key = 0; key < 100; key++) {
+            assertNull(table.find(key));
+        }
+    }
+
+    @Test
+    public void testFindIntoEntry() {
+        TranspositionTable table = new TranspositionTable(MEGABYTES);
+        Entry entry = new Entry();
+        assertFalse(table.find(42L, entry));
+        table.store(42L, 4, Bound.UPPER, -75, 0, 99);
+        assertTrue(table.find(42L, entry));
+        assertEquals(4, entry.getDepth());
+        assertEquals(Bound.UPPER, entry.getBound());
+        assertEquals(-75, entry.getScore(0));
+        assertEquals(99, entry.getMove());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        new TranspositionTable(0);
+    }
+
+    @Test
+    public void testStoreAndFind() {
+        TranspositionTable table = new TranspositionTable(MEGABYTES);
+        // The table doesn't care how Moves are packed.
+        int move = 1234;
+        long key = 0x123456789abcdefL;
+        assertNull(table.find(key));
+
+        table.store(key, 3, Bound.LOWER, 150, 2, move);
+        Entry entry = table.find(key);
+        assertEquals(3, entry.getDepth());
+        assertEquals(Bound.LOWER, entry.getBound());
+        assertEquals(150, entry.getScore(5));
+        assertEquals(move, entry.getMove());
+
+        table.clear();
+        assertNull(table.find(key));
+    }
+
+    @Test
+    public void testMateScoresAreRelativeToPosition() {
+        TranspositionTable table = new TranspositionTable(MEGABYTES);
+        long key = 42L;
+        // Mate two plies after a Position four plies from the root...
+        table.store(key, 2, Bound.EXACT, IntScore.wins(Player.MAXIMIZER, 6), 4, SearchBoard.NO_MOVE);
+        Entry entry = table.find(key);
+        // ...is mate two plies after that Position one ply from the root.
+        assertEquals(IntScore.wins(Player.MAXIMIZER, 3), entry.getScore(1));
+        assertEquals(SearchBoard.NO_MOVE, entry.getMove());
+    }
+
+    @Test
+    public void testReplacement() {
+        TranspositionTable table = new TranspositionTable(MEGABYTES);
+        // These keys share a bucket.
+        long deep = 7L;
+        long shallow = deep + (1L << 40);
+        long newer = deep + (2L << 40);
+        table.store(deep, 5, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+        table.store(shallow, 1, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+        // The deep result keeps its depth-preferred entry.
+        assertEquals(5, table.find(deep).getDepth());
+        assertEquals(1, table.find(shallow).getDepth());
+
+        // A newer shallow result replaces the always-replace entry.
+        table.store(newer, 1, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+        assertNull(table.find(shallow));
+        assertEquals(5, table.find(deep).getDepth());
+
+        // Results of old searches are replaceable, regardless of depth.
+        table.newSearch();
+        table.store(shallow, 1, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+        assertNull(table.find(deep));
+        assertEquals(1, table.find(shallow).getDepth());
+    }
+
+    @Test
+    public void testOldSearchesStayOld() {
+        TranspositionTable table = new TranspositionTable(MEGABYTES);
+        long deep = 7L;
+        long shallow = deep + (1L << 40);
+        table.store(deep, 5, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+        // However many searches later, the result is still replaceable.
+        for (int search = 0; search < 256; search++) {
+            table.newSearch();
+        }
+        table.store(shallow, 1, Bound.EXACT, IntScore.DRAW, 0, SearchBoard.NO_MOVE);
+        assertNull(table.find(deep));
+    }
+
+    @Test
+    public void testConcurrentStoresNeverMix() throws InterruptedException {
+        final TranspositionTable table = new TranspositionTable(MEGABYTES);
+        final int storesPerThread = 200000;
+        final AtomicBoolean mixed = new AtomicBoolean(false);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    // Every thread stores to the same few buckets, each
+                    // entry's fields derived from its key...
+                    for (int i = 0; i < storesPerThread; i++) {
+                        long key = (i * threads.length + offset) % 1000;
+                        table.store(key, (int) key % 100, Bound.EXACT,
+                                    (int) key, 0, (int) key);
+                        // ...so a mix of two entries shows.
+                        Entry entry = table.find(key ^ 1);
+                        if (entry != null) {
+                            long found = key ^ 1;
+                            if (entry.getMove() != found || entry.getDepth() != found % 100 ||
+                                    entry.getScore(0) != found) {
+                                mixed.set(true);
+                            }
+                        }
+                    }
+                }
+            };
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(mixed.get());
+    }
+
+    @Test
+    public void testAlphaBetaWithTable() {
+        // White mates with Ra8.
+        String[] placements = {"WRa1", "WKg1", "BKg8", "BPf7", "BPg7", "BPh7"};
+        ChessPosition position = new ChessPositionBuilder().placePieces(placements).build();
+        AlphaBeta<ChessPosition> decider =
+                new AlphaBeta<ChessPosition>(new BoardPieceValueHeuristic(), ChessSearchBoard.FACTORY)
+                .setTranspositionTable(new TranspositionTable(MEGABYTES));
+
+        // The second search reuses the first search's results.
+        for (int search = 0; search < 2; search++) {
+            Decision<ChessPosition> decision = decider.bestDecision(position, 3);
+            assertEquals(new NormalChessMove("a1", "a8"), decision.getFirstMove());
+            assertEquals(TerminalScore.wins(Player.MAXIMIZER, 1), decision.getScore());
+        }
+    }
+}